@@ -7,6 +7,7 @@ import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.stereotype.Component;
 
 import com.autobots.automanager.entidades.Cliente;
@@ -18,6 +19,7 @@ import com.autobots.automanager.repositorios.ClienteRepository;
 
 
 @SpringBootApplication
+@EnableScheduling
 public class AutomanagerApplication {
 
 	public static void main(String[] args) {
@@ -31,6 +33,10 @@ public class AutomanagerApplication {
 
 		@Override
 		public void run(ApplicationArguments args) throws Exception {
+			// banco restaurado de uma cópia: não repete os dados de exemplo
+			if (repositorio.count() > 0) {
+				return;
+			}
 
 			Calendar calendario = Calendar.getInstance();
 			calendario.set(2002, 05, 15);
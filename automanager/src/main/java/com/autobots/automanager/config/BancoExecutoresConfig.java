@@ -0,0 +1,105 @@
+package com.autobots.automanager.config;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.perfil.MedicaoHibernate;
+
+/**
+ * Executores de banco dos controladores assíncronos, separados em dois compartimentos:
+ * consultas baratas (busca por id, em lote, inclusão, atualização e exclusão, que acha
+ * o cliente dono pelo índice) e varreduras (listagens de todos os registros do
+ * inquilino). Cada um tem threads e fila próprias, então uma listagem grande não ocupa
+ * as threads das buscas; com a fila cheia, a requisição é recusada com 503.
+ */
+@Configuration
+public class BancoExecutoresConfig {
+
+    @Value("${automanager.banco.consultas.threads:6}")
+    private int threadsConsultas;
+
+    @Value("${automanager.banco.consultas.fila:200}")
+    private int filaConsultas;
+
+    @Value("${automanager.banco.varreduras.threads:2}")
+    private int threadsVarreduras;
+
+    @Value("${automanager.banco.varreduras.fila:20}")
+    private int filaVarreduras;
+
+    @Bean
+    public ThreadPoolTaskExecutor executorConsultas(EntityManagerFactory fabrica) {
+        return criar("consulta-", threadsConsultas, filaConsultas, fabrica);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor executorVarreduras(EntityManagerFactory fabrica) {
+        return criar("varredura-", threadsVarreduras, filaVarreduras, fabrica);
+    }
+
+    private ThreadPoolTaskExecutor criar(String prefixo, int threads, int fila, EntityManagerFactory fabrica) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefixo);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setTaskDecorator(new ContextoRequisicao(fabrica));
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Leva para a thread de trabalho o inquilino, os atributos da requisição (usados
+     * pelos links HATEOAS) e a medição do Hibernate, e abre um EntityManager para a
+     * tarefa inteira, como o open-in-view faz na thread do servlet.
+     */
+    static class ContextoRequisicao implements TaskDecorator {
+
+        private final EntityManagerFactory fabrica;
+
+        ContextoRequisicao(EntityManagerFactory fabrica) {
+            this.fabrica = fabrica;
+        }
+
+        @Override
+        public Runnable decorate(Runnable tarefa) {
+            String inquilino = InquilinoContexto.getInquilino();
+            // os atributos da thread do servlet são desativados quando o despacho original
+            // termina; a tarefa usa um invólucro novo sobre a mesma requisição
+            RequestAttributes original = RequestContextHolder.getRequestAttributes();
+            RequestAttributes atributos = original instanceof ServletRequestAttributes
+                    ? new ServletRequestAttributes(((ServletRequestAttributes) original).getRequest())
+                    : original;
+            MedicaoHibernate medicao = MedicaoHibernate.atual();
+            return () -> {
+                InquilinoContexto.setInquilino(inquilino);
+                RequestContextHolder.setRequestAttributes(atributos);
+                MedicaoHibernate anterior = MedicaoHibernate.usar(medicao);
+                EntityManager entityManager = fabrica.createEntityManager();
+                TransactionSynchronizationManager.bindResource(fabrica, new EntityManagerHolder(entityManager));
+                try {
+                    tarefa.run();
+                } finally {
+                    TransactionSynchronizationManager.unbindResource(fabrica);
+                    EntityManagerFactoryUtils.closeEntityManager(entityManager);
+                    MedicaoHibernate.usar(anterior);
+                    RequestContextHolder.resetRequestAttributes();
+                    InquilinoContexto.limpar();
+                }
+            };
+        }
+    }
+}
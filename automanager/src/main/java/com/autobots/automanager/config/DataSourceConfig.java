@@ -0,0 +1,121 @@
+package com.autobots.automanager.config;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.autobots.automanager.copia.RestauracaoCopia;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Dois pools de conexões, primária e réplica, atrás de um DataSourceRoteador. A JPA
+ * recebe o roteador envolvido num LazyConnectionDataSourceProxy, para que o destino
+ * seja escolhido no primeiro comando, quando a transação (e seu readOnly) já começou.
+ * Sem automanager.replica.url, a réplica é um segundo pool sobre o mesmo banco.
+ * O esquema é criado e evoluído pelas migrações, aplicadas na primária antes da JPA;
+ * antes delas, um banco vazio é restaurado da cópia mais recente, se houver.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${automanager.replica.url:}")
+    private String urlReplica;
+
+    @Value("${automanager.replica.usuario:}")
+    private String usuarioReplica;
+
+    @Value("${automanager.replica.senha:}")
+    private String senhaReplica;
+
+    @Value("${automanager.replica.tamanho-pool:10}")
+    private int tamanhoPoolReplica;
+
+    @Value("${automanager.replica.atraso-maximo-ms:5000}")
+    private long atrasoMaximoMs;
+
+    @Value("${automanager.copia.diretorio:copias}")
+    private String diretorioCopias;
+
+    @Value("${automanager.copia.restaurar-na-inicializacao:false}")
+    private boolean restaurarCopia;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties propriedades) {
+        HikariDataSource primaria = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaria.setPoolName("primaria");
+        return primaria;
+    }
+
+    @Bean
+    public HikariDataSource dataSourceReplica(DataSourceProperties propriedades) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setDriverClassName(propriedades.determineDriverClassName());
+        if (StringUtils.hasText(urlReplica)) {
+            replica.setJdbcUrl(urlReplica);
+            replica.setUsername(usuarioReplica);
+            replica.setPassword(senhaReplica);
+        } else {
+            replica.setJdbcUrl(propriedades.determineUrl());
+            replica.setUsername(propriedades.determineUsername());
+            replica.setPassword(propriedades.determinePassword());
+        }
+        replica.setMaximumPoolSize(tamanhoPoolReplica);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean(initMethod = "restaurar")
+    public RestauracaoCopia restauracaoCopia(@Qualifier("dataSourcePrimaria") DataSource primaria) {
+        return new RestauracaoCopia(primaria, diretorioCopias, restaurarCopia);
+    }
+
+    @Bean(initMethod = "migrar")
+    public MigradorEsquema migradorEsquema(RestauracaoCopia restauracao,
+            @Qualifier("dataSourcePrimaria") DataSource primaria) {
+        return new MigradorEsquema(primaria);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor jpaDependeDasMigracoes() {
+        return new EntityManagerFactoryDependsOnPostProcessor("migradorEsquema");
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(MigradorEsquema migrador, @Qualifier("dataSourcePrimaria") DataSource primaria,
+            @Qualifier("dataSourceReplica") DataSource replica, MeterRegistry registro) {
+        return new MonitorReplica(primaria, replica, atrasoMaximoMs, registro);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimaria") DataSource primaria,
+            @Qualifier("dataSourceReplica") DataSource replica, MonitorReplica monitor, MeterRegistry registro) {
+        DataSourceRoteador roteador = new DataSourceRoteador(monitor, registro);
+        roteador.setTargetDataSources(Map.of(
+                DataSourceRoteador.Destino.PRIMARIA, primaria,
+                DataSourceRoteador.Destino.REPLICA, replica));
+        roteador.setDefaultTargetDataSource(primaria);
+        roteador.afterPropertiesSet();
+        LazyConnectionDataSourceProxy preguicoso = new LazyConnectionDataSourceProxy(roteador);
+        // evita abrir uma conexão só para descobrir os padrões do driver
+        preguicoso.setDefaultAutoCommit(true);
+        preguicoso.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return preguicoso;
+    }
+}
@@ -0,0 +1,65 @@
+package com.autobots.automanager.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Escolhe o pool de cada conexão: leituras vão para a réplica enquanto o
+ * MonitorReplica a considerar em dia; o resto vai para a primária. Só é leitura o que
+ * roda numa requisição GET ou HEAD, fora de transação ou numa transação readOnly.
+ * Requisições que alteram dados leem sempre da primária, mesmo nos métodos de
+ * consulta dos repositórios (que são readOnly): um PUT que carregasse o cliente de uma
+ * réplica atrasada gravaria de volta campos antigos. Tarefas em segundo plano, sem
+ * requisição, também vão para a primária. Uma transação de escrita lê sempre da
+ * primária, para enxergar o que ela mesma gravou.
+ */
+public class DataSourceRoteador extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIA, REPLICA
+    }
+
+    private final MonitorReplica monitor;
+
+    private final Counter conexoesPrimaria;
+
+    private final Counter conexoesReplica;
+
+    public DataSourceRoteador(MonitorReplica monitor, MeterRegistry registro) {
+        this.monitor = monitor;
+        this.conexoesPrimaria = Counter.builder("automanager.datasource.roteamento").tag("destino", "primaria")
+                .register(registro);
+        this.conexoesReplica = Counter.builder("automanager.datasource.roteamento").tag("destino", "replica")
+                .register(registro);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (leitura() && monitor.isDisponivel()) {
+            conexoesReplica.increment();
+            return Destino.REPLICA;
+        }
+        conexoesPrimaria.increment();
+        return Destino.PRIMARIA;
+    }
+
+    private static boolean leitura() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!(atributos instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        String metodo = ((ServletRequestAttributes) atributos).getRequest().getMethod();
+        if (!HttpMethod.GET.matches(metodo) && !HttpMethod.HEAD.matches(metodo)) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
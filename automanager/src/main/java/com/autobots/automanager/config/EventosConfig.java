@@ -0,0 +1,31 @@
+package com.autobots.automanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor que escreve os eventos nas conexões SSE. Cada assinante ocupa no máximo uma
+ * tarefa por vez (que esvazia a sua fila), então poucas threads atendem muitas conexões.
+ */
+@Configuration
+public class EventosConfig {
+
+    @Value("${automanager.eventos.threads:2}")
+    private int threads;
+
+    @Value("${automanager.eventos.max-assinantes:200}")
+    private int maxAssinantes;
+
+    @Bean
+    public ThreadPoolTaskExecutor executorEventos() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("evento-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxAssinantes);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package com.autobots.automanager.config;
+
+import java.util.List;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.autobots.automanager.perfil.HibernateInstrumentacao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Instala a HibernateInstrumentacao como interceptor, inspetor de sentenças e
+ * integrador (para os listeners de cascata) da fábrica de sessões.
+ */
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernateInstrumentacao hibernateInstrumentacao(MeterRegistry registro) {
+        return new HibernateInstrumentacao(registro);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer instrumentacaoHibernate(HibernateInstrumentacao instrumentacao) {
+        return propriedades -> {
+            propriedades.put("hibernate.session_factory.interceptor", instrumentacao);
+            propriedades.put("hibernate.session_factory.statement_inspector", instrumentacao);
+            propriedades.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(instrumentacao));
+        };
+    }
+}
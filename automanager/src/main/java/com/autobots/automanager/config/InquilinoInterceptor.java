@@ -0,0 +1,192 @@
+package com.autobots.automanager.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+
+/**
+ * Resolve o inquilino pelo cabeçalho X-Inquilino e aplica as cotas por inquilino:
+ * um limite de requisições simultâneas (que também limita as conexões do pool que
+ * cada concessionária pode ocupar) e uma taxa máxima de requisições por segundo.
+ * Uma requisição assíncrona conserva sua vaga do início até a conclusão do despacho
+ * assíncrono e só é cobrada uma vez.
+ *
+ * O cabeçalho não é autenticado: ele precisa ser definido por um gateway confiável,
+ * que descarta o valor enviado pelo cliente. A lista de permitidos (obrigatória, veja
+ * WebConfig) só impede identificadores desconhecidos.
+ *
+ * Com aceitar-qualquer, qualquer identificador válido é aceito, então as cotas são
+ * limitadas: uma tarefa periódica descarta as ociosas há mais de um minuto, e com
+ * MAX_COTAS atingido o inquilino novo recebe 429 até a próxima limpeza. Nenhuma
+ * requisição percorre o mapa.
+ */
+public class InquilinoInterceptor implements AsyncHandlerInterceptor {
+
+	public static final String CABECALHO = "X-Inquilino";
+
+	private static final Pattern FORMATO = Pattern.compile("[a-z0-9-]{1,40}");
+
+	private static final String ATRIBUTO_COTA = InquilinoInterceptor.class.getName() + ".cota";
+
+	private static final String ATRIBUTO_INQUILINO = InquilinoInterceptor.class.getName() + ".inquilino";
+
+	private static final int MAX_COTAS = 10_000;
+
+	private static final long OCIOSA_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	/** Vaga de um fluxo de eventos já devolvida ao inquilino. */
+	private static final Object DEVOLVIDA = new Object();
+
+	private final Set<String> permitidos;
+
+	private final int maxSimultaneas;
+
+	private final int requisicoesPorSegundo;
+
+	private final Map<String, Cota> cotas = new ConcurrentHashMap<>();
+
+	public InquilinoInterceptor(Set<String> permitidos, int maxSimultaneas, int requisicoesPorSegundo) {
+		this.permitidos = permitidos;
+		this.maxSimultaneas = maxSimultaneas;
+		this.requisicoesPorSegundo = requisicoesPorSegundo;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+		if (request.getAttribute(ATRIBUTO_COTA) != null) {
+			InquilinoContexto.setInquilino((String) request.getAttribute(ATRIBUTO_INQUILINO));
+			return true;
+		}
+		String inquilino = request.getHeader(CABECALHO);
+		if (inquilino == null || inquilino.isBlank()) {
+			inquilino = InquilinoContexto.PADRAO;
+		}
+		if (!FORMATO.matcher(inquilino).matches() || (!permitidos.isEmpty() && !permitidos.contains(inquilino))) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), "Inquilino inválido");
+			return false;
+		}
+
+		Cota cota = cotas.get(inquilino);
+		if (cota == null) {
+			cota = novaCota(inquilino);
+			if (cota == null) {
+				response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Inquilinos ativos demais");
+				return false;
+			}
+		}
+		if (!cota.consumirTaxa()) {
+			response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Cota de requisições do inquilino excedida");
+			return false;
+		}
+		if (!cota.simultaneas.tryAcquire()) {
+			response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Limite de requisições simultâneas do inquilino excedido");
+			return false;
+		}
+		request.setAttribute(ATRIBUTO_COTA, cota);
+		request.setAttribute(ATRIBUTO_INQUILINO, inquilino);
+		InquilinoContexto.setInquilino(inquilino);
+		return true;
+	}
+
+	/**
+	 * A thread do servlet é liberada, mas a vaga continua ocupada até afterCompletion do
+	 * despacho assíncrono. Fluxos de eventos, que ficam abertos por minutos, devolvem a
+	 * vaga assim que começam.
+	 */
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Object cota = request.getAttribute(ATRIBUTO_COTA);
+		if (cota != null && cota != DEVOLVIDA && fluxo(handler)) {
+			// o marcador ainda identifica o despacho assíncrono final em preHandle
+			request.setAttribute(ATRIBUTO_COTA, DEVOLVIDA);
+			((Cota) cota).simultaneas.release();
+		}
+		InquilinoContexto.limpar();
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		Object cota = request.getAttribute(ATRIBUTO_COTA);
+		if (cota != null) {
+			request.removeAttribute(ATRIBUTO_COTA);
+			if (cota != DEVOLVIDA) {
+				((Cota) cota).simultaneas.release();
+			}
+		}
+		InquilinoContexto.limpar();
+	}
+
+	private Cota novaCota(String inquilino) {
+		if (cotas.size() >= MAX_COTAS) {
+			return cotas.get(inquilino);
+		}
+		return cotas.computeIfAbsent(inquilino, chave -> new Cota(maxSimultaneas, requisicoesPorSegundo));
+	}
+
+	/** Descarta as cotas ociosas, fora do caminho das requisições. */
+	@Scheduled(fixedDelayString = "${automanager.inquilino.limpeza-ms:60000}")
+	public void descartarOciosas() {
+		long agora = System.nanoTime();
+		cotas.values().removeIf(cota -> cota.ociosa(agora));
+	}
+
+	private static boolean fluxo(Object handler) {
+		if (!(handler instanceof HandlerMethod)) {
+			return false;
+		}
+		MethodParameter retorno = ((HandlerMethod) handler).getReturnType();
+		Class<?> tipo = retorno.getParameterType();
+		if (ResponseEntity.class.isAssignableFrom(tipo)) {
+			tipo = ResolvableType.forMethodParameter(retorno).getGeneric(0).resolve(Object.class);
+		}
+		return ResponseBodyEmitter.class.isAssignableFrom(tipo);
+	}
+
+	private static class Cota {
+		private final Semaphore simultaneas;
+		private final int maxSimultaneas;
+		private final int capacidade;
+		private double fichas;
+		private long ultimaRecarga = System.nanoTime();
+
+		Cota(int maxSimultaneas, int requisicoesPorSegundo) {
+			this.simultaneas = new Semaphore(maxSimultaneas);
+			this.maxSimultaneas = maxSimultaneas;
+			this.capacidade = requisicoesPorSegundo;
+			this.fichas = requisicoesPorSegundo;
+		}
+
+		synchronized boolean consumirTaxa() {
+			long agora = System.nanoTime();
+			fichas = Math.min(capacidade, fichas + (agora - ultimaRecarga) * capacidade / 1_000_000_000.0);
+			ultimaRecarga = agora;
+			if (fichas < 1) {
+				return false;
+			}
+			fichas--;
+			return true;
+		}
+
+		/** Sem requisições em andamento e sem uso recente; a taxa já voltou ao máximo. */
+		synchronized boolean ociosa(long agora) {
+			return agora - ultimaRecarga > OCIOSA_NANOS && simultaneas.availablePermits() == maxSimultaneas;
+		}
+	}
+}
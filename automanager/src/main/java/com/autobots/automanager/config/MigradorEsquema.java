@@ -0,0 +1,162 @@
+package com.autobots.automanager.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Aplica as migrações versionadas de db/migracao (V{versão}__{descrição}.sql), em ordem,
+ * registrando cada uma em esquema_historico com a soma de verificação do script. Um
+ * script já aplicado que tenha sido alterado impede a inicialização. Num banco criado
+ * antes das migrações (sem histórico, mas com a tabela cliente), a versão 1 é
+ * registrada como linha de base e só as seguintes são executadas.
+ */
+public class MigradorEsquema {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MigradorEsquema.class);
+
+    private static final Pattern NOME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final String LOCAL = "classpath:db/migracao/V*__*.sql";
+
+    private final DataSource dataSource;
+
+    private final JdbcTemplate jdbc;
+
+    public MigradorEsquema(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    public void migrar() {
+        List<Migracao> migracoes = carregar();
+        boolean novoHistorico = !existeTabela("esquema_historico");
+        if (novoHistorico) {
+            jdbc.execute("create table esquema_historico (versao int not null, descricao varchar(200) not null, "
+                    + "soma_verificacao bigint not null, aplicada_em timestamp not null, duracao_ms bigint not null, "
+                    + "primary key (versao))");
+            if (existeTabela("cliente") && !migracoes.isEmpty()) {
+                Migracao base = migracoes.get(0);
+                registrar(base, 0);
+                LOG.info("Esquema existente registrado como linha de base na versão {}", base.versao);
+            }
+        }
+
+        Map<Integer, Long> aplicadas = new HashMap<>();
+        jdbc.query("select versao, soma_verificacao from esquema_historico",
+                (ResultSet linha) -> {
+                    aplicadas.put(linha.getInt(1), linha.getLong(2));
+                });
+        for (Migracao migracao : migracoes) {
+            Long soma = aplicadas.get(migracao.versao);
+            if (soma != null) {
+                if (soma != migracao.soma) {
+                    throw new IllegalStateException("Migração V" + migracao.versao + " foi alterada depois de aplicada: "
+                            + migracao.recurso.getFilename());
+                }
+                continue;
+            }
+            aplicar(migracao);
+        }
+    }
+
+    private void aplicar(Migracao migracao) {
+        long inicio = System.nanoTime();
+        Connection conexao = DataSourceUtils.getConnection(dataSource);
+        try {
+            ScriptUtils.executeSqlScript(conexao, new EncodedResource(migracao.recurso, StandardCharsets.UTF_8));
+        } finally {
+            DataSourceUtils.releaseConnection(conexao, dataSource);
+        }
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        registrar(migracao, duracaoMs);
+        LOG.info("Migração V{} ({}) aplicada em {} ms", migracao.versao, migracao.descricao, duracaoMs);
+    }
+
+    private void registrar(Migracao migracao, long duracaoMs) {
+        jdbc.update("insert into esquema_historico (versao, descricao, soma_verificacao, aplicada_em, duracao_ms) "
+                + "values (?, ?, ?, current_timestamp, ?)", migracao.versao, migracao.descricao, migracao.soma, duracaoMs);
+    }
+
+    private boolean existeTabela(String nome) {
+        Connection conexao = DataSourceUtils.getConnection(dataSource);
+        try {
+            DatabaseMetaData metadados = conexao.getMetaData();
+            for (String variante : new String[] { nome.toUpperCase(), nome.toLowerCase() }) {
+                try (ResultSet tabelas = metadados.getTables(null, null, variante, new String[] { "TABLE" })) {
+                    if (tabelas.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível ler os metadados do banco", e);
+        } finally {
+            DataSourceUtils.releaseConnection(conexao, dataSource);
+        }
+    }
+
+    private static List<Migracao> carregar() {
+        try {
+            List<Migracao> migracoes = new ArrayList<>();
+            for (Resource recurso : new PathMatchingResourcePatternResolver().getResources(LOCAL)) {
+                Matcher nome = NOME.matcher(recurso.getFilename());
+                if (!nome.matches()) {
+                    throw new IllegalStateException("Nome de migração inválido: " + recurso.getFilename());
+                }
+                CRC32 soma = new CRC32();
+                soma.update(StreamUtils.copyToByteArray(recurso.getInputStream()));
+                migracoes.add(new Migracao(Integer.parseInt(nome.group(1)), nome.group(2).replace('_', ' '),
+                        soma.getValue(), recurso));
+            }
+            migracoes.sort(Comparator.comparingInt(migracao -> migracao.versao));
+            for (int i = 1; i < migracoes.size(); i++) {
+                if (migracoes.get(i).versao == migracoes.get(i - 1).versao) {
+                    throw new IllegalStateException("Versão de migração repetida: V" + migracoes.get(i).versao);
+                }
+            }
+            return migracoes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Migracao {
+        private final int versao;
+        private final String descricao;
+        private final long soma;
+        private final Resource recurso;
+
+        Migracao(int versao, String descricao, long soma, Resource recurso) {
+            this.versao = versao;
+            this.descricao = descricao;
+            this.soma = soma;
+            this.recurso = recurso;
+        }
+    }
+}
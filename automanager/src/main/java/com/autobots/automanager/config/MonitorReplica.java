@@ -0,0 +1,88 @@
+package com.autobots.automanager.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Mede o atraso da réplica por batimento: a cada intervalo grava o instante atual na
+ * primária e lê o último instante visível na réplica. Se o atraso passar do máximo,
+ * ou a réplica não responder, as leituras voltam para a primária até ela se recuperar.
+ */
+public class MonitorReplica {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private final JdbcTemplate primaria;
+
+    private final JdbcTemplate replica;
+
+    private final long atrasoMaximoMs;
+
+    private final AtomicLong atrasoMs = new AtomicLong(-1);
+
+    private volatile boolean disponivel = true;
+
+    public MonitorReplica(DataSource primaria, DataSource replica, long atrasoMaximoMs, MeterRegistry registro) {
+        this.primaria = new JdbcTemplate(primaria);
+        this.replica = new JdbcTemplate(replica);
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        Gauge.builder("automanager.replica.atraso", atrasoMs, AtomicLong::get).baseUnit("milliseconds")
+                .register(registro);
+        Gauge.builder("automanager.replica.disponivel", this, monitor -> monitor.disponivel ? 1 : 0)
+                .register(registro);
+        verificar();
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    /** Atraso medido no último batimento, ou -1 se a réplica não respondeu. */
+    public long getAtrasoMs() {
+        return atrasoMs.get();
+    }
+
+    @Scheduled(fixedDelayString = "${automanager.replica.batimento-ms:1000}")
+    public void verificar() {
+        long atraso;
+        try {
+            gravarBatimento(System.currentTimeMillis());
+            long instante = replica.queryForObject("SELECT instante FROM replica_batimento WHERE id = 1", Long.class);
+            atraso = Math.max(0, System.currentTimeMillis() - instante);
+        } catch (RuntimeException e) {
+            LOG.debug("Batimento da réplica falhou", e);
+            atraso = -1;
+        }
+        atrasoMs.set(atraso);
+        boolean emDia = atraso >= 0 && atraso <= atrasoMaximoMs;
+        if (emDia != disponivel) {
+            if (emDia) {
+                LOG.info("Réplica em dia (atraso de {} ms); leituras voltam para a réplica", atraso);
+            } else {
+                LOG.warn("Réplica indisponível ou atrasada (atraso de {} ms); leituras vão para a primária", atraso);
+            }
+            disponivel = emDia;
+        }
+    }
+
+    /** UPDATE e, na primeira vez, INSERT: sem o MERGE do H2, para funcionar em qualquer banco. */
+    private void gravarBatimento(long instante) {
+        if (primaria.update("UPDATE replica_batimento SET instante = ? WHERE id = 1", instante) == 0) {
+            try {
+                primaria.update("INSERT INTO replica_batimento (id, instante) VALUES (1, ?)", instante);
+            } catch (DuplicateKeyException e) {
+                primaria.update("UPDATE replica_batimento SET instante = ? WHERE id = 1", instante);
+            }
+        }
+    }
+}
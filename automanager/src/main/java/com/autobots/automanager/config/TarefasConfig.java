@@ -0,0 +1,53 @@
+package com.autobots.automanager.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executores das tarefas em segundo plano. As threads rodam com prioridade mínima
+ * para não competir com o tráfego online.
+ */
+@Configuration
+public class TarefasConfig {
+
+    @Value("${automanager.tarefas.paralelismo:2}")
+    private int paralelismo;
+
+    /** Coordena as tarefas; cada tarefa ocupa uma thread enquanto distribui seus lotes. */
+    @Bean
+    public ThreadPoolTaskExecutor executorTarefas() {
+        return criar("tarefa-", 2, 16);
+    }
+
+    /** Processa os lotes das tarefas em paralelo. */
+    @Bean
+    public ThreadPoolTaskExecutor executorLotes() {
+        return criar("lote-", paralelismo, paralelismo * 4);
+    }
+
+    /**
+     * Relê na primária os clientes alterados para o modelo de leitura em memória. Com a
+     * fila cheia a releitura roda em quem publicou o evento, como antes.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor executorReleituras() {
+        ThreadPoolTaskExecutor executor = criar("releitura-", 1, 10_000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    private ThreadPoolTaskExecutor criar(String prefixo, int threads, int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefixo);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.autobots.automanager.config;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.autobots.automanager.perfil.PerfilSerializacao;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Value("${automanager.inquilino.permitidos:}")
+    private Set<String> inquilinosPermitidos;
+
+    @Value("${automanager.inquilino.aceitar-qualquer:false}")
+    private boolean aceitarQualquerInquilino;
+
+    @Value("${automanager.inquilino.max-requisicoes-simultaneas:20}")
+    private int maxSimultaneas;
+
+    @Value("${automanager.inquilino.requisicoes-por-segundo:200}")
+    private int requisicoesPorSegundo;
+
+    @Autowired
+    private PerfilSerializacao perfilSerializacao;
+
+    /**
+     * O X-Inquilino vem do chamador, então só a lista de permitidos separa um inquilino
+     * do outro: sem ela a aplicação não sobe, a não ser com aceitar-qualquer explícito
+     * (desenvolvimento, ou um gateway confiável que já valida o cabeçalho).
+     */
+    @Bean
+    public InquilinoInterceptor inquilinoInterceptor() {
+        if (inquilinosPermitidos.isEmpty() && !aceitarQualquerInquilino) {
+            throw new IllegalStateException("automanager.inquilino.permitidos está vazio; liste os inquilinos "
+                    + "ou use automanager.inquilino.aceitar-qualquer=true só em desenvolvimento");
+        }
+        return new InquilinoInterceptor(inquilinosPermitidos, maxSimultaneas, requisicoesPorSegundo);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(inquilinoInterceptor())
+            .addPathPatterns("/**")
+            .excludePathPatterns("/swagger/**", "/swagger-ui/**", "/v3/api-docs/**", "/h2-console/**");
+        registry.addInterceptor(perfilSerializacao);
+    }
+}
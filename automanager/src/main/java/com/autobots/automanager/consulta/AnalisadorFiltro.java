@@ -0,0 +1,275 @@
+package com.autobots.automanager.consulta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Linguagem de filtro de GET /cliente, no estilo RSQL/FIQL:
+ *
+ * <pre>
+ * filtro     := conjuncao ( "," conjuncao )*        (, = ou)
+ * conjuncao  := termo ( ";" termo )*                 (; = e)
+ * termo      := "(" filtro ")" | campo operador valor | campo ("=in=" | "=out=") "(" valor ("," valor)* ")"
+ * operador   := == | != | =gt= | &gt; | =ge= | &gt;= | =lt= | &lt; | =le= | &lt;=
+ * valor      := texto sem espaços nem ;,() | 'entre aspas' | "entre aspas"
+ * </pre>
+ *
+ * Em == e != um * no valor casa qualquer sequência (nome==Ana*). A leitura é feita em
+ * duas etapas: {@link #ler} separa os símbolos e calcula a forma do filtro, que é a
+ * chave dos planos em cache; {@link #analisar} monta a árvore e só roda quando a forma
+ * ainda não foi compilada.
+ */
+final class AnalisadorFiltro {
+
+	private static final int PROFUNDIDADE_MAXIMA = 16;
+
+	enum TipoSimbolo {
+		CAMPO, OPERADOR, VALOR, LISTA, E, OU, ABRE, FECHA
+	}
+
+	static final class Simbolo {
+		final TipoSimbolo tipo;
+		final int posicao;
+		final String texto;
+		final Operador operador;
+		final int valor;
+		final boolean curinga;
+
+		Simbolo(TipoSimbolo tipo, int posicao, String texto, Operador operador, int valor, boolean curinga) {
+			this.tipo = tipo;
+			this.posicao = posicao;
+			this.texto = texto;
+			this.operador = operador;
+			this.valor = valor;
+			this.curinga = curinga;
+		}
+	}
+
+	private AnalisadorFiltro() {
+	}
+
+	static FiltroLido ler(String filtro) {
+		List<Simbolo> simbolos = new ArrayList<>();
+		List<Object> valores = new ArrayList<>();
+		StringBuilder forma = new StringBuilder(filtro.length());
+		int i = 0;
+		while (i < filtro.length()) {
+			char ch = filtro.charAt(i);
+			if (Character.isWhitespace(ch)) {
+				i++;
+				continue;
+			}
+			Simbolo anterior = simbolos.isEmpty() ? null : simbolos.get(simbolos.size() - 1);
+			if (anterior != null && anterior.tipo == TipoSimbolo.OPERADOR) {
+				int inicio = i;
+				if (anterior.operador.isLista()) {
+					i = lerLista(filtro, i, valores);
+					simbolos.add(new Simbolo(TipoSimbolo.LISTA, inicio, null, null, valores.size() - 1, false));
+					forma.append("(?)");
+				} else {
+					StringBuilder valor = new StringBuilder();
+					i = lerValor(filtro, i, valor);
+					boolean curinga = (anterior.operador == Operador.IGUAL || anterior.operador == Operador.DIFERENTE)
+							&& valor.indexOf("*") >= 0;
+					valores.add(valor.toString());
+					simbolos.add(new Simbolo(TipoSimbolo.VALOR, inicio, null, null, valores.size() - 1, curinga));
+					forma.append(curinga ? "?*" : "?");
+				}
+				continue;
+			}
+			switch (ch) {
+				case '(':
+					simbolos.add(new Simbolo(TipoSimbolo.ABRE, i, null, null, -1, false));
+					forma.append('(');
+					i++;
+					continue;
+				case ')':
+					simbolos.add(new Simbolo(TipoSimbolo.FECHA, i, null, null, -1, false));
+					forma.append(')');
+					i++;
+					continue;
+				case ';':
+					simbolos.add(new Simbolo(TipoSimbolo.E, i, null, null, -1, false));
+					forma.append(';');
+					i++;
+					continue;
+				case ',':
+					simbolos.add(new Simbolo(TipoSimbolo.OU, i, null, null, -1, false));
+					forma.append(',');
+					i++;
+					continue;
+				default:
+					break;
+			}
+			String grafia = Operador.grafiaEm(filtro, i);
+			if (grafia != null) {
+				Operador operador = Operador.porGrafia(grafia);
+				simbolos.add(new Simbolo(TipoSimbolo.OPERADOR, i, grafia, operador, -1, false));
+				forma.append(operador.getCanonico());
+				i += grafia.length();
+				continue;
+			}
+			if (!Character.isLetter(ch)) {
+				throw erro("caractere inesperado '" + ch + "'", i);
+			}
+			int inicio = i;
+			while (i < filtro.length() && (Character.isLetterOrDigit(filtro.charAt(i)) || filtro.charAt(i) == '.')) {
+				i++;
+			}
+			String campo = filtro.substring(inicio, i);
+			simbolos.add(new Simbolo(TipoSimbolo.CAMPO, inicio, campo, null, -1, false));
+			forma.append(campo);
+		}
+		if (!simbolos.isEmpty() && simbolos.get(simbolos.size() - 1).tipo == TipoSimbolo.OPERADOR) {
+			throw erro("valor esperado", filtro.length());
+		}
+		return new FiltroLido(forma.toString(), valores, simbolos);
+	}
+
+	/** Árvore do filtro lido, ou null se ele é vazio. */
+	static Expressao analisar(FiltroLido lido) {
+		List<Simbolo> simbolos = lido.getSimbolos();
+		if (simbolos.isEmpty()) {
+			return null;
+		}
+		Analise analise = new Analise(simbolos);
+		Expressao expressao = analise.disjuncao(0);
+		if (analise.posicao < simbolos.size()) {
+			throw erro("símbolo inesperado", simbolos.get(analise.posicao).posicao);
+		}
+		return expressao;
+	}
+
+	private static int lerLista(String filtro, int inicio, List<Object> valores) {
+		if (filtro.charAt(inicio) != '(') {
+			throw erro("( esperado depois de =in= ou =out=", inicio);
+		}
+		List<String> lista = new ArrayList<>();
+		int i = inicio + 1;
+		while (true) {
+			i = pularEspacos(filtro, i);
+			StringBuilder valor = new StringBuilder();
+			i = lerValor(filtro, i, valor);
+			lista.add(valor.toString());
+			i = pularEspacos(filtro, i);
+			if (i >= filtro.length()) {
+				throw erro(") esperado", i);
+			}
+			char ch = filtro.charAt(i++);
+			if (ch == ')') {
+				valores.add(lista);
+				return i;
+			}
+			if (ch != ',') {
+				throw erro(", ou ) esperado", i - 1);
+			}
+		}
+	}
+
+	private static int lerValor(String filtro, int inicio, StringBuilder valor) {
+		if (inicio >= filtro.length()) {
+			throw erro("valor esperado", inicio);
+		}
+		char aspa = filtro.charAt(inicio);
+		if (aspa == '\'' || aspa == '"') {
+			int i = inicio + 1;
+			while (i < filtro.length()) {
+				char ch = filtro.charAt(i++);
+				if (ch == aspa) {
+					return i;
+				}
+				if (ch == '\\' && i < filtro.length()) {
+					ch = filtro.charAt(i++);
+				}
+				valor.append(ch);
+			}
+			throw erro("aspas sem fechamento", inicio);
+		}
+		int i = inicio;
+		while (i < filtro.length() && !terminaValor(filtro.charAt(i))) {
+			valor.append(filtro.charAt(i++));
+		}
+		if (valor.length() == 0) {
+			throw erro("valor esperado", inicio);
+		}
+		return i;
+	}
+
+	private static boolean terminaValor(char ch) {
+		return ch == ';' || ch == ',' || ch == '(' || ch == ')' || Character.isWhitespace(ch);
+	}
+
+	private static int pularEspacos(String filtro, int i) {
+		while (i < filtro.length() && Character.isWhitespace(filtro.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static FiltroInvalidoException erro(String motivo, int posicao) {
+		return new FiltroInvalidoException("Filtro inválido na posição " + posicao + ": " + motivo);
+	}
+
+	/** Descida recursiva sobre os símbolos; ; tem precedência sobre ,. */
+	private static final class Analise {
+		private final List<Simbolo> simbolos;
+		private int posicao;
+
+		Analise(List<Simbolo> simbolos) {
+			this.simbolos = simbolos;
+		}
+
+		Expressao disjuncao(int profundidade) {
+			List<Expressao> partes = new ArrayList<>();
+			partes.add(conjuncao(profundidade));
+			while (aceitar(TipoSimbolo.OU)) {
+				partes.add(conjuncao(profundidade));
+			}
+			return partes.size() == 1 ? partes.get(0) : new Expressao.Juncao(true, partes);
+		}
+
+		Expressao conjuncao(int profundidade) {
+			List<Expressao> partes = new ArrayList<>();
+			partes.add(termo(profundidade));
+			while (aceitar(TipoSimbolo.E)) {
+				partes.add(termo(profundidade));
+			}
+			return partes.size() == 1 ? partes.get(0) : new Expressao.Juncao(false, partes);
+		}
+
+		Expressao termo(int profundidade) {
+			if (aceitar(TipoSimbolo.ABRE)) {
+				if (profundidade >= PROFUNDIDADE_MAXIMA) {
+					throw erro("parênteses aninhados demais", simbolos.get(posicao - 1).posicao);
+				}
+				Expressao interna = disjuncao(profundidade + 1);
+				exigir(TipoSimbolo.FECHA, ") esperado");
+				return interna;
+			}
+			Simbolo campo = exigir(TipoSimbolo.CAMPO, "campo esperado");
+			Simbolo operador = exigir(TipoSimbolo.OPERADOR, "operador esperado depois de " + campo.texto);
+			Simbolo valor = exigir(operador.operador.isLista() ? TipoSimbolo.LISTA : TipoSimbolo.VALOR, "valor esperado");
+			return new Expressao.Comparacao(CampoCliente.porNome(campo.texto), operador.operador, valor.curinga, valor.valor);
+		}
+
+		private boolean aceitar(TipoSimbolo tipo) {
+			if (posicao < simbolos.size() && simbolos.get(posicao).tipo == tipo) {
+				posicao++;
+				return true;
+			}
+			return false;
+		}
+
+		private Simbolo exigir(TipoSimbolo tipo, String motivo) {
+			if (posicao >= simbolos.size()) {
+				throw erro(motivo, simbolos.isEmpty() ? 0 : simbolos.get(simbolos.size() - 1).posicao);
+			}
+			Simbolo simbolo = simbolos.get(posicao);
+			if (simbolo.tipo != tipo) {
+				throw erro(motivo, simbolo.posicao);
+			}
+			posicao++;
+			return simbolo;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.autobots.automanager.consulta;
+
+import java.util.function.Function;
+
+import com.autobots.automanager.entidades.Cliente;
+
+/**
+ * Campos aceitos no filtro e na ordenação de GET /cliente. Os do endereço são lidos
+ * pelo join já feito na consulta; os de documentos e telefones viram uma subconsulta
+ * exists ("algum documento com..."). Só os campos do próprio cliente ordenam.
+ */
+public enum CampoCliente {
+
+	ID("id", Tipo.NUMERO, "c.id", null, Cliente::getId),
+	NOME("nome", Tipo.TEXTO, "c.nome", null, Cliente::getNome),
+	NOME_SOCIAL("nomeSocial", Tipo.TEXTO, "c.nomeSocial", null, Cliente::getNomeSocial),
+	DATA_NASCIMENTO("dataNascimento", Tipo.DATA, "c.dataNascimento", null, Cliente::getDataNascimento),
+	DATA_CADASTRO("dataCadastro", Tipo.DATA, "c.dataCadastro", null, Cliente::getDataCadastro),
+	ESTADO("estado", Tipo.TEXTO, "e.estado", null, null),
+	CIDADE("cidade", Tipo.TEXTO, "e.cidade", null, null),
+	BAIRRO("bairro", Tipo.TEXTO, "e.bairro", null, null),
+	DOCUMENTO_TIPO("documento.tipo", Tipo.TEXTO, "tipo", "documentos", null),
+	DOCUMENTO_NUMERO("documento.numero", Tipo.TEXTO, "numero", "documentos", null),
+	TELEFONE_DDD("telefone.ddd", Tipo.TEXTO, "ddd", "telefones", null),
+	TELEFONE_NUMERO("telefone.numero", Tipo.TEXTO, "numero", "telefones", null);
+
+	public enum Tipo {
+		TEXTO, NUMERO, DATA
+	}
+
+	private final String nome;
+	private final Tipo tipo;
+	private final String atributo;
+	private final String colecao;
+	private final Function<Cliente, Object> leitor;
+
+	CampoCliente(String nome, Tipo tipo, String atributo, String colecao, Function<Cliente, Object> leitor) {
+		this.nome = nome;
+		this.tipo = tipo;
+		this.atributo = atributo;
+		this.colecao = colecao;
+		this.leitor = leitor;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	/** Caminho JPQL (alias c do cliente, e do endereço) ou atributo do filho, se o campo é de coleção. */
+	String getAtributo() {
+		return atributo;
+	}
+
+	/** Coleção do cliente que contém o campo, ou null se ele é do cliente ou do endereço. */
+	String getColecao() {
+		return colecao;
+	}
+
+	public boolean isOrdenavel() {
+		return leitor != null;
+	}
+
+	Object ler(Cliente cliente) {
+		return leitor.apply(cliente);
+	}
+
+	public static CampoCliente porNome(String nome) {
+		for (CampoCliente campo : values()) {
+			if (campo.nome.equals(nome)) {
+				return campo;
+			}
+		}
+		throw new FiltroInvalidoException("Campo desconhecido: " + nome);
+	}
+}
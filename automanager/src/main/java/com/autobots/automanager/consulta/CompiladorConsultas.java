@@ -0,0 +1,94 @@
+package com.autobots.automanager.consulta;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Prepara os filtros de GET /cliente. Cada requisição passa só pela leitura léxica,
+ * que dá a forma do filtro; a análise sintática e a geração do JPQL acontecem uma vez
+ * por forma, ordem e máscara de cursor, e o plano resultante fica em cache. Formas
+ * inválidas não entram no cache; valores inválidos (uma data malformada) são recusados
+ * na conversão, com o plano já em cache. Acima do máximo de planos, as formas novas são
+ * compiladas a cada vez, sem ocupar mais memória.
+ *
+ * O custo fica na métrica automanager.consulta.preparo, separada por plano
+ * (reaproveitado ou compilado).
+ */
+@Component
+public class CompiladorConsultas {
+
+	private final Map<String, PlanoFiltro> planos = new ConcurrentHashMap<>();
+
+	private final int maxPlanos;
+
+	private final int tamanhoMaximo;
+
+	private final Counter reaproveitados;
+
+	private final Counter compilados;
+
+	private final Timer preparoReaproveitado;
+
+	private final Timer preparoCompilado;
+
+	public CompiladorConsultas(MeterRegistry registro, @Value("${automanager.consulta.max-planos:1000}") int maxPlanos,
+			@Value("${automanager.consulta.tamanho-maximo-filtro:1000}") int tamanhoMaximo) {
+		this.maxPlanos = maxPlanos;
+		this.tamanhoMaximo = tamanhoMaximo;
+		this.reaproveitados = registro.counter("automanager.consulta.planos", "resultado", "reaproveitado");
+		this.compilados = registro.counter("automanager.consulta.planos", "resultado", "compilado");
+		this.preparoReaproveitado = Timer.builder("automanager.consulta.preparo").tag("plano", "reaproveitado")
+				.publishPercentiles(0.5, 0.99).register(registro);
+		this.preparoCompilado = Timer.builder("automanager.consulta.preparo").tag("plano", "compilado")
+				.publishPercentiles(0.5, 0.99).register(registro);
+		Gauge.builder("automanager.consulta.planos.cache", planos, Map::size).register(registro);
+	}
+
+	/**
+	 * @param filtro filtro na linguagem de AnalisadorFiltro (vazio: todos os clientes)
+	 * @param ordem campos de ordenação (ver Ordenacao), ou null para ordem por id
+	 * @param apos cursor devolvido na página anterior, ou null na primeira
+	 */
+	public ConsultaPreparada preparar(String filtro, String ordem, String apos) {
+		long inicio = System.nanoTime();
+		if (filtro.length() > tamanhoMaximo) {
+			throw new FiltroInvalidoException("Filtro maior que " + tamanhoMaximo + " caracteres");
+		}
+		String ordemPedida = ordem == null ? "" : ordem.trim();
+		FiltroLido lido = AnalisadorFiltro.ler(filtro);
+		Cursor cursor = null;
+		if (apos != null) {
+			cursor = Cursor.decodificar(apos);
+			if (!cursor.getOrdem().equals(ordemPedida)) {
+				throw new FiltroInvalidoException("Cursor gerado para outra ordem");
+			}
+		}
+		String mascara = cursor == null ? null : cursor.mascara();
+		String chave = lido.getForma() + '|' + ordemPedida + '|' + (mascara == null ? "-" : mascara);
+
+		PlanoFiltro plano = planos.get(chave);
+		boolean reaproveitado = plano != null;
+		if (plano == null) {
+			plano = PlanoFiltro.compilar(AnalisadorFiltro.analisar(lido), Ordenacao.ler(ordemPedida), mascara);
+			if (planos.size() < maxPlanos) {
+				planos.putIfAbsent(chave, plano);
+			}
+		}
+		if (cursor != null) {
+			plano.conferirCursor(cursor.getValores());
+		}
+		ConsultaPreparada consulta = new ConsultaPreparada(plano, plano.argumentos(lido.getValores()), cursor, ordemPedida);
+		(reaproveitado ? reaproveitados : compilados).increment();
+		(reaproveitado ? preparoReaproveitado : preparoCompilado).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+		return consulta;
+	}
+}
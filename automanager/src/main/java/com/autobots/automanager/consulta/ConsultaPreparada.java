@@ -0,0 +1,48 @@
+package com.autobots.automanager.consulta;
+
+import java.util.List;
+
+import javax.persistence.Query;
+
+import com.autobots.automanager.entidades.Cliente;
+
+/** Plano (compartilhado, do cache) mais os argumentos desta requisição. */
+public final class ConsultaPreparada {
+
+	private final PlanoFiltro plano;
+	private final Object[] argumentos;
+	private final Cursor cursor;
+	private final String ordem;
+
+	ConsultaPreparada(PlanoFiltro plano, Object[] argumentos, Cursor cursor, String ordem) {
+		this.plano = plano;
+		this.argumentos = argumentos;
+		this.cursor = cursor;
+		this.ordem = ordem;
+	}
+
+	public PlanoFiltro getPlano() {
+		return plano;
+	}
+
+	/** Liga os valores do filtro e do cursor aos parâmetros da consulta criada com getPlano().getJpql(). */
+	public void vincular(Query query) {
+		List<PlanoFiltro.Parametro> parametros = plano.getParametros();
+		for (int i = 0; i < argumentos.length; i++) {
+			query.setParameter(parametros.get(i).nome, argumentos[i]);
+		}
+		if (cursor != null) {
+			Object[] chaves = cursor.getValores();
+			for (int i = 0; i < chaves.length; i++) {
+				if (chaves[i] != null) {
+					query.setParameter("k" + i, chaves[i]);
+				}
+			}
+		}
+	}
+
+	/** Cursor (parâmetro apos) da página que começa depois deste cliente. */
+	public String proximoCursor(Cliente ultimo) {
+		return new Cursor(ordem, plano.chavesDe(ultimo)).codificar();
+	}
+}
@@ -0,0 +1,104 @@
+package com.autobots.automanager.consulta;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Cursor opaco da paginação (parâmetro apos): a ordem pedida e os valores das chaves
+ * de ordenação do último cliente da página, em base64url. A próxima página começa
+ * logo depois desses valores, sem contar nem pular linhas (keyset).
+ */
+final class Cursor {
+
+	private static final byte NULO = 0;
+	private static final byte TEXTO = 1;
+	private static final byte DATA = 2;
+	private static final byte NUMERO = 3;
+
+	private final String ordem;
+	private final Object[] valores;
+
+	Cursor(String ordem, Object[] valores) {
+		this.ordem = ordem;
+		this.valores = valores;
+	}
+
+	String getOrdem() {
+		return ordem;
+	}
+
+	Object[] getValores() {
+		return valores;
+	}
+
+	/** Quais valores são nulos; faz parte da chave do plano, já que muda a condição gerada. */
+	String mascara() {
+		StringBuilder mascara = new StringBuilder(valores.length);
+		for (Object valor : valores) {
+			mascara.append(valor == null ? '0' : '1');
+		}
+		return mascara.toString();
+	}
+
+	String codificar() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try (DataOutputStream saida = new DataOutputStream(bytes)) {
+			saida.writeUTF(ordem);
+			saida.writeByte(valores.length);
+			for (Object valor : valores) {
+				if (valor == null) {
+					saida.writeByte(NULO);
+				} else if (valor instanceof String) {
+					saida.writeByte(TEXTO);
+					saida.writeUTF((String) valor);
+				} else if (valor instanceof Date) {
+					saida.writeByte(DATA);
+					saida.writeLong(((Date) valor).getTime());
+				} else {
+					saida.writeByte(NUMERO);
+					saida.writeLong(((Number) valor).longValue());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+
+	static Cursor decodificar(String texto) {
+		try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(texto)))) {
+			String ordem = entrada.readUTF();
+			Object[] valores = new Object[entrada.readUnsignedByte()];
+			for (int i = 0; i < valores.length; i++) {
+				byte tipo = entrada.readByte();
+				switch (tipo) {
+					case NULO:
+						break;
+					case TEXTO:
+						valores[i] = entrada.readUTF();
+						break;
+					case DATA:
+						valores[i] = new Date(entrada.readLong());
+						break;
+					case NUMERO:
+						valores[i] = entrada.readLong();
+						break;
+					default:
+						throw new FiltroInvalidoException("Cursor inválido");
+				}
+			}
+			if (entrada.available() > 0) {
+				throw new FiltroInvalidoException("Cursor inválido");
+			}
+			return new Cursor(ordem, valores);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new FiltroInvalidoException("Cursor inválido");
+		}
+	}
+}
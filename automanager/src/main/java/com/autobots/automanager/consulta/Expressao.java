@@ -0,0 +1,35 @@
+package com.autobots.automanager.consulta;
+
+import java.util.List;
+
+/**
+ * Árvore do filtro. As comparações guardam a posição do valor em FiltroLido, e não o
+ * valor: a mesma árvore (e o plano compilado dela) serve a qualquer filtro da mesma forma.
+ */
+abstract class Expressao {
+
+	static final class Comparacao extends Expressao {
+		final CampoCliente campo;
+		final Operador operador;
+		final boolean curinga;
+		final int valor;
+
+		Comparacao(CampoCliente campo, Operador operador, boolean curinga, int valor) {
+			this.campo = campo;
+			this.operador = operador;
+			this.curinga = curinga;
+			this.valor = valor;
+		}
+	}
+
+	/** Conjunção (;) ou disjunção (,) de duas ou mais partes. */
+	static final class Juncao extends Expressao {
+		final boolean ou;
+		final List<Expressao> partes;
+
+		Juncao(boolean ou, List<Expressao> partes) {
+			this.ou = ou;
+			this.partes = partes;
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package com.autobots.automanager.consulta;
+
+/** Filtro, ordenação ou cursor de GET /cliente que não pôde ser interpretado (resposta 400). */
+public class FiltroInvalidoException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public FiltroInvalidoException(String mensagem) {
+		super(mensagem);
+	}
+}
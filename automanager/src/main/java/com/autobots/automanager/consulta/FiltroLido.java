@@ -0,0 +1,34 @@
+package com.autobots.automanager.consulta;
+
+import java.util.List;
+
+/**
+ * Resultado da leitura léxica de um filtro: a forma (o filtro com cada valor trocado
+ * por ?, operadores na grafia canônica e sem espaços ou aspas), os valores na ordem em
+ * que aparecem (String, ou List de String nas listas de =in= e =out=) e os símbolos, que
+ * só são analisados quando a forma ainda não tem plano.
+ */
+final class FiltroLido {
+
+	private final String forma;
+	private final List<Object> valores;
+	private final List<AnalisadorFiltro.Simbolo> simbolos;
+
+	FiltroLido(String forma, List<Object> valores, List<AnalisadorFiltro.Simbolo> simbolos) {
+		this.forma = forma;
+		this.valores = valores;
+		this.simbolos = simbolos;
+	}
+
+	String getForma() {
+		return forma;
+	}
+
+	List<Object> getValores() {
+		return valores;
+	}
+
+	List<AnalisadorFiltro.Simbolo> getSimbolos() {
+		return simbolos;
+	}
+}
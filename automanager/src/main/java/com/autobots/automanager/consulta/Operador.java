@@ -0,0 +1,56 @@
+package com.autobots.automanager.consulta;
+
+/**
+ * Operadores de comparação do filtro. Cada um tem uma grafia canônica e, para os de
+ * ordem, uma alternativa sem &lt; e &gt; (que precisam ser codificados na URL); as duas
+ * formas compartilham o mesmo plano.
+ */
+enum Operador {
+
+	IGUAL("==", "=="),
+	DIFERENTE("!=", "!="),
+	MAIOR("=gt=", ">"),
+	MAIOR_IGUAL("=ge=", ">="),
+	MENOR("=lt=", "<"),
+	MENOR_IGUAL("=le=", "<="),
+	EM("=in=", "=in="),
+	FORA("=out=", "=out=");
+
+	/** Grafias em ordem de tentativa: as mais longas antes dos seus prefixos. */
+	private static final String[] GRAFIAS = { "=out=", "=in=", "=gt=", "=ge=", "=lt=", "=le=", "==", "!=", ">=", "<=", ">", "<" };
+
+	private final String canonico;
+	private final String alternativo;
+
+	Operador(String canonico, String alternativo) {
+		this.canonico = canonico;
+		this.alternativo = alternativo;
+	}
+
+	String getCanonico() {
+		return canonico;
+	}
+
+	boolean isLista() {
+		return this == EM || this == FORA;
+	}
+
+	/** Grafia do operador que começa na posição, ou null se nenhuma começa ali. */
+	static String grafiaEm(String texto, int posicao) {
+		for (String grafia : GRAFIAS) {
+			if (texto.startsWith(grafia, posicao)) {
+				return grafia;
+			}
+		}
+		return null;
+	}
+
+	static Operador porGrafia(String grafia) {
+		for (Operador operador : values()) {
+			if (operador.canonico.equals(grafia) || operador.alternativo.equals(grafia)) {
+				return operador;
+			}
+		}
+		throw new FiltroInvalidoException("Operador desconhecido: " + grafia);
+	}
+}
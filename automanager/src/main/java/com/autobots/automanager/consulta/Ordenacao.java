@@ -0,0 +1,69 @@
+package com.autobots.automanager.consulta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parâmetro ordem de GET /cliente: campos separados por vírgula, com - na frente para
+ * ordem decrescente (ordem=nome,-dataCadastro). O id entra sempre como último critério,
+ * para que a ordem seja total e a paginação por cursor não pule nem repita clientes.
+ */
+final class Ordenacao {
+
+	static final int MAX_CAMPOS = 3;
+
+	static final class Chave {
+		final CampoCliente campo;
+		final boolean descendente;
+
+		Chave(CampoCliente campo, boolean descendente) {
+			this.campo = campo;
+			this.descendente = descendente;
+		}
+	}
+
+	private final List<Chave> chaves;
+
+	private Ordenacao(List<Chave> chaves) {
+		this.chaves = Collections.unmodifiableList(chaves);
+	}
+
+	/** Chaves da ordenação, terminando sempre pelo id. */
+	List<Chave> getChaves() {
+		return chaves;
+	}
+
+	static Ordenacao ler(String ordem) {
+		List<Chave> chaves = new ArrayList<>();
+		if (!ordem.isEmpty()) {
+			for (String parte : ordem.split(",", -1)) {
+				String nome = parte.trim();
+				boolean descendente = nome.startsWith("-");
+				if (descendente) {
+					nome = nome.substring(1);
+				}
+				CampoCliente campo = CampoCliente.porNome(nome);
+				if (!campo.isOrdenavel()) {
+					throw new FiltroInvalidoException("Campo não ordenável: " + nome);
+				}
+				for (Chave chave : chaves) {
+					if (chave.campo == campo) {
+						throw new FiltroInvalidoException("Campo repetido na ordem: " + nome);
+					}
+				}
+				if (!chaves.isEmpty() && chaves.get(chaves.size() - 1).campo == CampoCliente.ID) {
+					throw new FiltroInvalidoException("O id precisa ser o último campo da ordem");
+				}
+				chaves.add(new Chave(campo, descendente));
+			}
+			if (chaves.size() > MAX_CAMPOS) {
+				throw new FiltroInvalidoException("Ordem aceita no máximo " + MAX_CAMPOS + " campos");
+			}
+		}
+		if (chaves.isEmpty() || chaves.get(chaves.size() - 1).campo != CampoCliente.ID) {
+			chaves.add(new Chave(CampoCliente.ID, false));
+		}
+		return new Ordenacao(chaves);
+	}
+}
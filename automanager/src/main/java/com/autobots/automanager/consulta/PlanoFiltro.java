@@ -0,0 +1,356 @@
+package com.autobots.automanager.consulta;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import com.autobots.automanager.consulta.Expressao.Comparacao;
+import com.autobots.automanager.consulta.Expressao.Juncao;
+import com.autobots.automanager.entidades.Cliente;
+
+/**
+ * Consulta JPQL compilada para uma forma de filtro, uma ordem e uma máscara de cursor.
+ * Os valores nunca entram no texto: cada um vira um parâmetro nomeado (p0, p1...) com a
+ * conversão do seu tipo, e as chaves do cursor viram k0, k1... Assim o texto é o mesmo
+ * para todos os filtros da mesma forma e o Hibernate também reaproveita a tradução
+ * para SQL no seu próprio cache de planos.
+ *
+ * Datas são comparadas por dia (UTC): dataCadastro=gt=2024-01-01 é a partir de 2 de
+ * janeiro, e dataCadastro==2024-01-01 é o intervalo do dia inteiro.
+ */
+public final class PlanoFiltro {
+
+	enum Conversao {
+		VALOR, CURINGA, DIA, DIA_SEGUINTE, LISTA
+	}
+
+	static final class Parametro {
+		final String nome;
+		final int valor;
+		final CampoCliente campo;
+		final Conversao conversao;
+
+		Parametro(String nome, int valor, CampoCliente campo, Conversao conversao) {
+			this.nome = nome;
+			this.valor = valor;
+			this.campo = campo;
+			this.conversao = conversao;
+		}
+	}
+
+	private final String jpql;
+	private final List<Parametro> parametros;
+	private final Ordenacao ordenacao;
+
+	private PlanoFiltro(String jpql, List<Parametro> parametros, Ordenacao ordenacao) {
+		this.jpql = jpql;
+		this.parametros = Collections.unmodifiableList(parametros);
+		this.ordenacao = ordenacao;
+	}
+
+	public String getJpql() {
+		return jpql;
+	}
+
+	List<Parametro> getParametros() {
+		return parametros;
+	}
+
+	Ordenacao getOrdenacao() {
+		return ordenacao;
+	}
+
+	/**
+	 * @param filtro árvore do filtro, ou null para todos os clientes do inquilino
+	 * @param mascara nulidade das chaves do cursor (ver Cursor#mascara), ou null na primeira página
+	 */
+	static PlanoFiltro compilar(Expressao filtro, Ordenacao ordenacao, String mascara) {
+		if (mascara != null && mascara.length() != ordenacao.getChaves().size()) {
+			throw new FiltroInvalidoException("Cursor inválido para esta ordem");
+		}
+		Compilacao compilacao = new Compilacao();
+		StringBuilder jpql = new StringBuilder(256)
+				.append("select c from Cliente c left join fetch c.endereco e where c.inquilino = :inquilino");
+		if (filtro != null) {
+			jpql.append(" and (");
+			compilacao.expressao(filtro, jpql);
+			jpql.append(')');
+		}
+		if (mascara != null) {
+			jpql.append(" and (");
+			continuacao(ordenacao.getChaves(), mascara, jpql);
+			jpql.append(')');
+		}
+		jpql.append(" order by ");
+		List<Ordenacao.Chave> chaves = ordenacao.getChaves();
+		for (int i = 0; i < chaves.size(); i++) {
+			Ordenacao.Chave chave = chaves.get(i);
+			if (i > 0) {
+				jpql.append(", ");
+			}
+			jpql.append(chave.campo.getAtributo());
+			if (chave.campo == CampoCliente.ID) {
+				jpql.append(chave.descendente ? " desc" : " asc");
+			} else {
+				jpql.append(chave.descendente ? " desc nulls last" : " asc nulls first");
+			}
+		}
+		return new PlanoFiltro(jpql.toString(), compilacao.parametros, ordenacao);
+	}
+
+	/**
+	 * Linhas depois do cursor: (k0 depois) ou (k0 igual e k1 depois) ou ... Com nulos
+	 * primeiro na ordem crescente e por último na decrescente, "depois de nulo" é "não
+	 * nulo" na crescente e não existe na decrescente.
+	 */
+	private static void continuacao(List<Ordenacao.Chave> chaves, String mascara, StringBuilder jpql) {
+		boolean primeiro = true;
+		for (int i = 0; i < chaves.size(); i++) {
+			Ordenacao.Chave chave = chaves.get(i);
+			boolean nulo = mascara.charAt(i) == '0';
+			String depois;
+			String caminho = chave.campo.getAtributo();
+			if (nulo) {
+				depois = chave.descendente ? null : caminho + " is not null";
+			} else if (chave.descendente) {
+				depois = chave.campo == CampoCliente.ID ? caminho + " < :k" + i
+						: "(" + caminho + " < :k" + i + " or " + caminho + " is null)";
+			} else {
+				depois = caminho + " > :k" + i;
+			}
+			if (depois == null) {
+				continue;
+			}
+			if (!primeiro) {
+				jpql.append(" or ");
+			}
+			primeiro = false;
+			jpql.append('(');
+			for (int j = 0; j < i; j++) {
+				String anterior = chaves.get(j).campo.getAtributo();
+				jpql.append(mascara.charAt(j) == '0' ? anterior + " is null" : anterior + " = :k" + j).append(" and ");
+			}
+			jpql.append(depois).append(')');
+		}
+	}
+
+	/** Converte os valores lidos do filtro nos argumentos da consulta, na ordem de getParametros. */
+	Object[] argumentos(List<Object> valores) {
+		Object[] argumentos = new Object[parametros.size()];
+		for (int i = 0; i < argumentos.length; i++) {
+			Parametro parametro = parametros.get(i);
+			Object valor = valores.get(parametro.valor);
+			switch (parametro.conversao) {
+				case CURINGA:
+					argumentos[i] = padraoLike((String) valor);
+					break;
+				case DIA:
+					argumentos[i] = inicioDoDia(parametro.campo, (String) valor, 0);
+					break;
+				case DIA_SEGUINTE:
+					argumentos[i] = inicioDoDia(parametro.campo, (String) valor, 1);
+					break;
+				case LISTA:
+					List<Object> lista = new ArrayList<>();
+					for (Object item : (List<?>) valor) {
+						lista.add(converter(parametro.campo, (String) item));
+					}
+					argumentos[i] = lista;
+					break;
+				default:
+					argumentos[i] = converter(parametro.campo, (String) valor);
+			}
+		}
+		return argumentos;
+	}
+
+	/** Confere se os valores do cursor têm os tipos das chaves desta ordenação. */
+	void conferirCursor(Object[] valores) {
+		List<Ordenacao.Chave> chaves = ordenacao.getChaves();
+		if (valores.length != chaves.size()) {
+			throw new FiltroInvalidoException("Cursor inválido para esta ordem");
+		}
+		for (int i = 0; i < valores.length; i++) {
+			Object valor = valores[i];
+			CampoCliente.Tipo tipo = chaves.get(i).campo.getTipo();
+			boolean tipoCerto = valor == null ? chaves.get(i).campo != CampoCliente.ID
+					: tipo == CampoCliente.Tipo.TEXTO ? valor instanceof String
+					: tipo == CampoCliente.Tipo.DATA ? valor instanceof Date : valor instanceof Long;
+			if (!tipoCerto) {
+				throw new FiltroInvalidoException("Cursor inválido para esta ordem");
+			}
+		}
+	}
+
+	/** Valores das chaves de ordenação do cliente, para o cursor da página seguinte. */
+	Object[] chavesDe(Cliente cliente) {
+		List<Ordenacao.Chave> chaves = ordenacao.getChaves();
+		Object[] valores = new Object[chaves.size()];
+		for (int i = 0; i < valores.length; i++) {
+			valores[i] = chaves.get(i).campo.ler(cliente);
+		}
+		return valores;
+	}
+
+	private static Object converter(CampoCliente campo, String valor) {
+		switch (campo.getTipo()) {
+			case NUMERO:
+				try {
+					return Long.valueOf(valor);
+				} catch (NumberFormatException e) {
+					throw new FiltroInvalidoException("Valor numérico inválido para " + campo.getNome() + ": " + valor);
+				}
+			case DATA:
+				return inicioDoDia(campo, valor, 0);
+			default:
+				return valor;
+		}
+	}
+
+	private static Date inicioDoDia(CampoCliente campo, String valor, int diasDepois) {
+		try {
+			return Date.from(LocalDate.parse(valor).plusDays(diasDepois).atStartOfDay(ZoneOffset.UTC).toInstant());
+		} catch (DateTimeParseException e) {
+			throw new FiltroInvalidoException("Data inválida para " + campo.getNome() + " (use AAAA-MM-DD): " + valor);
+		}
+	}
+
+	/** * vira %, e os curingas do próprio LIKE (% e _) passam a valer literalmente. */
+	private static String padraoLike(String valor) {
+		StringBuilder padrao = new StringBuilder(valor.length() + 4);
+		for (int i = 0; i < valor.length(); i++) {
+			char ch = valor.charAt(i);
+			if (ch == '*') {
+				padrao.append('%');
+			} else {
+				if (ch == '%' || ch == '_' || ch == '\\') {
+					padrao.append('\\');
+				}
+				padrao.append(ch);
+			}
+		}
+		return padrao.toString();
+	}
+
+	private static final class Compilacao {
+		private final List<Parametro> parametros = new ArrayList<>();
+		private int subconsultas;
+
+		void expressao(Expressao expressao, StringBuilder jpql) {
+			if (expressao instanceof Juncao) {
+				Juncao juncao = (Juncao) expressao;
+				for (int i = 0; i < juncao.partes.size(); i++) {
+					if (i > 0) {
+						jpql.append(juncao.ou ? " or " : " and ");
+					}
+					jpql.append('(');
+					expressao(juncao.partes.get(i), jpql);
+					jpql.append(')');
+				}
+				return;
+			}
+			Comparacao comparacao = (Comparacao) expressao;
+			CampoCliente campo = comparacao.campo;
+			if (campo.getColecao() == null) {
+				comparar(comparacao, campo.getAtributo(), jpql);
+				return;
+			}
+			int n = ++subconsultas;
+			String filho = "f" + n;
+			jpql.append("exists (select ").append(filho).append(".id from Cliente s").append(n)
+					.append(" join s").append(n).append('.').append(campo.getColecao()).append(' ').append(filho)
+					.append(" where s").append(n).append(" = c and ");
+			comparar(comparacao, filho + "." + campo.getAtributo(), jpql);
+			jpql.append(')');
+		}
+
+		private void comparar(Comparacao comparacao, String caminho, StringBuilder jpql) {
+			CampoCliente campo = comparacao.campo;
+			Operador operador = comparacao.operador;
+			if (comparacao.curinga && campo.getTipo() != CampoCliente.Tipo.TEXTO) {
+				throw new FiltroInvalidoException("Curinga * só vale em campos de texto: " + campo.getNome());
+			}
+			if (campo.getTipo() == CampoCliente.Tipo.DATA) {
+				compararDia(comparacao, caminho, jpql);
+				return;
+			}
+			switch (operador) {
+				case IGUAL:
+					if (comparacao.curinga) {
+						jpql.append(caminho).append(" like :").append(parametro(comparacao, Conversao.CURINGA)).append(" escape '\\'");
+					} else {
+						jpql.append(caminho).append(" = :").append(parametro(comparacao, Conversao.VALOR));
+					}
+					break;
+				case DIFERENTE:
+					if (comparacao.curinga) {
+						jpql.append(caminho).append(" not like :").append(parametro(comparacao, Conversao.CURINGA)).append(" escape '\\'");
+					} else {
+						jpql.append(caminho).append(" <> :").append(parametro(comparacao, Conversao.VALOR));
+					}
+					break;
+				case EM:
+					jpql.append(caminho).append(" in :").append(parametro(comparacao, Conversao.LISTA));
+					break;
+				case FORA:
+					jpql.append(caminho).append(" not in :").append(parametro(comparacao, Conversao.LISTA));
+					break;
+				default:
+					jpql.append(caminho).append(' ').append(simbolo(operador)).append(" :")
+							.append(parametro(comparacao, Conversao.VALOR));
+			}
+		}
+
+		/** Comparações por dia inteiro: [início do dia, início do dia seguinte). */
+		private void compararDia(Comparacao comparacao, String caminho, StringBuilder jpql) {
+			switch (comparacao.operador) {
+				case IGUAL:
+					jpql.append('(').append(caminho).append(" >= :").append(parametro(comparacao, Conversao.DIA))
+							.append(" and ").append(caminho).append(" < :").append(parametro(comparacao, Conversao.DIA_SEGUINTE)).append(')');
+					break;
+				case DIFERENTE:
+					jpql.append('(').append(caminho).append(" < :").append(parametro(comparacao, Conversao.DIA))
+							.append(" or ").append(caminho).append(" >= :").append(parametro(comparacao, Conversao.DIA_SEGUINTE)).append(')');
+					break;
+				case MAIOR:
+					jpql.append(caminho).append(" >= :").append(parametro(comparacao, Conversao.DIA_SEGUINTE));
+					break;
+				case MAIOR_IGUAL:
+					jpql.append(caminho).append(" >= :").append(parametro(comparacao, Conversao.DIA));
+					break;
+				case MENOR:
+					jpql.append(caminho).append(" < :").append(parametro(comparacao, Conversao.DIA));
+					break;
+				case MENOR_IGUAL:
+					jpql.append(caminho).append(" < :").append(parametro(comparacao, Conversao.DIA_SEGUINTE));
+					break;
+				default:
+					throw new FiltroInvalidoException("Use intervalos (=ge= e =le=) em vez de listas para datas: "
+							+ comparacao.campo.getNome());
+			}
+		}
+
+		private String parametro(Comparacao comparacao, Conversao conversao) {
+			String nome = "p" + parametros.size();
+			parametros.add(new Parametro(nome, comparacao.valor, comparacao.campo, conversao));
+			return nome;
+		}
+
+		private static String simbolo(Operador operador) {
+			switch (operador) {
+				case MAIOR:
+					return ">";
+				case MAIOR_IGUAL:
+					return ">=";
+				case MENOR:
+					return "<";
+				default:
+					return "<=";
+			}
+		}
+	}
+}
@@ -1,16 +1,30 @@
 package com.autobots.automanager.controles;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.validation.Valid;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,12 +32,29 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
+import com.autobots.automanager.consulta.CompiladorConsultas;
+import com.autobots.automanager.consulta.ConsultaPreparada;
 import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.entidades.Documento;
+import com.autobots.automanager.entidades.Telefone;
+import com.autobots.automanager.entrada.ClienteEntrada;
+import com.autobots.automanager.entrada.DocumentoEntrada;
+import com.autobots.automanager.entrada.EnderecoEntrada;
+import com.autobots.automanager.entrada.TelefoneEntrada;
+import com.autobots.automanager.entrada.ValidadorCliente;
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
+import com.autobots.automanager.leitura.ClienteInstantaneo;
+import com.autobots.automanager.leitura.CoalescedorClientes;
+import com.autobots.automanager.leitura.ClienteMemoria;
 import com.autobots.automanager.modelo.ClienteAtualizador;
-import com.autobots.automanager.modelo.ClienteSelect;
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.modelo.ItemLote;
 import com.autobots.automanager.repositorios.ClienteRepository;
+import com.autobots.automanager.servicos.AgregadoServico;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -39,31 +70,61 @@ public class ClienteController {
     @Autowired
     private ClienteRepository repository;
     @Autowired
-    private ClienteSelect selecionador;
+    private ClienteMemoria memoria;
+    @Autowired
+    private ApplicationEventPublisher publicador;
+    @Autowired
+    private AgregadoServico agregadoServico;
+    @Autowired
+    private CoalescedorClientes coalescedor;
+    @Autowired
+    private RequestMappingHandlerAdapter adaptador;
+    @Autowired
+    private CompiladorConsultas compilador;
+    @Value("${automanager.lote.max-ids:200}")
+    private int maxIds;
+    @Value("${automanager.consulta.limite-padrao:50}")
+    private int limitePadrao;
+    @Value("${automanager.consulta.limite-maximo:500}")
+    private int limiteMaximo;
+
+    private final ClienteAtualizador atualizador = new ClienteAtualizador();
 
-    @GetMapping("/{id}")
+    private volatile HttpMessageConverter<Object> conversorHal;
+
+    /**
+     * Requisições simultâneas do mesmo cliente compartilham uma única busca e os mesmos
+     * bytes serializados (ver CoalescedorClientes).
+     */
+    @GetMapping(value = "/{id}", produces = { MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
     @Operation(summary = "Buscar cliente por ID", description = "Retorna um cliente específico pelo ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Cliente encontrado"),
         @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
-    public ResponseEntity<EntityModel<Cliente>> getCliente(@PathVariable long id) {
-        List<Cliente> clientes = repository.findAll();
-        Cliente cliente = selecionador.selecionar(clientes, id);
-        if (cliente == null) {
+    public ResponseEntity<byte[]> getCliente(@PathVariable long id) {
+        String base = linkTo(ClienteController.class).toString();
+        byte[] corpo = coalescedor.obter(InquilinoContexto.getInquilino(), id, base, () -> {
+            Cliente cliente = buscar(id);
+            if (cliente == null) {
+                return null;
+            }
+            EntityModel<Cliente> resource = EntityModel.of(cliente);
+            resource.add(linkTo(methodOn(ClienteController.class).getCliente(id)).withSelfRel());
+            resource.add(linkTo(methodOn(ClienteController.class).getClientes()).withRel("clientes"));
+            return serializar(resource);
+        });
+        if (corpo == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        EntityModel<Cliente> resource = EntityModel.of(cliente);
-        resource.add(linkTo(methodOn(ClienteController.class).getCliente(id)).withSelfRel());
-        resource.add(linkTo(methodOn(ClienteController.class).getClientes()).withRel("clientes"));
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok(corpo);
     }
 
     @GetMapping
     @Operation(summary = "Listar todos os clientes", description = "Retorna uma lista de todos os clientes cadastrados")
     @ApiResponse(responseCode = "200", description = "Lista de clientes retornada com sucesso")
     public ResponseEntity<CollectionModel<EntityModel<Cliente>>> getClientes() {
-        List<Cliente> clientes = repository.findAll();
+        List<Cliente> clientes = repository.findByInquilino(InquilinoContexto.getInquilino());
         List<EntityModel<Cliente>> clienteResources = clientes.stream()
             .map(cliente -> EntityModel.of(cliente,
                 linkTo(methodOn(ClienteController.class).getCliente(cliente.getId())).withSelfRel(),
@@ -74,14 +135,84 @@ public class ClienteController {
         return ResponseEntity.ok(collection);
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Buscar clientes em lote", description = "Retorna os clientes dos ids informados, na ordem pedida, marcando os não encontrados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Clientes retornados na ordem dos ids"),
+        @ApiResponse(responseCode = "400", description = "Nenhum id ou ids demais")
+    })
+    public ResponseEntity<CollectionModel<ItemLote<Cliente>>> getClientesPorIds(@RequestParam List<Long> ids) {
+        Set<Long> pedidos = new LinkedHashSet<>(ids);
+        if (pedidos.isEmpty() || pedidos.size() > maxIds) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<ItemLote<Cliente>> itens = ItemLote.ordenar(pedidos, buscarLote(pedidos), Cliente::getId,
+            cliente -> EntityModel.of(cliente,
+                linkTo(methodOn(ClienteController.class).getCliente(cliente.getId())).withSelfRel()));
+        CollectionModel<ItemLote<Cliente>> collection = CollectionModel.of(itens);
+        collection.add(linkTo(methodOn(ClienteController.class).getClientes()).withRel("clientes"));
+        return ResponseEntity.ok(collection);
+    }
+
+    /**
+     * Filtro e ordenação traduzidos para uma consulta parametrizada (ver AnalisadorFiltro
+     * e CompiladorConsultas), paginada por cursor: o link next traz o parâmetro apos com
+     * as chaves do último cliente da página.
+     */
+    @GetMapping(params = { "filtro", "!ids" })
+    @Operation(summary = "Filtrar clientes",
+        description = "Filtra (ex.: filtro=estado==SP;dataCadastro=gt=2024-01-01) e ordena (ex.: ordem=nome,-dataCadastro) os clientes, em páginas de até limite clientes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de clientes, com link next se houver mais"),
+        @ApiResponse(responseCode = "400", description = "Filtro, ordem, limite ou cursor inválido")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<Cliente>>> getClientesFiltrados(@RequestParam String filtro,
+            @RequestParam(required = false) String ordem, @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String apos) {
+        int tamanho = limite == null ? limitePadrao : limite;
+        if (tamanho < 1 || tamanho > limiteMaximo) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        ConsultaPreparada consulta = compilador.preparar(filtro, ordem, apos);
+        List<Cliente> clientes = repository.consultar(InquilinoContexto.getInquilino(), consulta, tamanho + 1);
+        boolean haMais = clientes.size() > tamanho;
+        List<Cliente> pagina = haMais ? clientes.subList(0, tamanho) : clientes;
+        if (!pagina.isEmpty()) {
+            repository.carregarDocumentos(pagina);
+            repository.carregarTelefones(pagina);
+        }
+        List<EntityModel<Cliente>> clienteResources = pagina.stream()
+            .map(cliente -> EntityModel.of(cliente,
+                linkTo(methodOn(ClienteController.class).getCliente(cliente.getId())).withSelfRel()))
+            .collect(Collectors.toList());
+        CollectionModel<EntityModel<Cliente>> collection = CollectionModel.of(clienteResources);
+        collection.add(linkTo(methodOn(ClienteController.class).getClientesFiltrados(filtro, ordem, limite, apos)).withSelfRel().expand());
+        if (haMais) {
+            String proximo = consulta.proximoCursor(pagina.get(pagina.size() - 1));
+            collection.add(linkTo(methodOn(ClienteController.class).getClientesFiltrados(filtro, ordem, limite, proximo))
+                .withRel(IanaLinkRelations.NEXT).expand());
+        }
+        collection.add(linkTo(methodOn(ClienteController.class).getClientes()).withRel("clientes"));
+        return ResponseEntity.ok(collection);
+    }
+
+    @GetMapping(params = { "ordem", "!filtro", "!ids" })
+    @Operation(summary = "Ordenar clientes", description = "O mesmo que filtrar clientes, com filtro vazio")
+    public ResponseEntity<CollectionModel<EntityModel<Cliente>>> getClientesOrdenados(@RequestParam String ordem,
+            @RequestParam(required = false) Integer limite, @RequestParam(required = false) String apos) {
+        return getClientesFiltrados("", ordem, limite, apos);
+    }
+
     @PostMapping
     @Operation(summary = "Criar novo cliente", description = "Cadastra um novo cliente no sistema")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Cliente criado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Dados inválidos")
     })
-    public ResponseEntity<EntityModel<Cliente>> createCliente(@Valid @RequestBody Cliente cliente) {
-        Cliente savedCliente = repository.save(cliente);
+    public ResponseEntity<EntityModel<Cliente>> createCliente(@RequestBody ClienteEntrada entrada) {
+        ValidadorCliente.validarCriacao(entrada);
+        Cliente savedCliente = repository.save(entrada.paraEntidade());
+        publicador.publishEvent(ClienteAlteradoEvento.criado(savedCliente));
         EntityModel<Cliente> resource = EntityModel.of(savedCliente);
         resource.add(linkTo(methodOn(ClienteController.class).getCliente(savedCliente.getId())).withSelfRel());
         resource.add(linkTo(methodOn(ClienteController.class).getClientes()).withRel("clientes"));
@@ -95,15 +226,16 @@ public class ClienteController {
         @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
         @ApiResponse(responseCode = "400", description = "Dados inválidos")
     })
-    public ResponseEntity<Void> updateCliente(@PathVariable long id, @Valid @RequestBody Cliente update) {
-        Optional<Cliente> opt = repository.findById(id);
+    public ResponseEntity<Void> updateCliente(@PathVariable long id, @RequestBody ClienteEntrada entrada) {
+        ValidadorCliente.validarAtualizacao(entrada);
+        Optional<Cliente> opt = repository.findByIdAndInquilino(id, InquilinoContexto.getInquilino());
         if (opt.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
         Cliente cliente = opt.get();
-        ClienteAtualizador atualizador = new ClienteAtualizador();
-        atualizador.atualizar(cliente, update);
+        atualizador.atualizar(cliente, entrada.paraEntidade());
         repository.save(cliente);
+        publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "cliente"));
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
@@ -114,11 +246,199 @@ public class ClienteController {
         @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     public ResponseEntity<Void> deleteCliente(@PathVariable long id) {
-        Optional<Cliente> opt = repository.findById(id);
+        Optional<Cliente> opt = repository.findByIdAndInquilino(id, InquilinoContexto.getInquilino());
         if (opt.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
         repository.delete(opt.get());
+        publicador.publishEvent(ClienteAlteradoEvento.removido(id, opt.get().getInquilino()));
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
-}
\ No newline at end of file
+
+    @PutMapping("/{id}/agregado")
+    @Operation(summary = "Substituir agregado", description = "Substitui o cliente com documentos, endereço e telefones numa única transação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Agregado substituído com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+    })
+    public ResponseEntity<Void> replaceAgregado(@PathVariable long id, @RequestBody ClienteEntrada entrada) {
+        ValidadorCliente.validarCriacao(entrada);
+        Optional<Cliente> opt = agregadoServico.substituir(id, InquilinoContexto.getInquilino(), entrada.paraEntidade());
+        if (opt.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        publicador.publishEvent(ClienteAlteradoEvento.atualizado(opt.get(), "cliente"));
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PostMapping("/{id}/documentos")
+    @Operation(summary = "Incluir documento no cliente", description = "Cria um documento já vinculado ao cliente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Documento incluído com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+    })
+    public ResponseEntity<EntityModel<Documento>> createDocumentoDoCliente(@PathVariable long id, @RequestBody DocumentoEntrada entrada) {
+        ValidadorCliente.validarDocumento(entrada);
+        Optional<Documento> salvo = agregadoServico.incluirDocumento(id, InquilinoContexto.getInquilino(), entrada.paraEntidade());
+        if (salvo.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        publicarAtualizacao(id, "documento");
+        EntityModel<Documento> resource = EntityModel.of(salvo.get());
+        resource.add(linkTo(methodOn(DocumentoController.class).getDocumento(salvo.get().getId())).withSelfRel());
+        resource.add(linkTo(methodOn(ClienteController.class).getCliente(id)).withRel("cliente"));
+        return new ResponseEntity<>(resource, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}/documentos/{documentoId}")
+    @Operation(summary = "Remover documento do cliente", description = "Remove um documento do cliente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Documento removido com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Cliente ou documento não encontrado")
+    })
+    public ResponseEntity<Void> deleteDocumentoDoCliente(@PathVariable long id, @PathVariable long documentoId) {
+        if (!agregadoServico.removerDocumento(id, InquilinoContexto.getInquilino(), documentoId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        publicarAtualizacao(id, "documento");
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PostMapping("/{id}/telefones")
+    @Operation(summary = "Incluir telefone no cliente", description = "Cria um telefone já vinculado ao cliente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Telefone incluído com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+    })
+    public ResponseEntity<EntityModel<Telefone>> createTelefoneDoCliente(@PathVariable long id, @RequestBody TelefoneEntrada entrada) {
+        ValidadorCliente.validarTelefone(entrada);
+        Optional<Telefone> salvo = agregadoServico.incluirTelefone(id, InquilinoContexto.getInquilino(), entrada.paraEntidade());
+        if (salvo.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        publicarAtualizacao(id, "telefone");
+        EntityModel<Telefone> resource = EntityModel.of(salvo.get());
+        resource.add(linkTo(methodOn(TelefoneController.class).getTelefone(salvo.get().getId())).withSelfRel());
+        resource.add(linkTo(methodOn(ClienteController.class).getCliente(id)).withRel("cliente"));
+        return new ResponseEntity<>(resource, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}/telefones/{telefoneId}")
+    @Operation(summary = "Remover telefone do cliente", description = "Remove um telefone do cliente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Telefone removido com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Cliente ou telefone não encontrado")
+    })
+    public ResponseEntity<Void> deleteTelefoneDoCliente(@PathVariable long id, @PathVariable long telefoneId) {
+        if (!agregadoServico.removerTelefone(id, InquilinoContexto.getInquilino(), telefoneId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        publicarAtualizacao(id, "telefone");
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PutMapping("/{id}/endereco")
+    @Operation(summary = "Definir endereço do cliente", description = "Cria ou substitui o endereço do cliente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Endereço definido com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+    })
+    public ResponseEntity<Void> replaceEnderecoDoCliente(@PathVariable long id, @RequestBody EnderecoEntrada entrada) {
+        ValidadorCliente.validarEndereco(entrada);
+        Optional<Cliente> opt = agregadoServico.definirEndereco(id, InquilinoContexto.getInquilino(), entrada.paraEntidade());
+        if (opt.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        publicador.publishEvent(ClienteAlteradoEvento.atualizado(opt.get(), "endereco"));
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @DeleteMapping("/{id}/endereco")
+    @Operation(summary = "Remover endereço do cliente", description = "Remove o endereço do cliente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Endereço removido com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
+    })
+    public ResponseEntity<Void> deleteEnderecoDoCliente(@PathVariable long id) {
+        Optional<Cliente> opt = agregadoServico.definirEndereco(id, InquilinoContexto.getInquilino(), null);
+        if (opt.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        publicador.publishEvent(ClienteAlteradoEvento.atualizado(opt.get(), "endereco"));
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    private void publicarAtualizacao(long id, String recurso) {
+        repository.findByIdAndInquilino(id, InquilinoContexto.getInquilino())
+            .ifPresent(cliente -> publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, recurso)));
+    }
+
+    /**
+     * Com o modelo de leitura pronto, vem da memória; senão, uma consulta IN traz os
+     * clientes com o endereço e duas outras inicializam documentos e telefones de todos.
+     */
+    private List<Cliente> buscarLote(Collection<Long> ids) {
+        String inquilino = InquilinoContexto.getInquilino();
+        if (memoria.isPronta()) {
+            List<Cliente> clientes = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                ClienteInstantaneo instantaneo = memoria.buscar(id, inquilino);
+                if (instantaneo != null) {
+                    clientes.add(instantaneo.paraCliente());
+                }
+            }
+            return clientes;
+        }
+        List<Cliente> clientes = repository.findLote(inquilino, ids);
+        if (!clientes.isEmpty()) {
+            repository.carregarDocumentos(clientes);
+            repository.carregarTelefones(clientes);
+        }
+        return clientes;
+    }
+
+    /** Escreve o recurso com o mesmo conversor HAL que o Spring MVC usaria na resposta. */
+    @SuppressWarnings("unchecked")
+    private byte[] serializar(EntityModel<Cliente> resource) {
+        HttpMessageConverter<Object> conversor = conversorHal;
+        if (conversor == null) {
+            conversor = (HttpMessageConverter<Object>) adaptador.getMessageConverters().stream()
+                .filter(candidato -> candidato.canWrite(EntityModel.class, MediaTypes.HAL_JSON))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Nenhum conversor HAL registrado"));
+            conversorHal = conversor;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(2048);
+        HttpHeaders cabecalhos = new HttpHeaders();
+        try {
+            conversor.write(resource, MediaTypes.HAL_JSON, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return bytes;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return cabecalhos;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Com o modelo de leitura em memória pronto, a busca por id não consulta o banco. */
+    private Cliente buscar(long id) {
+        String inquilino = InquilinoContexto.getInquilino();
+        if (memoria.isPronta()) {
+            ClienteInstantaneo instantaneo = memoria.buscar(id, inquilino);
+            return instantaneo == null ? null : instantaneo.paraCliente();
+        }
+        return repository.findByIdAndInquilino(id, inquilino).orElse(null);
+    }
+}
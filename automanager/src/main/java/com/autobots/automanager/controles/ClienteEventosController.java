@@ -0,0 +1,63 @@
+package com.autobots.automanager.controles;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.autobots.automanager.eventos.AssinanteEventos;
+import com.autobots.automanager.eventos.TransmissorClientes;
+import com.autobots.automanager.modelo.InquilinoContexto;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/cliente")
+@Tag(name = "Cliente", description = "API de gerenciamento de clientes")
+public class ClienteEventosController {
+    private static final Set<String> RECURSOS = Set.of("cliente", "documento", "endereco", "telefone");
+
+    @Autowired
+    private TransmissorClientes transmissor;
+
+    @Value("${automanager.eventos.tempo-limite:30m}")
+    private Duration tempoLimite;
+
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar alterações de clientes",
+        description = "Abre um fluxo server-sent events com as inclusões, atualizações e exclusões de clientes do inquilino, "
+            + "opcionalmente filtradas por ids e por recurso alterado (cliente, documento, endereco, telefone)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fluxo de eventos aberto"),
+        @ApiResponse(responseCode = "400", description = "Recurso desconhecido no filtro"),
+        @ApiResponse(responseCode = "503", description = "Limite de conexões de eventos atingido")
+    })
+    public ResponseEntity<SseEmitter> getEventos(@RequestParam(required = false) Set<Long> ids,
+            @RequestParam(required = false) Set<String> recursos) {
+        Set<Long> filtroIds = ids == null ? Set.of() : Set.copyOf(ids);
+        Set<String> filtroRecursos = recursos == null ? Set.of() : Set.copyOf(recursos);
+        if (!RECURSOS.containsAll(filtroRecursos)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        SseEmitter emissor = new SseEmitter(tempoLimite.toMillis());
+        AssinanteEventos assinante = transmissor.assinar(InquilinoContexto.getInquilino(), filtroIds, filtroRecursos, emissor);
+        if (assinante == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-store").header("X-Accel-Buffering", "no")
+            .body(emissor);
+    }
+}
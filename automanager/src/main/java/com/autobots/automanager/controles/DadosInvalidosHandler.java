@@ -0,0 +1,31 @@
+package com.autobots.automanager.controles;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.autobots.automanager.entrada.DadosInvalidosException;
+
+/**
+ * Corpo de /cliente recusado pelo ValidadorCliente: 400 com todas as mensagens em
+ * "errors", no mesmo formato da resposta de erro padrão do Spring.
+ */
+@RestControllerAdvice
+public class DadosInvalidosHandler {
+
+    @ExceptionHandler(DadosInvalidosException.class)
+    public ResponseEntity<Map<String, Object>> recusar(DadosInvalidosException excecao) {
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("timestamp", new Date());
+        corpo.put("status", HttpStatus.BAD_REQUEST.value());
+        corpo.put("error", HttpStatus.BAD_REQUEST.getReasonPhrase());
+        corpo.put("message", "Validation failed");
+        corpo.put("errors", excecao.getErros());
+        return ResponseEntity.badRequest().body(corpo);
+    }
+}
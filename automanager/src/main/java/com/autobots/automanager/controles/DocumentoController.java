@@ -1,15 +1,23 @@
 package com.autobots.automanager.controles;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,14 +25,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.autobots.automanager.entidades.Cliente;
 import com.autobots.automanager.entidades.Documento;
+import com.autobots.automanager.entrada.DocumentoEntrada;
+import com.autobots.automanager.entrada.ValidadorCliente;
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
 import com.autobots.automanager.modelo.DocumentoAtualizador;
-import com.autobots.automanager.modelo.DocumentoSelect;
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.modelo.ItemLote;
 import com.autobots.automanager.repositorios.ClienteRepository;
 import com.autobots.automanager.repositorios.DocumentoRepository;
+import com.autobots.automanager.servicos.AgregadoServico;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -42,7 +56,17 @@ public class DocumentoController {
     @Autowired
     private ClienteRepository clienteRepositorio;
     @Autowired
-    private DocumentoSelect selecionador;
+    private AgregadoServico agregadoServico;
+    @Autowired
+    private ApplicationEventPublisher publicador;
+    @Autowired
+    @Qualifier("executorConsultas")
+    private ThreadPoolTaskExecutor executorConsultas;
+    @Autowired
+    @Qualifier("executorVarreduras")
+    private ThreadPoolTaskExecutor executorVarreduras;
+    @Value("${automanager.lote.max-ids:200}")
+    private int maxIds;
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar documento por ID", description = "Retorna um documento específico pelo ID")
@@ -50,45 +74,82 @@ public class DocumentoController {
         @ApiResponse(responseCode = "200", description = "Documento encontrado"),
         @ApiResponse(responseCode = "404", description = "Documento não encontrado")
     })
-    public ResponseEntity<EntityModel<Documento>> getDocumento(@PathVariable long id) {
-        List<Documento> documentos = repositorio.findAll();
-        Documento documento = selecionador.selecionar(documentos, id);
-        if (documento == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        EntityModel<Documento> resource = EntityModel.of(documento);
-        resource.add(linkTo(methodOn(DocumentoController.class).getDocumento(id)).withSelfRel());
-        resource.add(linkTo(methodOn(DocumentoController.class).getDocumentos()).withRel("documentos"));
-        return ResponseEntity.ok(resource);
+    public CompletableFuture<ResponseEntity<EntityModel<Documento>>> getDocumento(@PathVariable long id) {
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<Documento> opt = repositorio.findByIdAndInquilino(id, InquilinoContexto.getInquilino());
+            if (opt.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            EntityModel<Documento> resource = EntityModel.of(opt.get());
+            resource.add(linkTo(methodOn(DocumentoController.class).getDocumento(id)).withSelfRel());
+            resource.add(linkTo(methodOn(DocumentoController.class).getDocumentos()).withRel("documentos"));
+            return ResponseEntity.ok(resource);
+        }, executorConsultas);
     }
 
     @GetMapping
     @Operation(summary = "Listar todos os documentos", description = "Retorna uma lista de todos os documentos cadastrados")
     @ApiResponse(responseCode = "200", description = "Lista de documentos retornada com sucesso")
-    public ResponseEntity<CollectionModel<EntityModel<Documento>>> getDocumentos() {
-        List<Documento> documentos = repositorio.findAll();
-        List<EntityModel<Documento>> documentoResources = documentos.stream()
-            .map(documento -> EntityModel.of(documento,
-                linkTo(methodOn(DocumentoController.class).getDocumento(documento.getId())).withSelfRel(),
-                linkTo(methodOn(DocumentoController.class).getDocumentos()).withRel("documentos")))
-            .collect(Collectors.toList());
-        CollectionModel<EntityModel<Documento>> collection = CollectionModel.of(documentoResources);
-        collection.add(linkTo(methodOn(DocumentoController.class).getDocumentos()).withSelfRel());
-        return ResponseEntity.ok(collection);
+    public CompletableFuture<ResponseEntity<CollectionModel<EntityModel<Documento>>>> getDocumentos() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Documento> documentos = repositorio.findByInquilino(InquilinoContexto.getInquilino());
+            List<EntityModel<Documento>> documentoResources = documentos.stream()
+                .map(documento -> EntityModel.of(documento,
+                    linkTo(methodOn(DocumentoController.class).getDocumento(documento.getId())).withSelfRel(),
+                    linkTo(methodOn(DocumentoController.class).getDocumentos()).withRel("documentos")))
+                .collect(Collectors.toList());
+            CollectionModel<EntityModel<Documento>> collection = CollectionModel.of(documentoResources);
+            collection.add(linkTo(methodOn(DocumentoController.class).getDocumentos()).withSelfRel());
+            return ResponseEntity.ok(collection);
+        }, executorVarreduras);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Buscar documentos em lote", description = "Retorna os documentos dos ids informados, na ordem pedida, marcando os não encontrados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Documentos retornados na ordem dos ids"),
+        @ApiResponse(responseCode = "400", description = "Nenhum id ou ids demais")
+    })
+    public CompletableFuture<ResponseEntity<CollectionModel<ItemLote<Documento>>>> getDocumentosPorIds(@RequestParam List<Long> ids) {
+        Set<Long> pedidos = new LinkedHashSet<>(ids);
+        if (pedidos.isEmpty() || pedidos.size() > maxIds) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            List<Documento> encontrados = repositorio.findByInquilinoAndIdIn(InquilinoContexto.getInquilino(), pedidos);
+            List<ItemLote<Documento>> itens = ItemLote.ordenar(pedidos, encontrados, Documento::getId,
+                documento -> EntityModel.of(documento,
+                    linkTo(methodOn(DocumentoController.class).getDocumento(documento.getId())).withSelfRel()));
+            CollectionModel<ItemLote<Documento>> collection = CollectionModel.of(itens);
+            collection.add(linkTo(methodOn(DocumentoController.class).getDocumentos()).withRel("documentos"));
+            return ResponseEntity.ok(collection);
+        }, executorConsultas);
     }
 
     @PostMapping
-    @Operation(summary = "Criar novo documento", description = "Cadastra um novo documento no sistema")
+    @Operation(summary = "Criar novo documento", description = "Cadastra um documento já vinculado ao cliente informado, como POST /cliente/{id}/documentos")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Documento criado com sucesso"),
-        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos ou clienteId ausente")
     })
-    public ResponseEntity<EntityModel<Documento>> createDocumento(@Valid @RequestBody Documento documento) {
-        Documento savedDocumento = repositorio.save(documento);
-        EntityModel<Documento> resource = EntityModel.of(savedDocumento);
-        resource.add(linkTo(methodOn(DocumentoController.class).getDocumento(savedDocumento.getId())).withSelfRel());
-        resource.add(linkTo(methodOn(DocumentoController.class).getDocumentos()).withRel("documentos"));
-        return new ResponseEntity<>(resource, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<EntityModel<Documento>>> createDocumento(@RequestParam long clienteId,
+            @RequestBody DocumentoEntrada entrada) {
+        ValidadorCliente.validarDocumento(entrada);
+        return CompletableFuture.supplyAsync(() -> {
+            String inquilino = InquilinoContexto.getInquilino();
+            Optional<Documento> salvo = agregadoServico.incluirDocumento(clienteId, inquilino, entrada.paraEntidade());
+            if (salvo.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            clienteRepositorio.findByIdAndInquilino(clienteId, inquilino)
+                .ifPresent(cliente -> publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "documento")));
+            Documento savedDocumento = salvo.get();
+            EntityModel<Documento> resource = EntityModel.of(savedDocumento);
+            resource.add(linkTo(methodOn(DocumentoController.class).getDocumento(savedDocumento.getId())).withSelfRel());
+            resource.add(linkTo(methodOn(DocumentoController.class).getDocumentos()).withRel("documentos"));
+            return new ResponseEntity<>(resource, HttpStatus.CREATED);
+        }, executorConsultas);
     }
 
     @PutMapping("/{id}")
@@ -98,16 +159,21 @@ public class DocumentoController {
         @ApiResponse(responseCode = "404", description = "Documento não encontrado"),
         @ApiResponse(responseCode = "400", description = "Dados inválidos")
     })
-    public ResponseEntity<Void> updateDocumento(@PathVariable long id, @Valid @RequestBody Documento atualizacao) {
-        if (repositorio.existsById(id)) {
-            Documento documento = repositorio.findById(id).get();
-            DocumentoAtualizador atualizador = new DocumentoAtualizador();
-            atualizador.atualizar(documento, atualizacao);
-            repositorio.save(documento);
-            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-        } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+    public CompletableFuture<ResponseEntity<Void>> updateDocumento(@PathVariable long id, @Valid @RequestBody Documento atualizacao) {
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<Documento> opt = repositorio.findByIdAndInquilino(id, InquilinoContexto.getInquilino());
+            if (opt.isPresent()) {
+                Documento documento = opt.get();
+                DocumentoAtualizador atualizador = new DocumentoAtualizador();
+                atualizador.atualizar(documento, atualizacao);
+                repositorio.save(documento);
+                clienteRepositorio.findByDocumento(id)
+                    .ifPresent(cliente -> publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "documento")));
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            } else {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        }, executorConsultas);
     }
 
     @DeleteMapping("/{id}")
@@ -116,25 +182,24 @@ public class DocumentoController {
         @ApiResponse(responseCode = "204", description = "Documento excluído com sucesso"),
         @ApiResponse(responseCode = "404", description = "Documento não encontrado")
     })
-    public ResponseEntity<Void> deleteDocumento(@PathVariable long id) {
-        if (!repositorio.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        
-        List<Cliente> clientes = clienteRepositorio.findAll();
-        boolean wasRemoved = false;
-        for (Cliente cliente : clientes) {
-            boolean removed = cliente.getDocumentos().removeIf(doc -> doc.getId().equals(id));
-            if (removed) {
+    public CompletableFuture<ResponseEntity<Void>> deleteDocumento(@PathVariable long id) {
+        return CompletableFuture.supplyAsync(() -> {
+            String inquilino = InquilinoContexto.getInquilino();
+            if (!repositorio.existsByIdAndInquilino(id, inquilino)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+
+            Optional<Cliente> dono = clienteRepositorio.findByDocumento(id);
+            if (dono.isPresent()) {
+                Cliente cliente = dono.get();
+                cliente.getDocumentos().removeIf(doc -> doc.getId().equals(id));
                 clienteRepositorio.save(cliente);
-                wasRemoved = true;
+                publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "documento"));
+            } else {
+                repositorio.deleteById(id);
             }
-        }
-        
-        if (!wasRemoved && repositorio.existsById(id)) {
-            repositorio.deleteById(id);
-        }
-        
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }, executorConsultas);
     }
 }
\ No newline at end of file
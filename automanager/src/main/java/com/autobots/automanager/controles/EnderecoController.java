@@ -1,15 +1,23 @@
 package com.autobots.automanager.controles;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,14 +25,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.autobots.automanager.entidades.Cliente;
 import com.autobots.automanager.entidades.Endereco;
+import com.autobots.automanager.entrada.EnderecoEntrada;
+import com.autobots.automanager.entrada.ValidadorCliente;
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
 import com.autobots.automanager.modelo.EnderecoAtualizador;
-import com.autobots.automanager.modelo.EnderecoSelect;
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.modelo.ItemLote;
 import com.autobots.automanager.repositorios.ClienteRepository;
 import com.autobots.automanager.repositorios.EnderecoRepository;
+import com.autobots.automanager.servicos.AgregadoServico;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -37,13 +51,22 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @RequestMapping("/endereco")
 @Tag(name = "Endereco", description = "API de gerenciamento de endereços")
 public class EnderecoController {
-    // Using EnderecoSelect (not EnderecoSelecionador)
     @Autowired
     private EnderecoRepository repositorio;
     @Autowired
     private ClienteRepository clienteRepositorio;
     @Autowired
-    private EnderecoSelect selecionador;
+    private AgregadoServico agregadoServico;
+    @Autowired
+    private ApplicationEventPublisher publicador;
+    @Autowired
+    @Qualifier("executorConsultas")
+    private ThreadPoolTaskExecutor executorConsultas;
+    @Autowired
+    @Qualifier("executorVarreduras")
+    private ThreadPoolTaskExecutor executorVarreduras;
+    @Value("${automanager.lote.max-ids:200}")
+    private int maxIds;
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar endereço por ID", description = "Retorna um endereço específico pelo ID")
@@ -51,45 +74,89 @@ public class EnderecoController {
         @ApiResponse(responseCode = "200", description = "Endereço encontrado"),
         @ApiResponse(responseCode = "404", description = "Endereço não encontrado")
     })
-    public ResponseEntity<EntityModel<Endereco>> getEndereco(@PathVariable long id) {
-        List<Endereco> enderecos = repositorio.findAll();
-        Endereco endereco = selecionador.selecionar(enderecos, id);
-        if (endereco == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        EntityModel<Endereco> resource = EntityModel.of(endereco);
-        resource.add(linkTo(methodOn(EnderecoController.class).getEndereco(id)).withSelfRel());
-        resource.add(linkTo(methodOn(EnderecoController.class).getEnderecos()).withRel("enderecos"));
-        return ResponseEntity.ok(resource);
+    public CompletableFuture<ResponseEntity<EntityModel<Endereco>>> getEndereco(@PathVariable long id) {
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<Endereco> opt = repositorio.findByIdAndInquilino(id, InquilinoContexto.getInquilino());
+            if (opt.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            EntityModel<Endereco> resource = EntityModel.of(opt.get());
+            resource.add(linkTo(methodOn(EnderecoController.class).getEndereco(id)).withSelfRel());
+            resource.add(linkTo(methodOn(EnderecoController.class).getEnderecos()).withRel("enderecos"));
+            return ResponseEntity.ok(resource);
+        }, executorConsultas);
     }
 
     @GetMapping
     @Operation(summary = "Listar todos os endereços", description = "Retorna uma lista de todos os endereços cadastrados")
     @ApiResponse(responseCode = "200", description = "Lista de endereços retornada com sucesso")
-    public ResponseEntity<CollectionModel<EntityModel<Endereco>>> getEnderecos() {
-        List<Endereco> enderecos = repositorio.findAll();
-        List<EntityModel<Endereco>> enderecoResources = enderecos.stream()
-            .map(endereco -> EntityModel.of(endereco,
-                linkTo(methodOn(EnderecoController.class).getEndereco(endereco.getId())).withSelfRel(),
-                linkTo(methodOn(EnderecoController.class).getEnderecos()).withRel("enderecos")))
-            .collect(Collectors.toList());
-        CollectionModel<EntityModel<Endereco>> collection = CollectionModel.of(enderecoResources);
-        collection.add(linkTo(methodOn(EnderecoController.class).getEnderecos()).withSelfRel());
-        return ResponseEntity.ok(collection);
+    public CompletableFuture<ResponseEntity<CollectionModel<EntityModel<Endereco>>>> getEnderecos() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Endereco> enderecos = repositorio.findByInquilino(InquilinoContexto.getInquilino());
+            List<EntityModel<Endereco>> enderecoResources = enderecos.stream()
+                .map(endereco -> EntityModel.of(endereco,
+                    linkTo(methodOn(EnderecoController.class).getEndereco(endereco.getId())).withSelfRel(),
+                    linkTo(methodOn(EnderecoController.class).getEnderecos()).withRel("enderecos")))
+                .collect(Collectors.toList());
+            CollectionModel<EntityModel<Endereco>> collection = CollectionModel.of(enderecoResources);
+            collection.add(linkTo(methodOn(EnderecoController.class).getEnderecos()).withSelfRel());
+            return ResponseEntity.ok(collection);
+        }, executorVarreduras);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Buscar endereços em lote", description = "Retorna os endereços dos ids informados, na ordem pedida, marcando os não encontrados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Endereços retornados na ordem dos ids"),
+        @ApiResponse(responseCode = "400", description = "Nenhum id ou ids demais")
+    })
+    public CompletableFuture<ResponseEntity<CollectionModel<ItemLote<Endereco>>>> getEnderecosPorIds(@RequestParam List<Long> ids) {
+        Set<Long> pedidos = new LinkedHashSet<>(ids);
+        if (pedidos.isEmpty() || pedidos.size() > maxIds) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            List<Endereco> encontrados = repositorio.findByInquilinoAndIdIn(InquilinoContexto.getInquilino(), pedidos);
+            List<ItemLote<Endereco>> itens = ItemLote.ordenar(pedidos, encontrados, Endereco::getId,
+                endereco -> EntityModel.of(endereco,
+                    linkTo(methodOn(EnderecoController.class).getEndereco(endereco.getId())).withSelfRel()));
+            CollectionModel<ItemLote<Endereco>> collection = CollectionModel.of(itens);
+            collection.add(linkTo(methodOn(EnderecoController.class).getEnderecos()).withRel("enderecos"));
+            return ResponseEntity.ok(collection);
+        }, executorConsultas);
     }
 
     @PostMapping
-    @Operation(summary = "Criar novo endereço", description = "Cadastra um novo endereço no sistema")
+    @Operation(summary = "Criar novo endereço", description = "Cadastra o endereço do cliente informado; para substituir um endereço existente use PUT /cliente/{id}/endereco")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Endereço criado com sucesso"),
-        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "409", description = "Cliente já tem endereço"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos ou clienteId ausente")
     })
-    public ResponseEntity<EntityModel<Endereco>> createEndereco(@Valid @RequestBody Endereco endereco) {
-        Endereco savedEndereco = repositorio.save(endereco);
-        EntityModel<Endereco> resource = EntityModel.of(savedEndereco);
-        resource.add(linkTo(methodOn(EnderecoController.class).getEndereco(savedEndereco.getId())).withSelfRel());
-        resource.add(linkTo(methodOn(EnderecoController.class).getEnderecos()).withRel("enderecos"));
-        return new ResponseEntity<>(resource, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<EntityModel<Endereco>>> createEndereco(@RequestParam long clienteId,
+            @RequestBody EnderecoEntrada entrada) {
+        ValidadorCliente.validarEndereco(entrada);
+        return CompletableFuture.supplyAsync(() -> {
+            String inquilino = InquilinoContexto.getInquilino();
+            Optional<Cliente> dono = clienteRepositorio.findByIdAndInquilino(clienteId, inquilino);
+            if (dono.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            if (dono.get().getEndereco() != null) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            Optional<Cliente> opt = agregadoServico.definirEndereco(clienteId, inquilino, entrada.paraEntidade());
+            if (opt.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            publicador.publishEvent(ClienteAlteradoEvento.atualizado(opt.get(), "endereco"));
+            Endereco savedEndereco = opt.get().getEndereco();
+            EntityModel<Endereco> resource = EntityModel.of(savedEndereco);
+            resource.add(linkTo(methodOn(EnderecoController.class).getEndereco(savedEndereco.getId())).withSelfRel());
+            resource.add(linkTo(methodOn(EnderecoController.class).getEnderecos()).withRel("enderecos"));
+            return new ResponseEntity<>(resource, HttpStatus.CREATED);
+        }, executorConsultas);
     }
 
     @PutMapping("/{id}")
@@ -99,16 +166,21 @@ public class EnderecoController {
         @ApiResponse(responseCode = "404", description = "Endereço não encontrado"),
         @ApiResponse(responseCode = "400", description = "Dados inválidos")
     })
-    public ResponseEntity<Void> updateEndereco(@PathVariable long id, @Valid @RequestBody Endereco atualizacao) {
-        if (repositorio.existsById(id)) {
-            Endereco endereco = repositorio.findById(id).get();
-            EnderecoAtualizador atualizador = new EnderecoAtualizador();
-            atualizador.atualizar(endereco, atualizacao);
-            repositorio.save(endereco);
-            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-        } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+    public CompletableFuture<ResponseEntity<Void>> updateEndereco(@PathVariable long id, @Valid @RequestBody Endereco atualizacao) {
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<Endereco> opt = repositorio.findByIdAndInquilino(id, InquilinoContexto.getInquilino());
+            if (opt.isPresent()) {
+                Endereco endereco = opt.get();
+                EnderecoAtualizador atualizador = new EnderecoAtualizador();
+                atualizador.atualizar(endereco, atualizacao);
+                repositorio.save(endereco);
+                clienteRepositorio.findByEndereco(id)
+                    .ifPresent(cliente -> publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "endereco")));
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            } else {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        }, executorConsultas);
     }
 
     @DeleteMapping("/{id}")
@@ -117,26 +189,24 @@ public class EnderecoController {
         @ApiResponse(responseCode = "204", description = "Endereço excluído com sucesso"),
         @ApiResponse(responseCode = "404", description = "Endereço não encontrado")
     })
-    public ResponseEntity<Void> deleteEndereco(@PathVariable long id) {
-        if (!repositorio.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        
-        // Remove todos endereços
-        List<Cliente> clientes = clienteRepositorio.findAll();
-        boolean wasRemoved = false;
-        for (Cliente cliente : clientes) {
-            if (cliente.getEndereco() != null && cliente.getEndereco().getId().equals(id)) {
+    public CompletableFuture<ResponseEntity<Void>> deleteEndereco(@PathVariable long id) {
+        return CompletableFuture.supplyAsync(() -> {
+            String inquilino = InquilinoContexto.getInquilino();
+            if (!repositorio.existsByIdAndInquilino(id, inquilino)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+
+            Optional<Cliente> dono = clienteRepositorio.findByEndereco(id);
+            if (dono.isPresent()) {
+                Cliente cliente = dono.get();
                 cliente.setEndereco(null);
                 clienteRepositorio.save(cliente);
-                wasRemoved = true;
+                publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "endereco"));
+            } else {
+                repositorio.deleteById(id);
             }
-        }
-        
-        if (!wasRemoved && repositorio.existsById(id)) {
-            repositorio.deleteById(id);
-        }
-        
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }, executorConsultas);
     }
 }
\ No newline at end of file
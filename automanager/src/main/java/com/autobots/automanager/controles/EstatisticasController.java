@@ -0,0 +1,60 @@
+package com.autobots.automanager.controles;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.autobots.automanager.leitura.EstatisticasClientes;
+import com.autobots.automanager.leitura.RelatorioEstatisticas;
+import com.autobots.automanager.modelo.InquilinoContexto;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@RestController
+@RequestMapping("/estatisticas")
+@Tag(name = "Estatísticas", description = "Contagens de clientes mantidas a cada alteração")
+public class EstatisticasController {
+    @Autowired
+    private EstatisticasClientes estatisticas;
+
+    @Value("${automanager.estatisticas.max-dias:366}")
+    private int maxDias;
+
+    @GetMapping
+    @Operation(summary = "Estatísticas dos clientes",
+        description = "Clientes por estado e cidade, por faixa etária e cadastros por dia (padrão: últimos 30 dias), sem varrer o banco")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas do inquilino"),
+        @ApiResponse(responseCode = "400", description = "Período inválido ou longo demais")
+    })
+    public ResponseEntity<EntityModel<RelatorioEstatisticas>> getEstatisticas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        LocalDate fim = ate == null ? LocalDate.now(ZoneOffset.UTC) : ate;
+        LocalDate inicio = de == null ? fim.minusDays(29) : de;
+        if (inicio.isAfter(fim) || ChronoUnit.DAYS.between(inicio, fim) >= maxDias) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        RelatorioEstatisticas relatorio = estatisticas.relatorio(InquilinoContexto.getInquilino(), inicio, fim);
+        EntityModel<RelatorioEstatisticas> resource = EntityModel.of(relatorio);
+        resource.add(linkTo(methodOn(EstatisticasController.class).getEstatisticas(de, ate)).withSelfRel());
+        resource.add(linkTo(ClienteController.class).withRel("clientes"));
+        return ResponseEntity.ok(resource);
+    }
+}
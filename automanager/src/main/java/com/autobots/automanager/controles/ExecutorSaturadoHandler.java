@@ -0,0 +1,23 @@
+package com.autobots.automanager.controles;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Com a fila de um executor de banco cheia, a requisição é recusada na hora com 503,
+ * em vez de esperar atrás das que já estão enfileiradas.
+ */
+@RestControllerAdvice
+public class ExecutorSaturadoHandler {
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Void> recusar(TaskRejectedException excecao) {
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(cabecalhos, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,117 @@
+package com.autobots.automanager.controles;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.servicos.ExportacaoServico;
+import com.autobots.automanager.tarefas.SituacaoTarefa;
+import com.autobots.automanager.tarefas.Tarefa;
+import com.autobots.automanager.tarefas.TarefaRegistro;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@RestController
+@RequestMapping("/exportacoes")
+@Tag(name = "Exportação", description = "Exportação assíncrona da base de clientes")
+public class ExportacaoController {
+    @Autowired
+    private ExportacaoServico servico;
+    @Autowired
+    private TarefaRegistro registro;
+
+    @PostMapping
+    @Operation(summary = "Iniciar exportação", description = "Agenda a exportação de todos os clientes e retorna o id da tarefa")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Exportação agendada"),
+        @ApiResponse(responseCode = "400", description = "Formato não suportado"),
+        @ApiResponse(responseCode = "503", description = "Fila de tarefas cheia")
+    })
+    public ResponseEntity<EntityModel<Tarefa>> createExportacao(@RequestParam(defaultValue = "csv") String formato) throws IOException {
+        if (!formato.equalsIgnoreCase("csv")) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Tarefa tarefa = servico.iniciar(InquilinoContexto.getInquilino());
+            return new ResponseEntity<>(comLinks(tarefa), HttpStatus.ACCEPTED);
+        } catch (TaskRejectedException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar exportação", description = "Retorna a situação e o progresso da exportação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportação encontrada"),
+        @ApiResponse(responseCode = "404", description = "Exportação não encontrada")
+    })
+    public ResponseEntity<EntityModel<Tarefa>> getExportacao(@PathVariable String id) {
+        Optional<Tarefa> tarefa = registro.buscar(id, ExportacaoServico.TIPO, InquilinoContexto.getInquilino());
+        if (tarefa.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(comLinks(tarefa.get()));
+    }
+
+    @PostMapping("/{id}/retomar")
+    @Operation(summary = "Retomar exportação", description = "Retoma uma exportação interrompida a partir do último lote gravado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Exportação retomada"),
+        @ApiResponse(responseCode = "404", description = "Exportação não encontrada")
+    })
+    public ResponseEntity<EntityModel<Tarefa>> retomarExportacao(@PathVariable String id) throws IOException {
+        Optional<Tarefa> tarefa = servico.retomar(id, InquilinoContexto.getInquilino());
+        if (tarefa.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(comLinks(tarefa.get()), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{id}/arquivo")
+    @Operation(summary = "Baixar exportação", description = "Retorna o arquivo CSV de uma exportação concluída")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Arquivo da exportação"),
+        @ApiResponse(responseCode = "404", description = "Arquivo não disponível")
+    })
+    public ResponseEntity<Resource> getArquivo(@PathVariable String id) throws IOException {
+        Optional<Path> arquivo = servico.arquivo(id, InquilinoContexto.getInquilino());
+        if (arquivo.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"clientes-" + id + ".csv\"")
+            .body(new FileSystemResource(arquivo.get()));
+    }
+
+    private EntityModel<Tarefa> comLinks(Tarefa tarefa) {
+        EntityModel<Tarefa> resource = EntityModel.of(tarefa);
+        resource.add(linkTo(methodOn(ExportacaoController.class).getExportacao(tarefa.getId())).withSelfRel());
+        if (tarefa.getSituacao() == SituacaoTarefa.CONCLUIDA) {
+            resource.add(linkTo(ExportacaoController.class).slash(tarefa.getId()).slash("arquivo").withRel("arquivo"));
+        }
+        return resource;
+    }
+}
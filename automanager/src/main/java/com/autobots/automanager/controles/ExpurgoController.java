@@ -0,0 +1,101 @@
+package com.autobots.automanager.controles;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.servicos.ExpurgoServico;
+import com.autobots.automanager.tarefas.Tarefa;
+import com.autobots.automanager.tarefas.TarefaRegistro;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@RestController
+@RequestMapping("/expurgos")
+@Tag(name = "Expurgo", description = "Exclusão em lote de clientes (LGPD)")
+public class ExpurgoController {
+    @Autowired
+    private ExpurgoServico servico;
+    @Autowired
+    private TarefaRegistro registro;
+
+    @PostMapping
+    @Operation(summary = "Iniciar expurgo", description = "Exclui em lote os clientes informados por ids ou cadastrados antes de uma data")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Expurgo agendado"),
+        @ApiResponse(responseCode = "400", description = "Informe ids ou dataCadastroAte"),
+        @ApiResponse(responseCode = "503", description = "Fila de tarefas cheia")
+    })
+    public ResponseEntity<EntityModel<Tarefa>> createExpurgo(@RequestBody Pedido pedido) {
+        boolean porIds = pedido.getIds() != null && !pedido.getIds().isEmpty();
+        if (porIds == (pedido.getDataCadastroAte() != null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        String inquilino = InquilinoContexto.getInquilino();
+        try {
+            Tarefa tarefa = porIds
+                ? servico.porIds(inquilino, pedido.getIds())
+                : servico.porDataCadastro(inquilino, pedido.getDataCadastroAte());
+            return new ResponseEntity<>(comLinks(tarefa), HttpStatus.ACCEPTED);
+        } catch (TaskRejectedException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar expurgo", description = "Retorna a situação, o progresso e a vazão do expurgo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Expurgo encontrado"),
+        @ApiResponse(responseCode = "404", description = "Expurgo não encontrado")
+    })
+    public ResponseEntity<EntityModel<Tarefa>> getExpurgo(@PathVariable String id) {
+        Optional<Tarefa> tarefa = registro.buscar(id, ExpurgoServico.TIPO, InquilinoContexto.getInquilino());
+        if (tarefa.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(comLinks(tarefa.get()));
+    }
+
+    private EntityModel<Tarefa> comLinks(Tarefa tarefa) {
+        return EntityModel.of(tarefa, linkTo(methodOn(ExpurgoController.class).getExpurgo(tarefa.getId())).withSelfRel());
+    }
+
+    public static class Pedido {
+        private List<Long> ids;
+        private Date dataCadastroAte;
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public Date getDataCadastroAte() {
+            return dataCadastroAte;
+        }
+
+        public void setDataCadastroAte(Date dataCadastroAte) {
+            this.dataCadastroAte = dataCadastroAte;
+        }
+    }
+}
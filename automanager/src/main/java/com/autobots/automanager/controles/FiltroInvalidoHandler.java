@@ -0,0 +1,23 @@
+package com.autobots.automanager.controles;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.autobots.automanager.consulta.FiltroInvalidoException;
+
+/**
+ * Filtro, ordem ou cursor inválido em GET /cliente: 400 com o motivo em texto, para
+ * quem escreveu o filtro saber onde ele falhou.
+ */
+@RestControllerAdvice
+public class FiltroInvalidoHandler {
+
+    @ExceptionHandler(FiltroInvalidoException.class)
+    public ResponseEntity<String> recusar(FiltroInvalidoException excecao) {
+        return ResponseEntity.badRequest().contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8)).body(excecao.getMessage());
+    }
+}
@@ -0,0 +1,121 @@
+package com.autobots.automanager.controles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.servicos.ImportacaoServico;
+import com.autobots.automanager.tarefas.Tarefa;
+import com.autobots.automanager.tarefas.TarefaRegistro;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@RestController
+@RequestMapping("/importacoes")
+@Tag(name = "Importação", description = "Importação assíncrona de clientes a partir de arquivos")
+public class ImportacaoController {
+    @Autowired
+    private ImportacaoServico servico;
+    @Autowired
+    private TarefaRegistro registro;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Iniciar importação", description = "Recebe um arquivo CSV ou JSON Lines e agenda a importação dos clientes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Importação agendada"),
+        @ApiResponse(responseCode = "400", description = "Formato não suportado"),
+        @ApiResponse(responseCode = "503", description = "Fila de tarefas cheia")
+    })
+    public ResponseEntity<EntityModel<Tarefa>> createImportacao(@RequestPart MultipartFile arquivo,
+            @RequestParam(required = false) String formato) throws IOException {
+        if (formato == null) {
+            String nome = arquivo.getOriginalFilename();
+            formato = nome != null && (nome.endsWith(".json") || nome.endsWith(".jsonl")) ? "json" : "csv";
+        }
+        formato = formato.toLowerCase();
+        if (!formato.equals("csv") && !formato.equals("json")) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try (InputStream conteudo = arquivo.getInputStream()) {
+            Tarefa tarefa = servico.iniciar(InquilinoContexto.getInquilino(), formato, conteudo);
+            return new ResponseEntity<>(comLinks(tarefa), HttpStatus.ACCEPTED);
+        } catch (TaskRejectedException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar importação", description = "Retorna a situação, a vazão e a quantidade de linhas importadas e rejeitadas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação encontrada"),
+        @ApiResponse(responseCode = "404", description = "Importação não encontrada")
+    })
+    public ResponseEntity<EntityModel<Tarefa>> getImportacao(@PathVariable String id) {
+        Optional<Tarefa> tarefa = registro.buscar(id, ImportacaoServico.TIPO, InquilinoContexto.getInquilino());
+        if (tarefa.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(comLinks(tarefa.get()));
+    }
+
+    @PostMapping("/{id}/retomar")
+    @Operation(summary = "Retomar importação", description = "Retoma uma importação interrompida a partir do último lote gravado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Importação retomada"),
+        @ApiResponse(responseCode = "404", description = "Importação não encontrada")
+    })
+    public ResponseEntity<EntityModel<Tarefa>> retomarImportacao(@PathVariable String id) throws IOException {
+        Optional<Tarefa> tarefa = servico.retomar(id, InquilinoContexto.getInquilino());
+        if (tarefa.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(comLinks(tarefa.get()), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{id}/erros")
+    @Operation(summary = "Linhas rejeitadas", description = "Retorna o CSV com as linhas rejeitadas e o motivo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Arquivo de erros"),
+        @ApiResponse(responseCode = "404", description = "Importação não encontrada")
+    })
+    public ResponseEntity<Resource> getErros(@PathVariable String id) throws IOException {
+        Optional<Path> erros = servico.erros(id, InquilinoContexto.getInquilino());
+        if (erros.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv"))
+            .body(new FileSystemResource(erros.get()));
+    }
+
+    private EntityModel<Tarefa> comLinks(Tarefa tarefa) {
+        EntityModel<Tarefa> resource = EntityModel.of(tarefa);
+        resource.add(linkTo(methodOn(ImportacaoController.class).getImportacao(tarefa.getId())).withSelfRel());
+        resource.add(linkTo(ImportacaoController.class).slash(tarefa.getId()).slash("erros").withRel("erros"));
+        return resource;
+    }
+}
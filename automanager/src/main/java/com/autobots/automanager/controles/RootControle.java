@@ -20,6 +20,7 @@ public class RootControle {
         root.add(linkTo(EnderecoController.class).withRel("enderecos"));
         root.add(linkTo(DocumentoController.class).withRel("documentos"));
         root.add(linkTo(TelefoneController.class).withRel("telefones"));
+        root.add(linkTo(EstatisticasController.class).withRel("estatisticas"));
         
     
         root.add(linkTo(methodOn(RootControle.class).root()).withSelfRel());
@@ -1,15 +1,23 @@
 package com.autobots.automanager.controles;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,14 +25,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.autobots.automanager.entidades.Cliente;
 import com.autobots.automanager.entidades.Telefone;
+import com.autobots.automanager.entrada.TelefoneEntrada;
+import com.autobots.automanager.entrada.ValidadorCliente;
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
 import com.autobots.automanager.modelo.TelefoneAtualizador;
-import com.autobots.automanager.modelo.TelefoneSelect;
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.modelo.ItemLote;
 import com.autobots.automanager.repositorios.ClienteRepository;
 import com.autobots.automanager.repositorios.TelefoneRepository;
+import com.autobots.automanager.servicos.AgregadoServico;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -39,13 +53,22 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @RequestMapping("/telefone")
 @Tag(name = "Telefone", description = "API de gerenciamento de telefones")
 public class TelefoneController {
-    // Using TelefoneSelect (not TelefoneSelecionador)
     @Autowired
     private TelefoneRepository repositorio;
     @Autowired
     private ClienteRepository clienteRepositorio;
     @Autowired
-    private TelefoneSelect selecionador;
+    private AgregadoServico agregadoServico;
+    @Autowired
+    private ApplicationEventPublisher publicador;
+    @Autowired
+    @Qualifier("executorConsultas")
+    private ThreadPoolTaskExecutor executorConsultas;
+    @Autowired
+    @Qualifier("executorVarreduras")
+    private ThreadPoolTaskExecutor executorVarreduras;
+    @Value("${automanager.lote.max-ids:200}")
+    private int maxIds;
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar telefone por ID", description = "Retorna um telefone específico pelo ID")
@@ -53,45 +76,82 @@ public class TelefoneController {
         @ApiResponse(responseCode = "200", description = "Telefone encontrado"),
         @ApiResponse(responseCode = "404", description = "Telefone não encontrado")
     })
-    public ResponseEntity<EntityModel<Telefone>> getTelefone(@PathVariable long id) {
-        List<Telefone> telefones = repositorio.findAll();
-        Telefone telefone = selecionador.selecionar(telefones, id);
-        if (telefone == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        EntityModel<Telefone> resource = EntityModel.of(telefone);
-        resource.add(linkTo(methodOn(TelefoneController.class).getTelefone(id)).withSelfRel());
-        resource.add(linkTo(methodOn(TelefoneController.class).getTelefones()).withRel("telefones"));
-        return ResponseEntity.ok(resource);
+    public CompletableFuture<ResponseEntity<EntityModel<Telefone>>> getTelefone(@PathVariable long id) {
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<Telefone> opt = repositorio.findByIdAndInquilino(id, InquilinoContexto.getInquilino());
+            if (opt.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            EntityModel<Telefone> resource = EntityModel.of(opt.get());
+            resource.add(linkTo(methodOn(TelefoneController.class).getTelefone(id)).withSelfRel());
+            resource.add(linkTo(methodOn(TelefoneController.class).getTelefones()).withRel("telefones"));
+            return ResponseEntity.ok(resource);
+        }, executorConsultas);
     }
 
     @GetMapping
     @Operation(summary = "Listar todos os telefones", description = "Retorna uma lista de todos os telefones cadastrados")
     @ApiResponse(responseCode = "200", description = "Lista de telefones retornada com sucesso")
-    public ResponseEntity<CollectionModel<EntityModel<Telefone>>> getTelefones() {
-        List<Telefone> telefones = repositorio.findAll();
-        List<EntityModel<Telefone>> telefoneResources = telefones.stream()
-            .map(telefone -> EntityModel.of(telefone,
-                linkTo(methodOn(TelefoneController.class).getTelefone(telefone.getId())).withSelfRel(),
-                linkTo(methodOn(TelefoneController.class).getTelefones()).withRel("telefones")))
-            .collect(Collectors.toList());
-        CollectionModel<EntityModel<Telefone>> collection = CollectionModel.of(telefoneResources);
-        collection.add(linkTo(methodOn(TelefoneController.class).getTelefones()).withSelfRel());
-        return ResponseEntity.ok(collection);
+    public CompletableFuture<ResponseEntity<CollectionModel<EntityModel<Telefone>>>> getTelefones() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Telefone> telefones = repositorio.findByInquilino(InquilinoContexto.getInquilino());
+            List<EntityModel<Telefone>> telefoneResources = telefones.stream()
+                .map(telefone -> EntityModel.of(telefone,
+                    linkTo(methodOn(TelefoneController.class).getTelefone(telefone.getId())).withSelfRel(),
+                    linkTo(methodOn(TelefoneController.class).getTelefones()).withRel("telefones")))
+                .collect(Collectors.toList());
+            CollectionModel<EntityModel<Telefone>> collection = CollectionModel.of(telefoneResources);
+            collection.add(linkTo(methodOn(TelefoneController.class).getTelefones()).withSelfRel());
+            return ResponseEntity.ok(collection);
+        }, executorVarreduras);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Buscar telefones em lote", description = "Retorna os telefones dos ids informados, na ordem pedida, marcando os não encontrados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Telefones retornados na ordem dos ids"),
+        @ApiResponse(responseCode = "400", description = "Nenhum id ou ids demais")
+    })
+    public CompletableFuture<ResponseEntity<CollectionModel<ItemLote<Telefone>>>> getTelefonesPorIds(@RequestParam List<Long> ids) {
+        Set<Long> pedidos = new LinkedHashSet<>(ids);
+        if (pedidos.isEmpty() || pedidos.size() > maxIds) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            List<Telefone> encontrados = repositorio.findByInquilinoAndIdIn(InquilinoContexto.getInquilino(), pedidos);
+            List<ItemLote<Telefone>> itens = ItemLote.ordenar(pedidos, encontrados, Telefone::getId,
+                telefone -> EntityModel.of(telefone,
+                    linkTo(methodOn(TelefoneController.class).getTelefone(telefone.getId())).withSelfRel()));
+            CollectionModel<ItemLote<Telefone>> collection = CollectionModel.of(itens);
+            collection.add(linkTo(methodOn(TelefoneController.class).getTelefones()).withRel("telefones"));
+            return ResponseEntity.ok(collection);
+        }, executorConsultas);
     }
 
     @PostMapping
-    @Operation(summary = "Criar novo telefone", description = "Cadastra um novo telefone no sistema")
+    @Operation(summary = "Criar novo telefone", description = "Cadastra um telefone já vinculado ao cliente informado, como POST /cliente/{id}/telefones")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Telefone criado com sucesso"),
-        @ApiResponse(responseCode = "400", description = "Dados inválidos")
+        @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos ou clienteId ausente")
     })
-    public ResponseEntity<EntityModel<Telefone>> createTelefone(@Valid @RequestBody Telefone telefone) {
-        Telefone savedTelefone = repositorio.save(telefone);
-        EntityModel<Telefone> resource = EntityModel.of(savedTelefone);
-        resource.add(linkTo(methodOn(TelefoneController.class).getTelefone(savedTelefone.getId())).withSelfRel());
-        resource.add(linkTo(methodOn(TelefoneController.class).getTelefones()).withRel("telefones"));
-        return new ResponseEntity<>(resource, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<EntityModel<Telefone>>> createTelefone(@RequestParam long clienteId,
+            @RequestBody TelefoneEntrada entrada) {
+        ValidadorCliente.validarTelefone(entrada);
+        return CompletableFuture.supplyAsync(() -> {
+            String inquilino = InquilinoContexto.getInquilino();
+            Optional<Telefone> salvo = agregadoServico.incluirTelefone(clienteId, inquilino, entrada.paraEntidade());
+            if (salvo.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            clienteRepositorio.findByIdAndInquilino(clienteId, inquilino)
+                .ifPresent(cliente -> publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "telefone")));
+            Telefone savedTelefone = salvo.get();
+            EntityModel<Telefone> resource = EntityModel.of(savedTelefone);
+            resource.add(linkTo(methodOn(TelefoneController.class).getTelefone(savedTelefone.getId())).withSelfRel());
+            resource.add(linkTo(methodOn(TelefoneController.class).getTelefones()).withRel("telefones"));
+            return new ResponseEntity<>(resource, HttpStatus.CREATED);
+        }, executorConsultas);
     }
 
     @PutMapping("/{id}")
@@ -101,16 +161,21 @@ public class TelefoneController {
         @ApiResponse(responseCode = "404", description = "Telefone não encontrado"),
         @ApiResponse(responseCode = "400", description = "Dados inválidos")
     })
-    public ResponseEntity<Void> updateTelefone(@PathVariable long id, @Valid @RequestBody Telefone atualizacao) {
-        if (repositorio.existsById(id)) {
-            Telefone telefone = repositorio.findById(id).get();
-            TelefoneAtualizador atualizador = new TelefoneAtualizador();
-            atualizador.atualizar(telefone, atualizacao);
-            repositorio.save(telefone);
-            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-        } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+    public CompletableFuture<ResponseEntity<Void>> updateTelefone(@PathVariable long id, @Valid @RequestBody Telefone atualizacao) {
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<Telefone> opt = repositorio.findByIdAndInquilino(id, InquilinoContexto.getInquilino());
+            if (opt.isPresent()) {
+                Telefone telefone = opt.get();
+                TelefoneAtualizador atualizador = new TelefoneAtualizador();
+                atualizador.atualizar(telefone, atualizacao);
+                repositorio.save(telefone);
+                clienteRepositorio.findByTelefone(id)
+                    .ifPresent(cliente -> publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "telefone")));
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            } else {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        }, executorConsultas);
     }
 
     @DeleteMapping("/{id}")
@@ -119,25 +184,24 @@ public class TelefoneController {
         @ApiResponse(responseCode = "204", description = "Telefone excluído com sucesso"),
         @ApiResponse(responseCode = "404", description = "Telefone não encontrado")
     })
-    public ResponseEntity<Void> deleteTelefone(@PathVariable long id) {
-        if (!repositorio.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        
-        List<Cliente> clientes = clienteRepositorio.findAll();
-        boolean wasRemoved = false;
-        for (Cliente cliente : clientes) {
-            boolean removed = cliente.getTelefones().removeIf(tel -> tel.getId().equals(id));
-            if (removed) {
+    public CompletableFuture<ResponseEntity<Void>> deleteTelefone(@PathVariable long id) {
+        return CompletableFuture.supplyAsync(() -> {
+            String inquilino = InquilinoContexto.getInquilino();
+            if (!repositorio.existsByIdAndInquilino(id, inquilino)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+
+            Optional<Cliente> dono = clienteRepositorio.findByTelefone(id);
+            if (dono.isPresent()) {
+                Cliente cliente = dono.get();
+                cliente.getTelefones().removeIf(tel -> tel.getId().equals(id));
                 clienteRepositorio.save(cliente);
-                wasRemoved = true;
+                publicador.publishEvent(ClienteAlteradoEvento.atualizado(cliente, "telefone"));
+            } else {
+                repositorio.deleteById(id);
             }
-        }
-        
-        if (!wasRemoved && repositorio.existsById(id)) {
-            repositorio.deleteById(id);
-        }
-        
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }, executorConsultas);
     }
 }
\ No newline at end of file
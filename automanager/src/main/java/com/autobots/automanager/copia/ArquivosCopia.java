@@ -0,0 +1,98 @@
+package com.autobots.automanager.copia;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Nomes e somas de verificação das cópias do banco. Cada cópia é um copia-{instante}.sql.gz
+ * (o SCRIPT do H2 comprimido, que também pode ser aplicado à mão com RUNSCRIPT ... COMPRESSION
+ * GZIP) acompanhado de um .sha256 no formato do sha256sum.
+ */
+final class ArquivosCopia {
+
+	static final Pattern NOME = Pattern.compile("copia-\\d{8}T\\d{9}Z\\.sql\\.gz");
+
+	static final String SUFIXO_SOMA = ".sha256";
+
+	private static final DateTimeFormatter INSTANTE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'")
+			.withZone(ZoneOffset.UTC);
+
+	/** Regiões mapeadas de até 64 MB, para não depender de um único mapeamento do arquivo inteiro. */
+	private static final long REGIAO = 64L * 1024 * 1024;
+
+	private ArquivosCopia() {
+	}
+
+	static String nome(Instant instante) {
+		return "copia-" + INSTANTE.format(instante) + ".sql.gz";
+	}
+
+	/** Cópias completas da pasta, da mais recente para a mais antiga. */
+	static List<Path> listar(Path pasta) throws IOException {
+		List<Path> copias = new ArrayList<>();
+		if (!Files.isDirectory(pasta)) {
+			return copias;
+		}
+		try (Stream<Path> arquivos = Files.list(pasta)) {
+			arquivos.filter(arquivo -> NOME.matcher(arquivo.getFileName().toString()).matches()).forEach(copias::add);
+		}
+		copias.sort(Comparator.comparing((Path arquivo) -> arquivo.getFileName().toString()).reversed());
+		return copias;
+	}
+
+	static Path soma(Path copia) {
+		return copia.resolveSibling(copia.getFileName() + SUFIXO_SOMA);
+	}
+
+	/** SHA-256 gravado ao lado da cópia, ou null se o arquivo não existe. */
+	static String somaRegistrada(Path copia) throws IOException {
+		Path arquivo = soma(copia);
+		if (!Files.exists(arquivo)) {
+			return null;
+		}
+		String conteudo = Files.readString(arquivo, StandardCharsets.US_ASCII).trim();
+		int espaco = conteudo.indexOf(' ');
+		return espaco < 0 ? conteudo : conteudo.substring(0, espaco);
+	}
+
+	/** SHA-256 do arquivo, lido por mapeamento em memória. */
+	static String calcularSoma(Path arquivo) throws IOException {
+		MessageDigest digest = novoDigest();
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			long tamanho = canal.size();
+			for (long posicao = 0; posicao < tamanho; posicao += REGIAO) {
+				MappedByteBuffer regiao = canal.map(FileChannel.MapMode.READ_ONLY, posicao, Math.min(REGIAO, tamanho - posicao));
+				digest.update(regiao);
+			}
+		}
+		return hexadecimal(digest.digest());
+	}
+
+	static MessageDigest novoDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static String hexadecimal(byte[] bytes) {
+		return HexFormat.of().formatHex(bytes);
+	}
+}
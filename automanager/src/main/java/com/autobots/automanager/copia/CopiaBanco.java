@@ -0,0 +1,195 @@
+package com.autobots.automanager.copia;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Cópia online do banco: o SCRIPT do H2 é lido da primária por MVCC, sem travar as
+ * tabelas nem parar o tráfego, e cada comando é comprimido em gzip e gravado por um
+ * FileChannel, com o SHA-256 calculado sobre os bytes gravados. A cópia é escrita num
+ * .parcial, forçada ao disco e só então renomeada, depois do .sha256; uma cópia
+ * interrompida nunca aparece como completa. Só uma cópia roda por vez, e as mais
+ * antigas além da retenção são apagadas.
+ */
+@Component
+public class CopiaBanco {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CopiaBanco.class);
+
+	private static final int BUFFER = 256 * 1024;
+
+	private final DataSource dataSource;
+
+	private final AtomicBoolean emAndamento = new AtomicBoolean();
+
+	private final Timer duracao;
+
+	private final DistributionSummary tamanho;
+
+	private final Counter falhas;
+
+	private volatile Map<String, Object> ultima;
+
+	@Value("${automanager.copia.diretorio:copias}")
+	private String diretorio;
+
+	@Value("${automanager.copia.retencao:5}")
+	private int retencao;
+
+	public CopiaBanco(@Qualifier("dataSourcePrimaria") DataSource dataSource, MeterRegistry registro) {
+		this.dataSource = dataSource;
+		this.duracao = Timer.builder("automanager.copia.duracao").register(registro);
+		this.tamanho = DistributionSummary.builder("automanager.copia.tamanho").baseUnit("bytes").register(registro);
+		this.falhas = registro.counter("automanager.copia.falhas");
+	}
+
+	public boolean isEmAndamento() {
+		return emAndamento.get();
+	}
+
+	/** Resumo da última cópia feita desde a inicialização, ou null. */
+	public Map<String, Object> getUltima() {
+		return ultima;
+	}
+
+	public Path pasta() {
+		return Paths.get(diretorio);
+	}
+
+	/** Faz uma cópia e devolve o resumo; null se outra já está em andamento. */
+	public Map<String, Object> criar() throws IOException, SQLException {
+		if (!emAndamento.compareAndSet(false, true)) {
+			return null;
+		}
+		try {
+			return copiar();
+		} catch (IOException | SQLException | RuntimeException e) {
+			falhas.increment();
+			throw e;
+		} finally {
+			emAndamento.set(false);
+		}
+	}
+
+	/** Cópias completas na pasta, da mais recente para a mais antiga. */
+	public List<Map<String, Object>> listar() throws IOException {
+		List<Map<String, Object>> copias = new ArrayList<>();
+		for (Path copia : ArquivosCopia.listar(pasta())) {
+			Map<String, Object> item = new LinkedHashMap<>();
+			item.put("arquivo", copia.getFileName().toString());
+			item.put("bytes", Files.size(copia));
+			item.put("sha256", ArquivosCopia.somaRegistrada(copia));
+			item.put("criadaEm", Files.getLastModifiedTime(copia).toInstant());
+			copias.add(item);
+		}
+		return copias;
+	}
+
+	private Map<String, Object> copiar() throws IOException, SQLException {
+		long inicio = System.nanoTime();
+		Path pasta = pasta();
+		Files.createDirectories(pasta);
+		String nome = ArquivosCopia.nome(Instant.now());
+		Path destino = pasta.resolve(nome);
+		Path parcial = pasta.resolve(nome + ".parcial");
+		MessageDigest digest = ArquivosCopia.novoDigest();
+		long bytesSql = 0;
+		long comandos = 0;
+		long gravados;
+		try (Connection conexao = dataSource.getConnection()) {
+			String produto = conexao.getMetaData().getDatabaseProductName();
+			if (!"H2".equalsIgnoreCase(produto)) {
+				throw new IllegalStateException("Cópia online só é suportada no H2, não em " + produto);
+			}
+			try (FileChannel canal = FileChannel.open(parcial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+				SaidaCanal saida = new SaidaCanal(canal, digest, BUFFER);
+				try (Statement comando = conexao.createStatement();
+						ResultSet linhas = comando.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS");
+						OutputStream gzip = new GZIPOutputStream(saida, BUFFER)) {
+					while (linhas.next()) {
+						byte[] sql = (linhas.getString(1) + ";\n").getBytes(StandardCharsets.UTF_8);
+						gzip.write(sql);
+						bytesSql += sql.length;
+						comandos++;
+					}
+				}
+				gravados = saida.getGravados();
+				canal.force(true);
+			}
+			String soma = ArquivosCopia.hexadecimal(digest.digest());
+			Path somaParcial = pasta.resolve(nome + ArquivosCopia.SUFIXO_SOMA + ".parcial");
+			Files.writeString(somaParcial, soma + "  " + nome + "\n", StandardCharsets.US_ASCII);
+			Files.move(somaParcial, ArquivosCopia.soma(destino), StandardCopyOption.ATOMIC_MOVE);
+			Files.move(parcial, destino, StandardCopyOption.ATOMIC_MOVE);
+
+			long nanos = System.nanoTime() - inicio;
+			duracao.record(nanos, TimeUnit.NANOSECONDS);
+			tamanho.record(gravados);
+			Map<String, Object> resumo = new LinkedHashMap<>();
+			resumo.put("arquivo", nome);
+			resumo.put("bytes", gravados);
+			resumo.put("bytesSql", bytesSql);
+			resumo.put("comandos", comandos);
+			resumo.put("sha256", soma);
+			resumo.put("duracaoMs", nanos / 1_000_000);
+			resumo.put("mbPorSegundo", Math.round(bytesSql / 1048576.0 / (nanos / 1e9) * 10) / 10.0);
+			ultima = resumo;
+			LOG.info("Cópia do banco {} gravada em {} ms: {} comandos, {} bytes de SQL, {} bytes comprimidos", nome,
+					nanos / 1_000_000, comandos, bytesSql, gravados);
+			apagarAntigas(pasta);
+			return resumo;
+		} finally {
+			Files.deleteIfExists(parcial);
+		}
+	}
+
+	private void apagarAntigas(Path pasta) throws IOException {
+		List<Path> copias = ArquivosCopia.listar(pasta);
+		for (int i = Math.max(1, retencao); i < copias.size(); i++) {
+			Files.deleteIfExists(ArquivosCopia.soma(copias.get(i)));
+			Files.deleteIfExists(copias.get(i));
+		}
+		// sobras de cópias interrompidas por uma queda do processo
+		try (Stream<Path> arquivos = Files.list(pasta)) {
+			for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+				if (arquivo.getFileName().toString().endsWith(".parcial")) {
+					Files.deleteIfExists(arquivo);
+				}
+			}
+		}
+	}
+}
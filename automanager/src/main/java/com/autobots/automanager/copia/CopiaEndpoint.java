@@ -0,0 +1,49 @@
+package com.autobots.automanager.copia;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * POST /actuator/copias grava uma cópia online do banco (409 se outra está em andamento);
+ * GET /actuator/copias lista as cópias e o resumo da última. As cópias têm os dados de
+ * todos os inquilinos, por isso não são baixadas pela API: ficam só na pasta do servidor.
+ * O endpoint não é exposto por padrão.
+ */
+@Component
+@Endpoint(id = "copias")
+public class CopiaEndpoint {
+
+	private static final int STATUS_CONFLITO = 409;
+
+	private final CopiaBanco copias;
+
+	public CopiaEndpoint(CopiaBanco copias) {
+		this.copias = copias;
+	}
+
+	@ReadOperation
+	public Map<String, Object> listar() throws IOException {
+		Map<String, Object> resposta = new LinkedHashMap<>();
+		resposta.put("emAndamento", copias.isEmAndamento());
+		resposta.put("ultima", copias.getUltima());
+		resposta.put("copias", copias.listar());
+		return resposta;
+	}
+
+	@WriteOperation
+	public WebEndpointResponse<Map<String, Object>> criar() throws IOException, SQLException {
+		Map<String, Object> resumo = copias.criar();
+		if (resumo == null) {
+			return new WebEndpointResponse<>(STATUS_CONFLITO);
+		}
+		return new WebEndpointResponse<>(resumo);
+	}
+}
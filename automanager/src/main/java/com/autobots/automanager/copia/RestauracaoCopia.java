@@ -0,0 +1,76 @@
+package com.autobots.automanager.copia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Restaura, na inicialização e antes das migrações, a cópia íntegra mais recente num
+ * banco vazio (o H2 em memória, depois de um reinício). A soma SHA-256 é conferida
+ * antes de qualquer comando; uma cópia corrompida é pulada em favor da anterior. O
+ * script é executado pelo próprio H2 (RUNSCRIPT), que insere as linhas em lote sem
+ * passar pela JPA. Um banco que já tem tabelas nunca é sobrescrito.
+ */
+public class RestauracaoCopia {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RestauracaoCopia.class);
+
+	private final JdbcTemplate jdbc;
+
+	private final Path pasta;
+
+	private final boolean habilitada;
+
+	public RestauracaoCopia(DataSource dataSource, String diretorio, boolean habilitada) {
+		this.jdbc = new JdbcTemplate(dataSource);
+		this.pasta = Paths.get(diretorio);
+		this.habilitada = habilitada;
+	}
+
+	public void restaurar() {
+		if (!habilitada) {
+			return;
+		}
+		try {
+			List<Path> copias = ArquivosCopia.listar(pasta);
+			if (copias.isEmpty()) {
+				return;
+			}
+			Integer tabelas = jdbc.queryForObject(
+					"select count(*) from information_schema.tables where table_schema = 'PUBLIC'", Integer.class);
+			if (tabelas != null && tabelas > 0) {
+				LOG.info("Banco já tem tabelas; cópias em {} não restauradas", pasta.toAbsolutePath());
+				return;
+			}
+			for (Path copia : copias) {
+				long inicio = System.nanoTime();
+				String registrada = ArquivosCopia.somaRegistrada(copia);
+				String calculada = ArquivosCopia.calcularSoma(copia);
+				if (!calculada.equals(registrada)) {
+					LOG.warn("Cópia {} não confere com o SHA-256 registrado; tentando a anterior", copia.getFileName());
+					continue;
+				}
+				long conferencia = System.nanoTime();
+				String caminho = copia.toAbsolutePath().toString().replace("'", "''");
+				jdbc.execute("RUNSCRIPT FROM '" + caminho + "' COMPRESSION GZIP CHARSET 'UTF-8'");
+				long fim = System.nanoTime();
+				LOG.warn("Banco restaurado de {} ({} bytes) em {} ms (conferência do SHA-256 em {} ms)", copia.toAbsolutePath(),
+						Files.size(copia), (fim - inicio) / 1_000_000, (conferencia - inicio) / 1_000_000);
+				return;
+			}
+			throw new IllegalStateException("Nenhuma cópia íntegra em " + pasta.toAbsolutePath()
+					+ "; remova as corrompidas ou desative automanager.copia.restaurar-na-inicializacao");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
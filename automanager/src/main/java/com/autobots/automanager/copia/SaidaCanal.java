@@ -0,0 +1,69 @@
+package com.autobots.automanager.copia;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+
+/**
+ * OutputStream que acumula os bytes num buffer direto e o grava no FileChannel a cada
+ * enchimento, somando ao digest exatamente o que foi para o disco. Não fecha o canal.
+ */
+final class SaidaCanal extends OutputStream {
+
+	private final FileChannel canal;
+	private final MessageDigest digest;
+	private final ByteBuffer buffer;
+	private long gravados;
+
+	SaidaCanal(FileChannel canal, MessageDigest digest, int tamanhoBuffer) {
+		this.canal = canal;
+		this.digest = digest;
+		this.buffer = ByteBuffer.allocateDirect(tamanhoBuffer);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (!buffer.hasRemaining()) {
+			esvaziar();
+		}
+		buffer.put((byte) b);
+	}
+
+	@Override
+	public void write(byte[] bytes, int inicio, int tamanho) throws IOException {
+		while (tamanho > 0) {
+			if (!buffer.hasRemaining()) {
+				esvaziar();
+			}
+			int parte = Math.min(tamanho, buffer.remaining());
+			buffer.put(bytes, inicio, parte);
+			inicio += parte;
+			tamanho -= parte;
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		esvaziar();
+	}
+
+	@Override
+	public void close() throws IOException {
+		esvaziar();
+	}
+
+	long getGravados() {
+		return gravados;
+	}
+
+	private void esvaziar() throws IOException {
+		buffer.flip();
+		digest.update(buffer.duplicate());
+		while (buffer.hasRemaining()) {
+			gravados += canal.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -6,27 +6,48 @@ import java.util.List;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Past;
 import javax.validation.constraints.Size;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 
 
 @Data
 @Entity
-public class Cliente {
+@EntityListeners(InquilinoListener.class)
+@Table(indexes = {
+	@Index(name = "idx_cliente_inquilino", columnList = "inquilino, id"),
+	@Index(name = "idx_cliente_endereco", columnList = "endereco_id"),
+	@Index(name = "idx_cliente_inquilino_nome", columnList = "inquilino, nome, id"),
+	@Index(name = "idx_cliente_inquilino_cadastro", columnList = "inquilino, data_cadastro, id")
+})
+public class Cliente implements PertenceInquilino {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+	@SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50)
 	private Long id;
+
+	@JsonIgnore
+	@Column(nullable = false, length = 40)
+	@Convert(converter = TextoCanonicoConverter.class)
+	private String inquilino;
 	
 	@Column
 	@NotBlank(message = "Nome é obrigatório")
@@ -40,16 +61,18 @@ public class Cliente {
 	@Past(message = "Data de nascimento deve ser no passado")
 	private Date dataNascimento;
 	
-	@Column
+	@Column(name = "data_cadastro")
 	private Date dataCadastro;
 	
 	@OneToMany(orphanRemoval = true, cascade = CascadeType.ALL)
+	@JoinColumn(name = "cliente_id")
 	private List<Documento> documentos = new ArrayList<>();
 	
 	@OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
 	private Endereco endereco;
 	
 	@OneToMany(orphanRemoval = true, cascade = CascadeType.ALL)
+	@JoinColumn(name = "cliente_id")
 	private List<Telefone> telefones = new ArrayList<>();
 
 }
\ No newline at end of file
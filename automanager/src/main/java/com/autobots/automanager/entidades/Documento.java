@@ -1,27 +1,49 @@
 package com.autobots.automanager.entidades;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 
 @Data
 @Entity
-public class Documento {
+@EntityListeners(InquilinoListener.class)
+@Table(indexes = {
+	@Index(name = "idx_documento_inquilino", columnList = "inquilino, id"),
+	@Index(name = "idx_documento_numero", columnList = "numero"),
+	@Index(name = "idx_documento_cliente", columnList = "cliente_id")
+},
+	uniqueConstraints = @UniqueConstraint(name = "uk_documento_inquilino_numero", columnNames = { "inquilino", "numero" }))
+public class Documento implements PertenceInquilino {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documento_seq")
+	@SequenceGenerator(name = "documento_seq", sequenceName = "documento_seq", allocationSize = 50)
 	private Long id;
+
+	@JsonIgnore
+	@Column(nullable = false, length = 40)
+	@Convert(converter = TextoCanonicoConverter.class)
+	private String inquilino;
 	
 	@Column
+	@Convert(converter = TextoCanonicoConverter.class)
 	@NotBlank(message = "Tipo do documento é obrigatório")
 	private String tipo;
 	
-	@Column(unique = true)
+	@Column
 	@NotBlank(message = "Número do documento é obrigatório")
 	private String numero;
 }
\ No newline at end of file
@@ -1,31 +1,52 @@
 package com.autobots.automanager.entidades;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 
 @Data
 @Entity
-public class Endereco {
+@EntityListeners(InquilinoListener.class)
+@Table(indexes = {
+	@Index(name = "idx_endereco_inquilino", columnList = "inquilino, id"),
+	@Index(name = "idx_endereco_cidade_estado", columnList = "cidade, estado")
+})
+public class Endereco implements PertenceInquilino {
 	@Id()
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "endereco_seq")
+	@SequenceGenerator(name = "endereco_seq", sequenceName = "endereco_seq", allocationSize = 50)
 	private Long id;
+
+	@JsonIgnore
+	@Column(nullable = false, length = 40)
+	@Convert(converter = TextoCanonicoConverter.class)
+	private String inquilino;
 	
 	@Column(nullable = true)
+	@Convert(converter = TextoCanonicoConverter.class)
 	@Size(min = 2, max = 2, message = "Estado deve ter 2 caracteres")
 	private String estado;
 	
 	@Column(nullable = false)
+	@Convert(converter = TextoCanonicoConverter.class)
 	@NotBlank(message = "Cidade é obrigatória")
 	private String cidade;
 	
 	@Column(nullable = true)
+	@Convert(converter = TextoCanonicoConverter.class)
 	private String bairro;
 	
 	@Column(nullable = false)
@@ -0,0 +1,18 @@
+package com.autobots.automanager.entidades;
+
+import javax.persistence.PrePersist;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+
+public class InquilinoListener {
+
+	@PrePersist
+	public void preencher(Object entidade) {
+		if (entidade instanceof PertenceInquilino) {
+			PertenceInquilino alvo = (PertenceInquilino) entidade;
+			if (alvo.getInquilino() == null) {
+				alvo.setInquilino(InquilinoContexto.getInquilino());
+			}
+		}
+	}
+}
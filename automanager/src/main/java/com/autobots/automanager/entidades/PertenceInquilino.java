@@ -0,0 +1,8 @@
+package com.autobots.automanager.entidades;
+
+public interface PertenceInquilino {
+
+	String getInquilino();
+
+	void setInquilino(String inquilino);
+}
@@ -1,24 +1,44 @@
 package com.autobots.automanager.entidades;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 
 @Data
 @Entity
-public class Telefone {
+@EntityListeners(InquilinoListener.class)
+@Table(indexes = {
+	@Index(name = "idx_telefone_inquilino", columnList = "inquilino, id"),
+	@Index(name = "idx_telefone_ddd_numero", columnList = "ddd, numero"),
+	@Index(name = "idx_telefone_cliente", columnList = "cliente_id")
+})
+public class Telefone implements PertenceInquilino {
 	@Id()
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "telefone_seq")
+	@SequenceGenerator(name = "telefone_seq", sequenceName = "telefone_seq", allocationSize = 50)
 	private Long id;
+
+	@JsonIgnore
+	@Column(nullable = false, length = 40)
+	@Convert(converter = TextoCanonicoConverter.class)
+	private String inquilino;
 	
 	@Column
+	@Convert(converter = TextoCanonicoConverter.class)
 	@NotBlank(message = "DDD é obrigatório")
 	@Size(min = 2, max = 3, message = "DDD deve ter 2 ou 3 dígitos")
 	@Pattern(regexp = "\\d+", message = "DDD deve conter apenas números")
@@ -0,0 +1,26 @@
+package com.autobots.automanager.entidades;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import com.autobots.automanager.modelo.Canonicalizador;
+
+/**
+ * Para colunas com poucos valores distintos repetidos em muitas linhas (estado, cidade,
+ * bairro, tipo de documento, DDD): ao carregar a entidade, o texto lido do banco é
+ * trocado pela instância canônica, e as entidades carregadas passam a compartilhar
+ * uma única cópia de cada valor.
+ */
+@Converter
+public class TextoCanonicoConverter implements AttributeConverter<String, String> {
+
+	@Override
+	public String convertToDatabaseColumn(String valor) {
+		return valor;
+	}
+
+	@Override
+	public String convertToEntityAttribute(String valor) {
+		return Canonicalizador.canonico(valor);
+	}
+}
@@ -0,0 +1,47 @@
+package com.autobots.automanager.entrada;
+
+import java.util.Date;
+import java.util.List;
+
+import com.autobots.automanager.entidades.Cliente;
+
+import lombok.Data;
+
+/**
+ * Corpo de POST e PUT em /cliente. O Jackson preenche esta classe, e não a entidade;
+ * a entidade só é criada por {@link #paraEntidade()}, depois que o ValidadorCliente
+ * aceitou os dados. O id do cliente vem sempre do caminho, nunca do corpo. As listas
+ * ficam nulas quando ausentes, em vez de criadas para serem trocadas pelo Jackson.
+ */
+@Data
+public class ClienteEntrada {
+	private String nome;
+	private String nomeSocial;
+	private Date dataNascimento;
+	private Date dataCadastro;
+	private List<DocumentoEntrada> documentos;
+	private EnderecoEntrada endereco;
+	private List<TelefoneEntrada> telefones;
+
+	public Cliente paraEntidade() {
+		Cliente cliente = new Cliente();
+		cliente.setNome(nome);
+		cliente.setNomeSocial(nomeSocial);
+		cliente.setDataNascimento(dataNascimento);
+		cliente.setDataCadastro(dataCadastro);
+		if (documentos != null) {
+			for (DocumentoEntrada documento : documentos) {
+				cliente.getDocumentos().add(documento.paraEntidade());
+			}
+		}
+		if (endereco != null) {
+			cliente.setEndereco(endereco.paraEntidade());
+		}
+		if (telefones != null) {
+			for (TelefoneEntrada telefone : telefones) {
+				cliente.getTelefones().add(telefone.paraEntidade());
+			}
+		}
+		return cliente;
+	}
+}
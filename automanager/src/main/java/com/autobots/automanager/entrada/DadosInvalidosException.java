@@ -0,0 +1,20 @@
+package com.autobots.automanager.entrada;
+
+import java.util.List;
+
+/** Corpo recusado pelo ValidadorCliente, com todas as mensagens de uma vez. */
+public class DadosInvalidosException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<String> erros;
+
+	public DadosInvalidosException(List<String> erros) {
+		super(String.join("; ", erros));
+		this.erros = List.copyOf(erros);
+	}
+
+	public List<String> getErros() {
+		return erros;
+	}
+}
@@ -0,0 +1,20 @@
+package com.autobots.automanager.entrada;
+
+import com.autobots.automanager.entidades.Documento;
+
+import lombok.Data;
+
+@Data
+public class DocumentoEntrada {
+	private Long id;
+	private String tipo;
+	private String numero;
+
+	public Documento paraEntidade() {
+		Documento documento = new Documento();
+		documento.setId(id);
+		documento.setTipo(tipo);
+		documento.setNumero(numero);
+		return documento;
+	}
+}
@@ -0,0 +1,30 @@
+package com.autobots.automanager.entrada;
+
+import com.autobots.automanager.entidades.Endereco;
+
+import lombok.Data;
+
+@Data
+public class EnderecoEntrada {
+	private Long id;
+	private String estado;
+	private String cidade;
+	private String bairro;
+	private String rua;
+	private String numero;
+	private String codigoPostal;
+	private String informacoesAdicionais;
+
+	public Endereco paraEntidade() {
+		Endereco endereco = new Endereco();
+		endereco.setId(id);
+		endereco.setEstado(estado);
+		endereco.setCidade(cidade);
+		endereco.setBairro(bairro);
+		endereco.setRua(rua);
+		endereco.setNumero(numero);
+		endereco.setCodigoPostal(codigoPostal);
+		endereco.setInformacoesAdicionais(informacoesAdicionais);
+		return endereco;
+	}
+}
@@ -0,0 +1,20 @@
+package com.autobots.automanager.entrada;
+
+import com.autobots.automanager.entidades.Telefone;
+
+import lombok.Data;
+
+@Data
+public class TelefoneEntrada {
+	private Long id;
+	private String ddd;
+	private String numero;
+
+	public Telefone paraEntidade() {
+		Telefone telefone = new Telefone();
+		telefone.setId(id);
+		telefone.setDdd(ddd);
+		telefone.setNumero(numero);
+		return telefone;
+	}
+}
@@ -0,0 +1,166 @@
+package com.autobots.automanager.entrada;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.autobots.automanager.modelo.StringVerificadorNulo;
+
+/**
+ * Validação dos corpos de /cliente, com as mesmas regras e mensagens das anotações de
+ * Cliente, Documento, Endereco e Telefone, escritas como código direto: sem reflexão
+ * nem metadados montados por requisição, e o \d+ do DDD conferido caractere a
+ * caractere, sem criar um Matcher. Com dados válidos nada é alocado; a lista de erros
+ * só é criada no primeiro erro, e todos são reunidos numa única DadosInvalidosException.
+ *
+ * Na criação (e na substituição do agregado) os campos obrigatórios são exigidos. Na
+ * atualização parcial, campos ausentes ou em branco mantêm o valor atual (como no
+ * ClienteAtualizador), então só os valores informados são conferidos. Os filhos
+ * incluídos ou substituídos isoladamente (POST /{id}/documentos, POST /{id}/telefones e
+ * PUT /{id}/endereco) seguem as regras da criação.
+ */
+public final class ValidadorCliente {
+
+	private static final StringVerificadorNulo VERIFICADOR = StringVerificadorNulo.COMPARTILHADO;
+
+	private static final String CORPO_OBRIGATORIO = "Corpo da requisição é obrigatório";
+
+	private ValidadorCliente() {
+	}
+
+	public static void validarCriacao(ClienteEntrada entrada) {
+		lancar(validar(entrada, true));
+	}
+
+	public static void validarAtualizacao(ClienteEntrada entrada) {
+		lancar(validar(entrada, false));
+	}
+
+	public static void validarDocumento(DocumentoEntrada documento) {
+		lancar(documento == null ? List.of(CORPO_OBRIGATORIO) : validar(null, documento, true));
+	}
+
+	public static void validarTelefone(TelefoneEntrada telefone) {
+		lancar(telefone == null ? List.of(CORPO_OBRIGATORIO) : validar(null, telefone, true));
+	}
+
+	public static void validarEndereco(EnderecoEntrada endereco) {
+		lancar(endereco == null ? List.of(CORPO_OBRIGATORIO) : validar(null, endereco, true));
+	}
+
+	private static void lancar(List<String> erros) {
+		if (erros != null) {
+			throw new DadosInvalidosException(erros);
+		}
+	}
+
+	private static List<String> validar(ClienteEntrada entrada, boolean completo) {
+		if (entrada == null) {
+			return List.of(CORPO_OBRIGATORIO);
+		}
+		List<String> erros = null;
+		String nome = entrada.getNome();
+		if (completo && VERIFICADOR.verificar(nome)) {
+			erros = erro(erros, "Nome é obrigatório");
+		}
+		if (nome != null && (completo || !nome.isBlank()) && (nome.length() < 3 || nome.length() > 100)) {
+			erros = erro(erros, "Nome deve ter entre 3 e 100 caracteres");
+		}
+		Date nascimento = entrada.getDataNascimento();
+		if (nascimento != null && nascimento.getTime() >= System.currentTimeMillis()) {
+			erros = erro(erros, "Data de nascimento deve ser no passado");
+		}
+		if (entrada.getDocumentos() != null) {
+			for (DocumentoEntrada documento : entrada.getDocumentos()) {
+				erros = validar(erros, documento, completo);
+			}
+		}
+		if (entrada.getEndereco() != null) {
+			erros = validar(erros, entrada.getEndereco(), completo);
+		}
+		if (entrada.getTelefones() != null) {
+			for (TelefoneEntrada telefone : entrada.getTelefones()) {
+				erros = validar(erros, telefone, completo);
+			}
+		}
+		return erros;
+	}
+
+	private static List<String> validar(List<String> erros, DocumentoEntrada documento, boolean completo) {
+		if (documento == null) {
+			return erro(erros, "Documento não pode ser nulo");
+		}
+		if (completo && VERIFICADOR.verificar(documento.getTipo())) {
+			erros = erro(erros, "Tipo do documento é obrigatório");
+		}
+		if (completo && VERIFICADOR.verificar(documento.getNumero())) {
+			erros = erro(erros, "Número do documento é obrigatório");
+		}
+		return erros;
+	}
+
+	private static List<String> validar(List<String> erros, EnderecoEntrada endereco, boolean completo) {
+		String estado = endereco.getEstado();
+		if (estado != null && (completo || !estado.isBlank()) && estado.length() != 2) {
+			erros = erro(erros, "Estado deve ter 2 caracteres");
+		}
+		if (completo && VERIFICADOR.verificar(endereco.getCidade())) {
+			erros = erro(erros, "Cidade é obrigatória");
+		}
+		if (completo && VERIFICADOR.verificar(endereco.getRua())) {
+			erros = erro(erros, "Rua é obrigatória");
+		}
+		if (completo && VERIFICADOR.verificar(endereco.getNumero())) {
+			erros = erro(erros, "Número é obrigatório");
+		}
+		return erros;
+	}
+
+	private static List<String> validar(List<String> erros, TelefoneEntrada telefone, boolean completo) {
+		if (telefone == null) {
+			return erro(erros, "Telefone não pode ser nulo");
+		}
+		String ddd = telefone.getDdd();
+		if (completo && VERIFICADOR.verificar(ddd)) {
+			erros = erro(erros, "DDD é obrigatório");
+		}
+		if (ddd != null && (completo || !ddd.isBlank())) {
+			if (ddd.length() < 2 || ddd.length() > 3) {
+				erros = erro(erros, "DDD deve ter 2 ou 3 dígitos");
+			}
+			if (!digitos(ddd)) {
+				erros = erro(erros, "DDD deve conter apenas números");
+			}
+		}
+		String numero = telefone.getNumero();
+		if (completo && VERIFICADOR.verificar(numero)) {
+			erros = erro(erros, "Número é obrigatório");
+		}
+		if (numero != null && (completo || !numero.isBlank()) && (numero.length() < 8 || numero.length() > 9)) {
+			erros = erro(erros, "Número deve ter 8 ou 9 dígitos");
+		}
+		return erros;
+	}
+
+	/** O mesmo que o @Pattern(regexp = "\\d+") de Telefone.ddd. */
+	private static boolean digitos(String texto) {
+		if (texto.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static List<String> erro(List<String> erros, String mensagem) {
+		if (erros == null) {
+			erros = new ArrayList<>(4);
+		}
+		erros.add(mensagem);
+		return erros;
+	}
+}
@@ -0,0 +1,153 @@
+package com.autobots.automanager.eventos;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Uma conexão SSE e sua fila de entrega. A fila guarda no máximo uma notificação por
+ * cliente: uma alteração nova do mesmo cliente substitui a pendente (só o estado mais
+ * recente interessa ao painel). Se um consumidor lento acumular mais clientes do que a
+ * capacidade, os mais antigos são descartados e ele recebe um evento "descartados",
+ * sinal para recarregar a lista. A entrega roda no executor de eventos, nunca na
+ * thread que publicou a alteração.
+ */
+public class AssinanteEventos {
+
+	private final String inquilino;
+	private final Set<Long> ids;
+	private final Set<String> recursos;
+	private final SseEmitter emissor;
+	private final int capacidade;
+	private final Executor executor;
+	private final Consumer<AssinanteEventos> aoEncerrar;
+
+	private final LinkedHashMap<Long, NotificacaoCliente> pendentes = new LinkedHashMap<>();
+	private long descartados;
+	private boolean agendado;
+	private volatile boolean encerrado;
+
+	public AssinanteEventos(String inquilino, Set<Long> ids, Set<String> recursos, SseEmitter emissor, int capacidade,
+			Executor executor, Consumer<AssinanteEventos> aoEncerrar) {
+		this.inquilino = inquilino;
+		this.ids = ids;
+		this.recursos = recursos;
+		this.emissor = emissor;
+		this.capacidade = capacidade;
+		this.executor = executor;
+		this.aoEncerrar = aoEncerrar;
+	}
+
+	public String getInquilino() {
+		return inquilino;
+	}
+
+	public boolean aceita(ClienteAlteradoEvento evento) {
+		return (ids.isEmpty() || ids.contains(evento.getClienteId()))
+				&& (recursos.isEmpty() || recursos.contains(evento.getRecurso()));
+	}
+
+	/** Enfileira sem bloquear; devolve quantas notificações foram descartadas para caber. */
+	public int oferecer(NotificacaoCliente notificacao) {
+		int descartadasAgora = 0;
+		boolean agendar;
+		synchronized (this) {
+			if (encerrado) {
+				return 0;
+			}
+			pendentes.remove(notificacao.getClienteId());
+			pendentes.put(notificacao.getClienteId(), notificacao);
+			if (pendentes.size() > capacidade) {
+				Iterator<Long> maisAntiga = pendentes.keySet().iterator();
+				maisAntiga.next();
+				maisAntiga.remove();
+				descartados++;
+				descartadasAgora = 1;
+			}
+			agendar = !agendado;
+			agendado = true;
+		}
+		if (agendar) {
+			agendarEntrega();
+		}
+		return descartadasAgora;
+	}
+
+	/** Comentário SSE periódico: mantém proxies abertos e revela conexões mortas. */
+	public void pulsar() {
+		synchronized (this) {
+			if (encerrado || agendado) {
+				return;
+			}
+		}
+		try {
+			synchronized (emissor) {
+				emissor.send(SseEmitter.event().comment("batimento"));
+			}
+		} catch (IOException | IllegalStateException e) {
+			encerrar();
+		}
+	}
+
+	public void encerrar() {
+		synchronized (this) {
+			if (encerrado) {
+				return;
+			}
+			encerrado = true;
+			pendentes.clear();
+		}
+		aoEncerrar.accept(this);
+		emissor.complete();
+	}
+
+	private void agendarEntrega() {
+		try {
+			executor.execute(this::entregar);
+		} catch (TaskRejectedException e) {
+			encerrar();
+		}
+	}
+
+	private void entregar() {
+		while (true) {
+			List<NotificacaoCliente> lote;
+			long perdidos;
+			synchronized (this) {
+				if (encerrado || (pendentes.isEmpty() && descartados == 0)) {
+					agendado = false;
+					return;
+				}
+				lote = new ArrayList<>(pendentes.values());
+				pendentes.clear();
+				perdidos = descartados;
+				descartados = 0;
+			}
+			try {
+				synchronized (emissor) {
+					if (perdidos > 0) {
+						emissor.send(SseEmitter.event().name("descartados").data(perdidos));
+					}
+					for (NotificacaoCliente notificacao : lote) {
+						emissor.send(SseEmitter.event()
+								.id(Long.toString(notificacao.getSequencia()))
+								.name(notificacao.getOperacao())
+								.data(notificacao.getJson(), MediaType.APPLICATION_JSON));
+					}
+				}
+			} catch (IOException | IllegalStateException e) {
+				encerrar();
+				return;
+			}
+		}
+	}
+}
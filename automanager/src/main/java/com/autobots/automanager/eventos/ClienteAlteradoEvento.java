@@ -0,0 +1,61 @@
+package com.autobots.automanager.eventos;
+
+import com.autobots.automanager.entidades.Cliente;
+
+/**
+ * Publicado pelos caminhos de escrita depois que a alteração de um agregado de cliente
+ * foi gravada. Em CRIADO e ATUALIZADO carrega o agregado como ficou; em REMOVIDO, só o id.
+ */
+public class ClienteAlteradoEvento {
+
+	public enum Operacao {
+		CRIADO, ATUALIZADO, REMOVIDO
+	}
+
+	private final Operacao operacao;
+	private final long clienteId;
+	private final String inquilino;
+	private final String recurso;
+	private final Cliente cliente;
+
+	private ClienteAlteradoEvento(Operacao operacao, long clienteId, String inquilino, String recurso, Cliente cliente) {
+		this.operacao = operacao;
+		this.clienteId = clienteId;
+		this.inquilino = inquilino;
+		this.recurso = recurso;
+		this.cliente = cliente;
+	}
+
+	public static ClienteAlteradoEvento criado(Cliente cliente) {
+		return new ClienteAlteradoEvento(Operacao.CRIADO, cliente.getId(), cliente.getInquilino(), "cliente", cliente);
+	}
+
+	/** Alteração no cliente ou em um de seus filhos; recurso indica qual (cliente, documento, endereco, telefone). */
+	public static ClienteAlteradoEvento atualizado(Cliente cliente, String recurso) {
+		return new ClienteAlteradoEvento(Operacao.ATUALIZADO, cliente.getId(), cliente.getInquilino(), recurso, cliente);
+	}
+
+	public static ClienteAlteradoEvento removido(long clienteId, String inquilino) {
+		return new ClienteAlteradoEvento(Operacao.REMOVIDO, clienteId, inquilino, "cliente", null);
+	}
+
+	public Operacao getOperacao() {
+		return operacao;
+	}
+
+	public long getClienteId() {
+		return clienteId;
+	}
+
+	public String getInquilino() {
+		return inquilino;
+	}
+
+	public String getRecurso() {
+		return recurso;
+	}
+
+	public Cliente getCliente() {
+		return cliente;
+	}
+}
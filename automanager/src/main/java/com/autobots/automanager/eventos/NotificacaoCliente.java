@@ -0,0 +1,36 @@
+package com.autobots.automanager.eventos;
+
+/**
+ * Alteração já serializada para envio: o JSON é montado uma única vez por evento e
+ * compartilhado por todos os assinantes que o recebem.
+ */
+public final class NotificacaoCliente {
+
+	private final long sequencia;
+	private final long clienteId;
+	private final String operacao;
+	private final String json;
+
+	public NotificacaoCliente(long sequencia, long clienteId, String operacao, String json) {
+		this.sequencia = sequencia;
+		this.clienteId = clienteId;
+		this.operacao = operacao;
+		this.json = json;
+	}
+
+	public long getSequencia() {
+		return sequencia;
+	}
+
+	public long getClienteId() {
+		return clienteId;
+	}
+
+	public String getOperacao() {
+		return operacao;
+	}
+
+	public String getJson() {
+		return json;
+	}
+}
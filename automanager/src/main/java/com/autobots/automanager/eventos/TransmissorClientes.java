@@ -0,0 +1,143 @@
+package com.autobots.automanager.eventos;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Distribui as alterações de clientes para as conexões SSE abertas em /cliente/eventos.
+ * Cada evento só é serializado se algum assinante do inquilino o aceitar, e uma única
+ * vez, na thread que o publicou (onde a sessão do Hibernate ainda está aberta). Depois
+ * disso o publicador apenas enfileira nos assinantes: nenhum caminho de escrita espera
+ * por uma conexão lenta.
+ */
+@Component
+public class TransmissorClientes {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TransmissorClientes.class);
+
+	private final Map<String, Set<AssinanteEventos>> assinantes = new ConcurrentHashMap<>();
+
+	private final AtomicInteger total = new AtomicInteger();
+
+	private final AtomicLong sequencia = new AtomicLong();
+
+	private final ObjectMapper mapeador;
+
+	private final Executor executor;
+
+	private final Counter descartados;
+
+	@Value("${automanager.eventos.max-assinantes:200}")
+	private int maxAssinantes;
+
+	@Value("${automanager.eventos.capacidade:256}")
+	private int capacidade;
+
+	public TransmissorClientes(ObjectMapper mapeador, @Qualifier("executorEventos") Executor executor,
+			MeterRegistry registro) {
+		this.mapeador = mapeador;
+		this.executor = executor;
+		this.descartados = registro.counter("automanager.eventos.descartados");
+		Gauge.builder("automanager.eventos.assinantes", total, AtomicInteger::get).register(registro);
+	}
+
+	/** Registra uma nova conexão; devolve null se o limite de assinantes foi atingido. */
+	public AssinanteEventos assinar(String inquilino, Set<Long> ids, Set<String> recursos, SseEmitter emissor) {
+		if (total.incrementAndGet() > maxAssinantes) {
+			total.decrementAndGet();
+			return null;
+		}
+		AssinanteEventos assinante = new AssinanteEventos(inquilino, ids, recursos, emissor, capacidade, executor,
+				this::remover);
+		assinantes.computeIfAbsent(inquilino, chave -> ConcurrentHashMap.newKeySet()).add(assinante);
+		emissor.onCompletion(assinante::encerrar);
+		emissor.onTimeout(assinante::encerrar);
+		emissor.onError(erro -> assinante.encerrar());
+		return assinante;
+	}
+
+	@EventListener
+	public void aoAlterar(ClienteAlteradoEvento evento) {
+		Set<AssinanteEventos> doInquilino = assinantes.get(evento.getInquilino());
+		if (doInquilino == null || doInquilino.isEmpty()) {
+			return;
+		}
+		NotificacaoCliente notificacao = null;
+		for (AssinanteEventos assinante : doInquilino) {
+			if (!assinante.aceita(evento)) {
+				continue;
+			}
+			if (notificacao == null) {
+				notificacao = notificar(evento);
+			}
+			int perdidas = assinante.oferecer(notificacao);
+			if (perdidas > 0) {
+				descartados.increment(perdidas);
+			}
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${automanager.eventos.batimento-ms:15000}")
+	public void pulsar() {
+		for (Set<AssinanteEventos> doInquilino : assinantes.values()) {
+			for (AssinanteEventos assinante : doInquilino) {
+				assinante.pulsar();
+			}
+		}
+	}
+
+	private void remover(AssinanteEventos assinante) {
+		Set<AssinanteEventos> doInquilino = assinantes.get(assinante.getInquilino());
+		if (doInquilino != null && doInquilino.remove(assinante)) {
+			total.decrementAndGet();
+		}
+	}
+
+	private NotificacaoCliente notificar(ClienteAlteradoEvento evento) {
+		long numero = sequencia.incrementAndGet();
+		String operacao = evento.getOperacao().name().toLowerCase();
+		Map<String, Object> corpo = new LinkedHashMap<>();
+		corpo.put("sequencia", numero);
+		corpo.put("operacao", operacao);
+		corpo.put("clienteId", evento.getClienteId());
+		corpo.put("recurso", evento.getRecurso());
+		String json;
+		try {
+			if (evento.getCliente() != null) {
+				corpo.put("cliente", evento.getCliente());
+			}
+			json = mapeador.writeValueAsString(corpo);
+		} catch (JsonProcessingException e) {
+			// sem o agregado o assinante ainda sabe qual cliente recarregar
+			LOG.warn("Cliente {} não pôde ser serializado para o evento: {}", evento.getClienteId(), e.getMessage());
+			corpo.remove("cliente");
+			try {
+				json = mapeador.writeValueAsString(corpo);
+			} catch (JsonProcessingException impossivel) {
+				throw new IllegalStateException(impossivel);
+			}
+		}
+		return new NotificacaoCliente(numero, evento.getClienteId(), operacao, json);
+	}
+}
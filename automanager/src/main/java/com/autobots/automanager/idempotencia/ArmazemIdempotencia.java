@@ -0,0 +1,261 @@
+package com.autobots.automanager.idempotencia;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Chaves de idempotência e as respostas das requisições já concluídas.
+ *
+ * Em memória, cada chave fica registrada pelo tempo de validade; como a validade é a
+ * mesma para todas, a ordem de inserção é também a ordem de expiração, e uma fila
+ * única serve tanto para descartar as vencidas quanto para despejar as mais antigas já
+ * concluídas quando o número de chaves ou os bytes guardados passam do limite. Com
+ * automanager.idempotencia.persistente, as respostas também são gravadas numa tabela
+ * da primária, consultada quando a chave não está em memória (por exemplo, depois de
+ * um reinício ou de um despejo).
+ */
+@Component
+@DependsOn("migradorEsquema")
+public class ArmazemIdempotencia {
+
+	/** Situação de uma chave no momento da reserva. */
+	public enum Situacao {
+		/** Chave nova: a requisição deve ser executada e sua resposta guardada. */
+		RESERVADA,
+		/** Chave já concluída com o mesmo conteúdo: a resposta guardada é repetida. */
+		CONCLUIDA,
+		/** Outra requisição com a mesma chave ainda está em execução. */
+		EM_ANDAMENTO,
+		/** A chave já foi usada com outro método, rota ou corpo. */
+		DIVERGENTE
+	}
+
+	private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+	private final Queue<Entrada> ordem = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger naFila = new AtomicInteger();
+
+	private final AtomicLong bytes = new AtomicLong();
+
+	private final JdbcTemplate banco;
+
+	@Value("${automanager.idempotencia.validade:24h}")
+	private Duration validade;
+
+	@Value("${automanager.idempotencia.max-chaves:100000}")
+	private int maxChaves;
+
+	@Value("${automanager.idempotencia.memoria-maxima:32MB}")
+	private DataSize memoriaMaxima;
+
+	@Value("${automanager.idempotencia.persistente:false}")
+	private boolean persistente;
+
+	public ArmazemIdempotencia(@Qualifier("dataSourcePrimaria") DataSource primaria, MeterRegistry registro) {
+		this.banco = new JdbcTemplate(primaria);
+		Gauge.builder("automanager.idempotencia.chaves", entradas, Map::size).register(registro);
+		Gauge.builder("automanager.idempotencia.memoria", bytes, AtomicLong::get).baseUnit("bytes").register(registro);
+	}
+
+	/**
+	 * Reserva a chave para a requisição com a impressão informada. Quando a situação é
+	 * RESERVADA, quem reservou deve chamar {@link #concluir} ou {@link #liberar} com a
+	 * entrada devolvida.
+	 */
+	public Reserva reservar(String chave, String impressao) {
+		long agora = System.currentTimeMillis();
+		Entrada nova = new Entrada(chave, impressao, agora + validade.toMillis());
+		while (true) {
+			Entrada atual = entradas.putIfAbsent(chave, nova);
+			if (atual == null) {
+				break;
+			}
+			if (atual.expiraEm <= agora) {
+				entradas.remove(chave, atual);
+				continue;
+			}
+			if (!atual.impressao.equals(impressao)) {
+				return new Reserva(Situacao.DIVERGENTE, atual);
+			}
+			RespostaGuardada resposta = atual.resposta;
+			return new Reserva(resposta == null ? Situacao.EM_ANDAMENTO : Situacao.CONCLUIDA, atual);
+		}
+		ordem.add(nova);
+		naFila.incrementAndGet();
+		aparar(agora);
+		if (persistente) {
+			Reserva gravada = buscarGravada(nova, agora);
+			if (gravada != null) {
+				return gravada;
+			}
+		}
+		return new Reserva(Situacao.RESERVADA, nova);
+	}
+
+	/** Guarda a resposta da requisição que reservou a entrada. */
+	public void concluir(Entrada entrada, RespostaGuardada resposta) {
+		guardarEmMemoria(entrada, resposta);
+		if (persistente) {
+			gravar(entrada, resposta);
+		}
+	}
+
+	/** UPDATE e, se a chave ainda não está na tabela, INSERT: sem o MERGE do H2, para funcionar em qualquer banco. */
+	private void gravar(Entrada entrada, RespostaGuardada resposta) {
+		Object[] valores = { entrada.impressao, resposta.getStatus(), resposta.getTipoConteudo(), resposta.getLocalizacao(),
+				resposta.getCorpo(), entrada.expiraEm, entrada.chave };
+		String atualizacao = "UPDATE idempotencia_resposta SET impressao = ?, status = ?, tipo_conteudo = ?, localizacao = ?, "
+				+ "corpo = ?, expira = ? WHERE chave = ?";
+		if (banco.update(atualizacao, valores) == 0) {
+			try {
+				banco.update("INSERT INTO idempotencia_resposta (impressao, status, tipo_conteudo, localizacao, corpo, expira, chave) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?)", valores);
+			} catch (DuplicateKeyException e) {
+				banco.update(atualizacao, valores);
+			}
+		}
+	}
+
+	private void guardarEmMemoria(Entrada entrada, RespostaGuardada resposta) {
+		if (entrada.guardar(resposta)) {
+			bytes.addAndGet(resposta.tamanho());
+		}
+		aparar(System.currentTimeMillis());
+	}
+
+	/** Desiste da reserva (a requisição falhou), para que uma nova tentativa seja executada. */
+	public void liberar(Entrada entrada) {
+		entradas.remove(entrada.chave, entrada);
+	}
+
+	@Scheduled(fixedDelayString = "${automanager.idempotencia.limpeza-ms:60000}")
+	public void limpar() {
+		long agora = System.currentTimeMillis();
+		aparar(agora);
+		if (persistente) {
+			banco.update("DELETE FROM idempotencia_resposta WHERE expira <= ?", agora);
+		}
+	}
+
+	/**
+	 * Remove as entradas vencidas da cabeça da fila e, se preciso, as mais antigas até
+	 * caber nos limites. Uma entrada ainda em execução só sai quando vence: despejá-la
+	 * deixaria um reenvio executar a mesma operação outra vez em paralelo. Ela fica na
+	 * fila e as concluídas atrás dela são despejadas no seu lugar.
+	 */
+	private void aparar(long agora) {
+		long limiteBytes = memoriaMaxima.toBytes();
+		for (Entrada entrada : ordem) {
+			boolean excedido = naFila.get() > maxChaves || bytes.get() > limiteBytes;
+			boolean descartada = entradas.get(entrada.chave) != entrada;
+			if (entrada.expiraEm > agora && !descartada) {
+				if (!excedido) {
+					return;
+				}
+				if (entrada.resposta == null) {
+					continue;
+				}
+			}
+			if (ordem.remove(entrada)) {
+				naFila.decrementAndGet();
+				entradas.remove(entrada.chave, entrada);
+				bytes.addAndGet(-entrada.descartar());
+			}
+		}
+	}
+
+	private Reserva buscarGravada(Entrada nova, long agora) {
+		List<Reserva> gravadas = banco.query(
+				"SELECT impressao, status, tipo_conteudo, localizacao, corpo FROM idempotencia_resposta "
+						+ "WHERE chave = ? AND expira > ?",
+				(linha, numero) -> {
+					if (!linha.getString("impressao").equals(nova.impressao)) {
+						return new Reserva(Situacao.DIVERGENTE, nova);
+					}
+					RespostaGuardada resposta = new RespostaGuardada(linha.getInt("status"),
+							linha.getString("tipo_conteudo"), linha.getString("localizacao"), linha.getBytes("corpo"));
+					guardarEmMemoria(nova, resposta);
+					return new Reserva(Situacao.CONCLUIDA, nova);
+				},
+				nova.chave, agora);
+		if (gravadas.isEmpty()) {
+			return null;
+		}
+		if (gravadas.get(0).getSituacao() == Situacao.DIVERGENTE) {
+			liberar(nova);
+		}
+		return gravadas.get(0);
+	}
+
+	public static final class Reserva {
+
+		private final Situacao situacao;
+		private final Entrada entrada;
+
+		Reserva(Situacao situacao, Entrada entrada) {
+			this.situacao = situacao;
+			this.entrada = entrada;
+		}
+
+		public Situacao getSituacao() {
+			return situacao;
+		}
+
+		public Entrada getEntrada() {
+			return entrada;
+		}
+
+		/** Resposta a repetir, quando a situação é CONCLUIDA. */
+		public RespostaGuardada getResposta() {
+			return entrada.resposta;
+		}
+	}
+
+	public static final class Entrada {
+
+		private final String chave;
+		private final String impressao;
+		private final long expiraEm;
+		private volatile RespostaGuardada resposta;
+		private boolean descartada;
+
+		Entrada(String chave, String impressao, long expiraEm) {
+			this.chave = chave;
+			this.impressao = impressao;
+			this.expiraEm = expiraEm;
+		}
+
+		/** Devolve false se a entrada já saiu do armazém, caso em que seus bytes não contam. */
+		synchronized boolean guardar(RespostaGuardada resposta) {
+			this.resposta = resposta;
+			return !descartada;
+		}
+
+		/** Marca a entrada como fora do armazém e devolve os bytes que ela ocupava. */
+		synchronized long descartar() {
+			descartada = true;
+			return resposta == null ? 0 : resposta.tamanho();
+		}
+	}
+}
@@ -0,0 +1,272 @@
+package com.autobots.automanager.idempotencia;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import com.autobots.automanager.config.InquilinoInterceptor;
+import com.autobots.automanager.idempotencia.ArmazemIdempotencia.Entrada;
+import com.autobots.automanager.idempotencia.ArmazemIdempotencia.Reserva;
+import com.autobots.automanager.modelo.InquilinoContexto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Suporte ao cabeçalho Idempotency-Key em POST, PUT e PATCH. A primeira requisição com
+ * uma chave é executada e, se bem-sucedida, sua resposta é guardada; reenvios com a
+ * mesma chave e o mesmo conteúdo recebem a resposta guardada, com o cabeçalho
+ * Idempotent-Replayed, sem chegar aos controladores. A chave vale por inquilino. Um
+ * reenvio enquanto a primeira ainda executa recebe 409; a mesma chave com outro
+ * método, rota ou corpo recebe 422. Respostas de erro não são guardadas, para que o
+ * cliente possa tentar de novo. Uploads multipart não passam pelo filtro.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class IdempotenciaFiltro extends OncePerRequestFilter {
+
+	public static final String CABECALHO = "Idempotency-Key";
+
+	public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+	private static final Pattern FORMATO_CHAVE = Pattern.compile("[\\x21-\\x7E]{1,255}");
+
+	private static final String ATRIBUTO_ENTRADA = IdempotenciaFiltro.class.getName() + ".entrada";
+
+	private final ArmazemIdempotencia armazem;
+
+	private final MeterRegistry registro;
+
+	@Value("${automanager.idempotencia.tamanho-maximo-corpo:1MB}")
+	private DataSize tamanhoMaximoCorpo;
+
+	@Value("${automanager.idempotencia.tamanho-maximo-resposta:256KB}")
+	private DataSize tamanhoMaximoResposta;
+
+	public IdempotenciaFiltro(ArmazemIdempotencia armazem, MeterRegistry registro) {
+		this.armazem = armazem;
+		this.registro = registro;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String metodo = request.getMethod();
+		boolean escrita = HttpMethod.POST.matches(metodo) || HttpMethod.PUT.matches(metodo)
+				|| HttpMethod.PATCH.matches(metodo);
+		String tipo = request.getContentType();
+		boolean multipart = tipo != null && tipo.toLowerCase().startsWith("multipart/");
+		return !escrita || multipart || request.getHeader(CABECALHO) == null;
+	}
+
+	/** O despacho assíncrono guarda a resposta da reserva feita no despacho original. */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (isAsyncDispatch(request)) {
+			Entrada entrada = (Entrada) request.getAttribute(ATRIBUTO_ENTRADA);
+			if (entrada == null) {
+				filterChain.doFilter(request, response);
+			} else {
+				executar(request, response, filterChain, entrada);
+			}
+			return;
+		}
+
+		String chave = request.getHeader(CABECALHO);
+		if (!FORMATO_CHAVE.matcher(chave).matches()) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), "Idempotency-Key inválida");
+			return;
+		}
+		long limite = tamanhoMaximoCorpo.toBytes();
+		if (request.getContentLengthLong() > limite) {
+			response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Corpo grande demais para Idempotency-Key");
+			return;
+		}
+		byte[] corpo = request.getInputStream().readNBytes((int) Math.min(Integer.MAX_VALUE - 8, limite + 1));
+		if (corpo.length > limite) {
+			response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Corpo grande demais para Idempotency-Key");
+			return;
+		}
+
+		String inquilino = request.getHeader(InquilinoInterceptor.CABECALHO);
+		if (inquilino == null || inquilino.isBlank()) {
+			inquilino = InquilinoContexto.PADRAO;
+		}
+		Reserva reserva = armazem.reservar(inquilino + ":" + chave, impressao(request, corpo));
+		registro.counter("automanager.idempotencia.requisicoes", "situacao", reserva.getSituacao().name().toLowerCase())
+				.increment();
+		switch (reserva.getSituacao()) {
+		case CONCLUIDA:
+			repetir(response, reserva.getResposta());
+			return;
+		case EM_ANDAMENTO:
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			response.sendError(HttpStatus.CONFLICT.value(), "Requisição com esta Idempotency-Key ainda em execução");
+			return;
+		case DIVERGENTE:
+			response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+					"Idempotency-Key já usada em outra requisição");
+			return;
+		default:
+			request.setAttribute(ATRIBUTO_ENTRADA, reserva.getEntrada());
+			executar(new CorpoLido(request, corpo), new RespostaRetida(response), filterChain, reserva.getEntrada());
+		}
+	}
+
+	private void executar(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+			Entrada entrada) throws ServletException, IOException {
+		boolean concluida = false;
+		try {
+			filterChain.doFilter(request, response);
+			concluida = true;
+		} finally {
+			if (!isAsyncStarted(request)) {
+				RespostaRetida retida = WebUtils.getNativeResponse(response, RespostaRetida.class);
+				if (concluida && retida != null && guardavel(retida)) {
+					armazem.concluir(entrada, new RespostaGuardada(retida.getStatus(), retida.getContentType(),
+							retida.getHeader(HttpHeaders.LOCATION), retida.getContentAsByteArray()));
+				} else {
+					armazem.liberar(entrada);
+				}
+				if (retida != null) {
+					retida.copyBodyToResponse();
+				}
+			}
+		}
+	}
+
+	private boolean guardavel(RespostaRetida resposta) {
+		return resposta.getStatus() < 400 && resposta.getContentSize() <= tamanhoMaximoResposta.toBytes();
+	}
+
+	private static void repetir(HttpServletResponse response, RespostaGuardada resposta) throws IOException {
+		response.setStatus(resposta.getStatus());
+		response.setHeader(CABECALHO_REPETIDA, "true");
+		if (resposta.getTipoConteudo() != null) {
+			response.setContentType(resposta.getTipoConteudo());
+		}
+		if (resposta.getLocalizacao() != null) {
+			response.setHeader(HttpHeaders.LOCATION, resposta.getLocalizacao());
+		}
+		response.setContentLength(resposta.getCorpo().length);
+		response.getOutputStream().write(resposta.getCorpo());
+	}
+
+	/** SHA-256 do método, da rota e do corpo: a mesma chave só vale para o mesmo conteúdo. */
+	private static String impressao(HttpServletRequest request, byte[] corpo) {
+		try {
+			MessageDigest sha = MessageDigest.getInstance("SHA-256");
+			sha.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+			sha.update(corpo);
+			return HexFormat.of().formatHex(sha.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/** Tipo próprio para que o despacho assíncrono encontre esta resposta entre outros invólucros. */
+	private static class RespostaRetida extends ContentCachingResponseWrapper {
+		RespostaRetida(HttpServletResponse response) {
+			super(response);
+		}
+	}
+
+	/** Entrega aos controladores o corpo já lido para calcular a impressão. */
+	private static class CorpoLido extends HttpServletRequestWrapper {
+
+		private final byte[] corpo;
+
+		CorpoLido(HttpServletRequest request, byte[] corpo) {
+			super(request);
+			this.corpo = corpo;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+			return new ServletInputStream() {
+				@Override
+				public int read() throws IOException {
+					return entrada.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					return entrada.read(b, off, len);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return entrada.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				/** O corpo já está todo em memória: o ouvinte lê tudo de uma vez e é avisado do fim. */
+				@Override
+				public void setReadListener(ReadListener listener) {
+					try {
+						if (!isFinished()) {
+							listener.onDataAvailable();
+						}
+						if (isFinished()) {
+							listener.onAllDataRead();
+						}
+					} catch (IOException | RuntimeException e) {
+						listener.onError(e);
+					}
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			String codificacao = getCharacterEncoding() == null ? "UTF-8" : getCharacterEncoding();
+			return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(codificacao)));
+		}
+
+		@Override
+		public int getContentLength() {
+			return corpo.length;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return corpo.length;
+		}
+	}
+}
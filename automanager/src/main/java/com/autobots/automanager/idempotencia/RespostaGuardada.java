@@ -0,0 +1,42 @@
+package com.autobots.automanager.idempotencia;
+
+/**
+ * Resposta de uma requisição concluída, repetida quando o cliente reenvia a mesma
+ * chave de idempotência. Só os cabeçalhos que a API produz nessas rotas são guardados.
+ */
+public final class RespostaGuardada {
+
+	private final int status;
+	private final String tipoConteudo;
+	private final String localizacao;
+	private final byte[] corpo;
+
+	public RespostaGuardada(int status, String tipoConteudo, String localizacao, byte[] corpo) {
+		this.status = status;
+		this.tipoConteudo = tipoConteudo;
+		this.localizacao = localizacao;
+		this.corpo = corpo;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getTipoConteudo() {
+		return tipoConteudo;
+	}
+
+	public String getLocalizacao() {
+		return localizacao;
+	}
+
+	public byte[] getCorpo() {
+		return corpo;
+	}
+
+	/** Bytes aproximados ocupados em memória, usados no limite do armazém. */
+	long tamanho() {
+		return 64L + corpo.length + (tipoConteudo == null ? 0 : tipoConteudo.length() * 2L)
+				+ (localizacao == null ? 0 : localizacao.length() * 2L);
+	}
+}
@@ -0,0 +1,211 @@
+package com.autobots.automanager.leitura;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.entidades.Documento;
+import com.autobots.automanager.entidades.Endereco;
+import com.autobots.automanager.entidades.Telefone;
+import com.autobots.automanager.modelo.Canonicalizador;
+
+/**
+ * Cópia imutável e compacta de um agregado de cliente para o modelo de leitura em memória.
+ * Datas viram long, listas viram arrays e os valores repetidos (estado, cidade, bairro,
+ * tipo de documento, DDD) são canonicalizados para compartilhar a mesma instância.
+ */
+public final class ClienteInstantaneo {
+
+	private static final long SEM_DATA = Long.MIN_VALUE;
+
+	private static final DocumentoInstantaneo[] SEM_DOCUMENTOS = new DocumentoInstantaneo[0];
+	private static final TelefoneInstantaneo[] SEM_TELEFONES = new TelefoneInstantaneo[0];
+
+	private final long id;
+	private final String inquilino;
+	private final String nome;
+	private final String nomeSocial;
+	private final long dataNascimento;
+	private final long dataCadastro;
+	private final DocumentoInstantaneo[] documentos;
+	private final EnderecoInstantaneo endereco;
+	private final TelefoneInstantaneo[] telefones;
+
+	private ClienteInstantaneo(Cliente cliente) {
+		this.id = cliente.getId();
+		this.inquilino = Canonicalizador.canonico(cliente.getInquilino());
+		this.nome = cliente.getNome();
+		this.nomeSocial = cliente.getNomeSocial();
+		this.dataNascimento = cliente.getDataNascimento() == null ? SEM_DATA : cliente.getDataNascimento().getTime();
+		this.dataCadastro = cliente.getDataCadastro() == null ? SEM_DATA : cliente.getDataCadastro().getTime();
+
+		List<Documento> docs = cliente.getDocumentos();
+		this.documentos = docs.isEmpty() ? SEM_DOCUMENTOS : new DocumentoInstantaneo[docs.size()];
+		for (int i = 0; i < docs.size(); i++) {
+			this.documentos[i] = new DocumentoInstantaneo(docs.get(i));
+		}
+
+		this.endereco = cliente.getEndereco() == null ? null : new EnderecoInstantaneo(cliente.getEndereco());
+
+		List<Telefone> tels = cliente.getTelefones();
+		this.telefones = tels.isEmpty() ? SEM_TELEFONES : new TelefoneInstantaneo[tels.size()];
+		for (int i = 0; i < tels.size(); i++) {
+			this.telefones[i] = new TelefoneInstantaneo(tels.get(i));
+		}
+	}
+
+	public static ClienteInstantaneo de(Cliente cliente) {
+		return new ClienteInstantaneo(cliente);
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getInquilino() {
+		return inquilino;
+	}
+
+	/** Monta uma entidade desanexada com o conteúdo do instantâneo, para serialização. */
+	public Cliente paraCliente() {
+		Cliente cliente = new Cliente();
+		cliente.setId(id);
+		cliente.setInquilino(inquilino);
+		cliente.setNome(nome);
+		cliente.setNomeSocial(nomeSocial);
+		cliente.setDataNascimento(dataNascimento == SEM_DATA ? null : new Date(dataNascimento));
+		cliente.setDataCadastro(dataCadastro == SEM_DATA ? null : new Date(dataCadastro));
+		for (DocumentoInstantaneo documento : documentos) {
+			cliente.getDocumentos().add(documento.paraDocumento(inquilino));
+		}
+		cliente.setEndereco(endereco == null ? null : endereco.paraEndereco(inquilino));
+		for (TelefoneInstantaneo telefone : telefones) {
+			cliente.getTelefones().add(telefone.paraTelefone(inquilino));
+		}
+		return cliente;
+	}
+
+	/**
+	 * Estimativa do tamanho em bytes (JVM 64 bits com oops comprimidos). Textos já
+	 * contados em {@code contados} não são somados de novo, refletindo o compartilhamento.
+	 */
+	long bytesEstimados(Set<Object> contados) {
+		long total = objeto(4 * 5 + 8 * 3) + arranjo(documentos.length, 4) + arranjo(telefones.length, 4);
+		total += texto(nome, contados) + texto(nomeSocial, contados) + texto(inquilino, contados);
+		for (DocumentoInstantaneo documento : documentos) {
+			total += objeto(8 + 4 * 2) + texto(documento.tipo, contados) + texto(documento.numero, contados);
+		}
+		if (endereco != null) {
+			total += objeto(8 + 4 * 7);
+			for (String valor : endereco.valores()) {
+				total += texto(valor, contados);
+			}
+		}
+		for (TelefoneInstantaneo telefone : telefones) {
+			total += objeto(8 + 4 * 2) + texto(telefone.ddd, contados) + texto(telefone.numero, contados);
+		}
+		return total;
+	}
+
+	private static long objeto(long campos) {
+		return alinhar(12 + campos);
+	}
+
+	private static long arranjo(int tamanho, int bytesPorItem) {
+		return tamanho == 0 ? 0 : alinhar(16 + (long) tamanho * bytesPorItem);
+	}
+
+	private static long texto(String valor, Set<Object> contados) {
+		if (valor == null || !contados.add(valor)) {
+			return 0;
+		}
+		return objeto(4 + 4 + 1 + 1) + arranjo(valor.length(), 1);
+	}
+
+	private static long alinhar(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	private static final class DocumentoInstantaneo {
+		private final long id;
+		private final String tipo;
+		private final String numero;
+
+		DocumentoInstantaneo(Documento documento) {
+			this.id = documento.getId();
+			this.tipo = Canonicalizador.canonico(documento.getTipo());
+			this.numero = documento.getNumero();
+		}
+
+		Documento paraDocumento(String inquilino) {
+			Documento documento = new Documento();
+			documento.setId(id);
+			documento.setInquilino(inquilino);
+			documento.setTipo(tipo);
+			documento.setNumero(numero);
+			return documento;
+		}
+	}
+
+	private static final class EnderecoInstantaneo {
+		private final long id;
+		private final String estado;
+		private final String cidade;
+		private final String bairro;
+		private final String rua;
+		private final String numero;
+		private final String codigoPostal;
+		private final String informacoesAdicionais;
+
+		EnderecoInstantaneo(Endereco endereco) {
+			this.id = endereco.getId();
+			this.estado = Canonicalizador.canonico(endereco.getEstado());
+			this.cidade = Canonicalizador.canonico(endereco.getCidade());
+			this.bairro = Canonicalizador.canonico(endereco.getBairro());
+			this.rua = endereco.getRua();
+			this.numero = endereco.getNumero();
+			this.codigoPostal = endereco.getCodigoPostal();
+			this.informacoesAdicionais = endereco.getInformacoesAdicionais();
+		}
+
+		String[] valores() {
+			return new String[] { estado, cidade, bairro, rua, numero, codigoPostal, informacoesAdicionais };
+		}
+
+		Endereco paraEndereco(String inquilino) {
+			Endereco endereco = new Endereco();
+			endereco.setId(id);
+			endereco.setInquilino(inquilino);
+			endereco.setEstado(estado);
+			endereco.setCidade(cidade);
+			endereco.setBairro(bairro);
+			endereco.setRua(rua);
+			endereco.setNumero(numero);
+			endereco.setCodigoPostal(codigoPostal);
+			endereco.setInformacoesAdicionais(informacoesAdicionais);
+			return endereco;
+		}
+	}
+
+	private static final class TelefoneInstantaneo {
+		private final long id;
+		private final String ddd;
+		private final String numero;
+
+		TelefoneInstantaneo(Telefone telefone) {
+			this.id = telefone.getId();
+			this.ddd = Canonicalizador.canonico(telefone.getDdd());
+			this.numero = telefone.getNumero();
+		}
+
+		Telefone paraTelefone(String inquilino) {
+			Telefone telefone = new Telefone();
+			telefone.setId(id);
+			telefone.setInquilino(inquilino);
+			telefone.setDdd(ddd);
+			telefone.setNumero(numero);
+			return telefone;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.autobots.automanager.leitura;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
+import com.autobots.automanager.modelo.Canonicalizador;
+import com.autobots.automanager.repositorios.ClienteRepository;
+
+/**
+ * Modelo de leitura em memória dos agregados de cliente (opcional, ativado por
+ * automanager.leitura-memoria.habilitada).
+ *
+ * Na inicialização o modelo é montado a partir do banco, em faixas de id carregadas em
+ * paralelo. Enquanto a carga roda, os eventos de alteração ficam enfileirados e são
+ * reaplicados ao final, para não perder escritas concorrentes. Depois de pronto, cada
+ * evento substitui o instantâneo do cliente (cópia na escrita) e as leituras não usam
+ * trava nem banco.
+ *
+ * O instantâneo novo é montado do agregado que veio no evento, sem banco nem trava na
+ * thread que publicou. Dois PUTs concorrentes no mesmo cliente podem entregar seus
+ * eventos fora de ordem, deixando o mais antigo no lugar; por isso cada evento também
+ * agenda uma releitura do cliente na primária, em segundo plano. Eventos do mesmo id
+ * ainda não relidos viram uma releitura só, e as releituras do mesmo id passam por uma
+ * trava: como cada uma começa depois da gravação que a agendou, a última enxerga a
+ * versão mais recente e corrige o instantâneo em milissegundos.
+ */
+@Component
+public class ClienteMemoria {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ClienteMemoria.class);
+
+	private static final int TRAVAS = 64;
+
+	@Autowired
+	private ClienteRepository repositorio;
+	@Autowired
+	private PlatformTransactionManager transacoes;
+	@Autowired
+	@Qualifier("executorReleituras")
+	private ThreadPoolTaskExecutor executorReleituras;
+
+	@Value("${automanager.leitura-memoria.habilitada:false}")
+	private boolean habilitada;
+	@Value("${automanager.leitura-memoria.tamanho-lote:1000}")
+	private int tamanhoLote;
+
+	private final MapaLongo<ClienteInstantaneo> clientes = new MapaLongo<>();
+
+	private final List<ClienteAlteradoEvento> pendentes = new ArrayList<>();
+
+	private final Object[] travas = criarTravas();
+
+	private final Set<Long> agendados = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean pronta;
+
+	private volatile long duracaoCargaMs;
+
+	public boolean isPronta() {
+		return pronta;
+	}
+
+	/** Instantâneo do cliente, ou null se não existe para o inquilino. Só vale quando pronta. */
+	public ClienteInstantaneo buscar(long id, String inquilino) {
+		ClienteInstantaneo cliente = clientes.get(id);
+		return cliente != null && cliente.getInquilino().equals(inquilino) ? cliente : null;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void carregar() throws Exception {
+		if (!habilitada) {
+			return;
+		}
+		long inicio = System.nanoTime();
+		Long maiorId = repositorio.findMaxIdGeral();
+		long lotes = maiorId == null ? 0 : (maiorId + tamanhoLote - 1) / tamanhoLote;
+
+		ExecutorService carga = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		try {
+			List<Future<List<ClienteInstantaneo>>> partes = new ArrayList<>();
+			for (long numero = 0; numero < lotes; numero++) {
+				long de = numero * tamanhoLote + 1;
+				long ate = de + tamanhoLote - 1;
+				partes.add(carga.submit(() -> carregarFaixa(de, ate)));
+			}
+			List<ClienteInstantaneo> todos = new ArrayList<>();
+			for (Future<List<ClienteInstantaneo>> parte : partes) {
+				todos.addAll(parte.get());
+			}
+			long[] chaves = new long[todos.size()];
+			Object[] valores = new Object[todos.size()];
+			for (int i = 0; i < todos.size(); i++) {
+				chaves[i] = todos.get(i).getId();
+				valores[i] = todos.get(i);
+			}
+			clientes.carregar(chaves, valores, todos.size());
+		} finally {
+			carga.shutdown();
+		}
+
+		synchronized (pendentes) {
+			for (ClienteAlteradoEvento evento : pendentes) {
+				aplicar(evento);
+			}
+			pendentes.clear();
+			pronta = true;
+		}
+		duracaoCargaMs = (System.nanoTime() - inicio) / 1_000_000;
+		LOG.info("Modelo de leitura em memória carregado: {} clientes em {} ms", clientes.size(), duracaoCargaMs);
+	}
+
+	private List<ClienteInstantaneo> carregarFaixa(long de, long ate) {
+		TransactionTemplate leitura = new TransactionTemplate(transacoes);
+		leitura.setReadOnly(true);
+		return leitura.execute(status -> {
+			List<Cliente> faixa = repositorio.findFaixaGeral(de, ate);
+			List<ClienteInstantaneo> instantaneos = new ArrayList<>(faixa.size());
+			if (!faixa.isEmpty()) {
+				repositorio.carregarDocumentos(faixa);
+				repositorio.carregarTelefones(faixa);
+				for (Cliente cliente : faixa) {
+					instantaneos.add(ClienteInstantaneo.de(cliente));
+				}
+			}
+			return instantaneos;
+		});
+	}
+
+	/** Roda antes dos demais ouvintes: quem invalida caches já encontra o instantâneo novo. */
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void alterado(ClienteAlteradoEvento evento) {
+		if (!habilitada) {
+			return;
+		}
+		if (!pronta) {
+			synchronized (pendentes) {
+				if (!pronta) {
+					pendentes.add(evento);
+					return;
+				}
+			}
+		}
+		aplicar(evento);
+	}
+
+	private void aplicar(ClienteAlteradoEvento evento) {
+		long id = evento.getClienteId();
+		if (evento.getCliente() == null) {
+			clientes.remove(id);
+		} else {
+			clientes.put(id, ClienteInstantaneo.de(evento.getCliente()));
+		}
+		if (agendados.add(id)) {
+			executorReleituras.execute(() -> reler(id));
+		}
+	}
+
+	private void reler(long id) {
+		agendados.remove(id);
+		synchronized (travas[(int) (id & (TRAVAS - 1))]) {
+			ClienteInstantaneo atual = recarregar(id);
+			if (atual == null) {
+				clientes.remove(id);
+			} else {
+				clientes.put(id, atual);
+			}
+		}
+	}
+
+	private static Object[] criarTravas() {
+		Object[] travas = new Object[TRAVAS];
+		for (int i = 0; i < TRAVAS; i++) {
+			travas[i] = new Object();
+		}
+		return travas;
+	}
+
+	/** Transação de escrita: o roteador a manda para a primária, nunca para a réplica. */
+	private ClienteInstantaneo recarregar(long id) {
+		return new TransactionTemplate(transacoes).execute(status -> {
+			List<Cliente> encontrado = repositorio.findFaixaGeral(id, id);
+			if (encontrado.isEmpty()) {
+				return null;
+			}
+			repositorio.carregarDocumentos(encontrado);
+			repositorio.carregarTelefones(encontrado);
+			return ClienteInstantaneo.de(encontrado.get(0));
+		});
+	}
+
+	/** Medição do consumo de memória do modelo, exposta pelo endpoint leituramemoria do actuator. */
+	public Map<String, Object> medir() {
+		Map<String, Object> medicao = new LinkedHashMap<>();
+		medicao.put("habilitada", habilitada);
+		medicao.put("pronta", pronta);
+		medicao.put("duracaoCargaMs", duracaoCargaMs);
+		medicao.put("valoresCanonicos", Canonicalizador.tamanho());
+		medicao.put("reaproveitamentosCanonicos", Canonicalizador.acertos());
+		if (pronta) {
+			Set<Object> contados = Collections.newSetFromMap(new IdentityHashMap<>());
+			long[] bytes = { clientes.bytesEstrutura() };
+			clientes.paraCada((id, cliente) -> bytes[0] += cliente.bytesEstimados(contados));
+			int quantidade = clientes.size();
+			medicao.put("clientes", quantidade);
+			medicao.put("bytesEstimados", bytes[0]);
+			medicao.put("bytesPorCliente", quantidade == 0 ? 0 : bytes[0] / quantidade);
+		}
+		return medicao;
+	}
+}
@@ -0,0 +1,23 @@
+package com.autobots.automanager.leitura;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "leituramemoria")
+public class ClienteMemoriaEndpoint {
+
+	private final ClienteMemoria memoria;
+
+	public ClienteMemoriaEndpoint(ClienteMemoria memoria) {
+		this.memoria = memoria;
+	}
+
+	@ReadOperation
+	public Map<String, Object> medir() {
+		return memoria.medir();
+	}
+}
@@ -0,0 +1,151 @@
+package com.autobots.automanager.leitura;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Carga única (single-flight) das respostas de GET /cliente/{id}. Requisições
+ * simultâneas do mesmo cliente esperam a mesma carga e recebem os mesmos bytes já
+ * serializados; terminada a carga, o resultado ainda é reaproveitado pela validade
+ * configurada.
+ *
+ * As cargas ficam agrupadas por inquilino e id e, dentro do grupo, pela URL base da
+ * requisição (os links HATEOAS dependem dela). Uma alteração do cliente descarta o
+ * grupo inteiro: quem chegar depois inicia uma carga nova, e uma carga iniciada antes
+ * da alteração termina no grupo descartado, sem voltar a ser compartilhada. Nenhuma
+ * operação trava: tudo é feito com putIfAbsent e remove condicional.
+ */
+@Component
+public class CoalescedorClientes {
+
+	private final Map<String, Map<String, Voo>> grupos = new ConcurrentHashMap<>();
+
+	private final Counter carregadas;
+
+	private final Counter compartilhadas;
+
+	private final Counter reaproveitadas;
+
+	@Value("${automanager.coalescencia.habilitada:true}")
+	private boolean habilitada;
+
+	@Value("${automanager.coalescencia.validade:1s}")
+	private Duration validade;
+
+	@Value("${automanager.coalescencia.max-clientes:10000}")
+	private int maxClientes;
+
+	public CoalescedorClientes(MeterRegistry registro) {
+		this.carregadas = registro.counter("automanager.coalescencia.requisicoes", "resultado", "carregada");
+		this.compartilhadas = registro.counter("automanager.coalescencia.requisicoes", "resultado", "compartilhada");
+		this.reaproveitadas = registro.counter("automanager.coalescencia.requisicoes", "resultado", "reaproveitada");
+		Gauge.builder("automanager.coalescencia.clientes", grupos, Map::size).register(registro);
+	}
+
+	/**
+	 * Corpo serializado do cliente, ou null se ele não existe para o inquilino. A carga
+	 * só é executada se não houver outra em andamento ou ainda válida para a mesma chave.
+	 */
+	public byte[] obter(String inquilino, long id, String base, Supplier<byte[]> carga) {
+		if (!habilitada) {
+			return carga.get();
+		}
+		String chave = inquilino + ":" + id;
+		while (true) {
+			Map<String, Voo> grupo = grupos.computeIfAbsent(chave, k -> new ConcurrentHashMap<>());
+			Voo atual = grupo.get(base);
+			if (atual != null) {
+				if (!atual.vencido(System.nanoTime())) {
+					(atual.resultado.isDone() ? reaproveitadas : compartilhadas).increment();
+					return atual.aguardar();
+				}
+				grupo.remove(base, atual);
+				continue;
+			}
+			Voo novo = new Voo();
+			if (grupo.putIfAbsent(base, novo) != null) {
+				continue;
+			}
+			carregadas.increment();
+			return carregar(grupo, base, novo, carga);
+		}
+	}
+
+	@EventListener
+	public void aoAlterar(ClienteAlteradoEvento evento) {
+		grupos.remove(evento.getInquilino() + ":" + evento.getClienteId());
+	}
+
+	/** Descarta os resultados vencidos e os grupos que ficaram vazios. */
+	@Scheduled(fixedDelayString = "${automanager.coalescencia.limpeza-ms:5000}")
+	public void limpar() {
+		long agora = System.nanoTime();
+		grupos.forEach((chave, grupo) -> {
+			grupo.forEach((base, voo) -> {
+				if (voo.vencido(agora)) {
+					grupo.remove(base, voo);
+				}
+			});
+			if (grupo.isEmpty()) {
+				grupos.remove(chave, grupo);
+			}
+		});
+	}
+
+	private byte[] carregar(Map<String, Voo> grupo, String base, Voo voo, Supplier<byte[]> carga) {
+		byte[] corpo;
+		try {
+			corpo = carga.get();
+		} catch (RuntimeException | Error e) {
+			// quem esperava recebe o mesmo erro; a próxima requisição tenta de novo
+			grupo.remove(base, voo);
+			voo.resultado.completeExceptionally(e);
+			throw e;
+		}
+		voo.concluidoEm = System.nanoTime();
+		voo.resultado.complete(corpo);
+		// acima do limite de clientes guardados, só as cargas simultâneas são compartilhadas
+		if (grupos.size() > maxClientes) {
+			grupo.remove(base, voo);
+		}
+		return corpo;
+	}
+
+	private final class Voo {
+		private final CompletableFuture<byte[]> resultado = new CompletableFuture<>();
+		private volatile long concluidoEm;
+
+		boolean vencido(long agora) {
+			return resultado.isDone() && agora - concluidoEm >= validade.toNanos();
+		}
+
+		byte[] aguardar() {
+			try {
+				return resultado.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw e;
+			}
+		}
+	}
+}
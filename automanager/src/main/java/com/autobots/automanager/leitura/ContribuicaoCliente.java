@@ -0,0 +1,89 @@
+package com.autobots.automanager.leitura;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Objects;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.entidades.Endereco;
+
+/**
+ * O que um cliente soma às estatísticas: a localidade do endereço e as datas de
+ * nascimento e de cadastro (em UTC, como na importação CSV). Guardada por id para que
+ * uma atualização ou exclusão desconte exatamente o que o cliente tinha somado.
+ */
+public final class ContribuicaoCliente {
+
+	private final long id;
+	private final String inquilino;
+	private final String estado;
+	private final String cidade;
+	private final LocalDate nascimento;
+	private final LocalDate cadastro;
+
+	/** Usado pela consulta de reconciliação (select new). */
+	public ContribuicaoCliente(Long id, String inquilino, String estado, String cidade, Date nascimento, Date cadastro) {
+		this.id = id;
+		this.inquilino = inquilino;
+		this.estado = estado;
+		this.cidade = cidade;
+		this.nascimento = dia(nascimento);
+		this.cadastro = dia(cadastro);
+	}
+
+	public static ContribuicaoCliente de(Cliente cliente) {
+		Endereco endereco = cliente.getEndereco();
+		return new ContribuicaoCliente(cliente.getId(), cliente.getInquilino(),
+				endereco == null ? null : endereco.getEstado(), endereco == null ? null : endereco.getCidade(),
+				cliente.getDataNascimento(), cliente.getDataCadastro());
+	}
+
+	private static LocalDate dia(Date data) {
+		return data == null ? null : Instant.ofEpochMilli(data.getTime()).atOffset(ZoneOffset.UTC).toLocalDate();
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getInquilino() {
+		return inquilino;
+	}
+
+	public String getEstado() {
+		return estado;
+	}
+
+	public String getCidade() {
+		return cidade;
+	}
+
+	public LocalDate getNascimento() {
+		return nascimento;
+	}
+
+	public LocalDate getCadastro() {
+		return cadastro;
+	}
+
+	@Override
+	public boolean equals(Object outro) {
+		if (this == outro) {
+			return true;
+		}
+		if (!(outro instanceof ContribuicaoCliente)) {
+			return false;
+		}
+		ContribuicaoCliente contribuicao = (ContribuicaoCliente) outro;
+		return id == contribuicao.id && Objects.equals(inquilino, contribuicao.inquilino)
+				&& Objects.equals(estado, contribuicao.estado) && Objects.equals(cidade, contribuicao.cidade)
+				&& Objects.equals(nascimento, contribuicao.nascimento) && Objects.equals(cadastro, contribuicao.cadastro);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, inquilino, estado, cidade, nascimento, cadastro);
+	}
+}
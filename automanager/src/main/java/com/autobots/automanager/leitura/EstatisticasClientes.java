@@ -0,0 +1,294 @@
+package com.autobots.automanager.leitura;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
+import com.autobots.automanager.repositorios.ClienteRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Estatísticas dos clientes por inquilino (estado e cidade do endereço, datas de
+ * nascimento e de cadastro), mantidas em contadores LongAdder e atualizadas a cada
+ * evento de alteração: a contribuição anterior do cliente é descontada e a nova é
+ * somada. As faixas etárias são calculadas na consulta, a partir das contagens por
+ * data de nascimento, e por isso nunca envelhecem.
+ *
+ * Uma reconciliação periódica relê do banco a contribuição de todos os clientes e
+ * troca os contadores pelos recalculados. Os clientes alterados durante a releitura
+ * mantêm o valor dos eventos, que é mais novo que o lido. As diferenças encontradas
+ * (escritas que não publicaram evento) ficam na métrica automanager.estatisticas.divergencias.
+ */
+@Component
+public class EstatisticasClientes {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EstatisticasClientes.class);
+
+	public static final String NAO_INFORMADO = "não informado";
+
+	private static final int[] INICIO_FAIXAS = { 0, 18, 25, 35, 45, 55, 65 };
+
+	private static final String[] NOME_FAIXAS = { "0-17", "18-24", "25-34", "35-44", "45-54", "55-64", "65+" };
+
+	private final ClienteRepository repositorio;
+
+	private final TaskExecutor executor;
+
+	/** Eventos aplicam sob a trava de leitura; a troca da reconciliação, sob a de escrita. */
+	private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+	private final AtomicBoolean reconciliando = new AtomicBoolean();
+
+	private final AtomicLong divergencias = new AtomicLong();
+
+	private volatile Estado estado = new Estado();
+
+	/** Ids alterados por eventos enquanto uma reconciliação lê o banco; null fora dela. */
+	private volatile Set<Long> alteradosNaReconciliacao;
+
+	private volatile Instant reconciliadoEm;
+
+	@Value("${automanager.estatisticas.tamanho-lote:1000}")
+	private int tamanhoLote;
+
+	public EstatisticasClientes(ClienteRepository repositorio, @Qualifier("executorTarefas") TaskExecutor executor,
+			MeterRegistry registro) {
+		this.repositorio = repositorio;
+		this.executor = executor;
+		Gauge.builder("automanager.estatisticas.divergencias", divergencias, AtomicLong::get).register(registro);
+		Gauge.builder("automanager.estatisticas.clientes", this, estatisticas -> estatisticas.estado.contribuicoes.size())
+				.register(registro);
+	}
+
+	@EventListener
+	public void aoAlterar(ClienteAlteradoEvento evento) {
+		trava.readLock().lock();
+		try {
+			Set<Long> alterados = alteradosNaReconciliacao;
+			if (alterados != null) {
+				alterados.add(evento.getClienteId());
+			}
+			ContribuicaoCliente nova = evento.getOperacao() == ClienteAlteradoEvento.Operacao.REMOVIDO ? null
+					: ContribuicaoCliente.de(evento.getCliente());
+			estado.substituir(evento.getClienteId(), nova);
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	/** Carga inicial, depois dos runners de inicialização (que gravam sem publicar eventos). */
+	@EventListener(ApplicationReadyEvent.class)
+	public void carregar() {
+		agendarReconciliacao();
+	}
+
+	@Scheduled(initialDelayString = "${automanager.estatisticas.reconciliacao-ms:600000}",
+			fixedDelayString = "${automanager.estatisticas.reconciliacao-ms:600000}")
+	public void agendarReconciliacao() {
+		if (reconciliando.compareAndSet(false, true)) {
+			try {
+				executor.execute(() -> {
+					try {
+						reconciliar();
+					} catch (RuntimeException e) {
+						LOG.error("Falha na reconciliação das estatísticas", e);
+					} finally {
+						reconciliando.set(false);
+					}
+				});
+			} catch (RuntimeException e) {
+				reconciliando.set(false);
+				LOG.warn("Reconciliação das estatísticas adiada: {}", e.getMessage());
+			}
+		}
+	}
+
+	void reconciliar() {
+		long inicio = System.nanoTime();
+		Set<Long> alterados = ConcurrentHashMap.newKeySet();
+		trava.writeLock().lock();
+		try {
+			alteradosNaReconciliacao = alterados;
+		} finally {
+			trava.writeLock().unlock();
+		}
+
+		Estado recalculado = new Estado();
+		try {
+			long apos = 0;
+			while (true) {
+				List<ContribuicaoCliente> lote = repositorio.findContribuicoes(apos, PageRequest.of(0, tamanhoLote));
+				for (ContribuicaoCliente contribuicao : lote) {
+					recalculado.substituir(contribuicao.getId(), contribuicao);
+				}
+				if (lote.size() < tamanhoLote) {
+					break;
+				}
+				apos = lote.get(lote.size() - 1).getId();
+			}
+		} catch (RuntimeException e) {
+			alteradosNaReconciliacao = null;
+			throw e;
+		}
+
+		Estado atual = estado;
+		long diferentes = reconciliadoEm == null ? 0 : contarDiferentes(atual, recalculado, alterados);
+
+		trava.writeLock().lock();
+		try {
+			for (Long id : alterados) {
+				recalculado.substituir(id, atual.contribuicoes.get(id));
+			}
+			estado = recalculado;
+			alteradosNaReconciliacao = null;
+		} finally {
+			trava.writeLock().unlock();
+		}
+		divergencias.set(diferentes);
+		reconciliadoEm = Instant.now();
+		long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+		if (diferentes > 0) {
+			LOG.warn("Estatísticas reconciliadas em {} ms: {} clientes divergiam do banco", duracaoMs, diferentes);
+		} else {
+			LOG.info("Estatísticas reconciliadas em {} ms ({} clientes)", duracaoMs, recalculado.contribuicoes.size());
+		}
+	}
+
+	/** Clientes em que os contadores vivos e o banco discordam, fora os alterados durante a releitura. */
+	private static long contarDiferentes(Estado atual, Estado recalculado, Set<Long> alterados) {
+		long diferentes = 0;
+		for (ContribuicaoCliente lida : recalculado.contribuicoes.values()) {
+			if (!alterados.contains(lida.getId()) && !lida.equals(atual.contribuicoes.get(lida.getId()))) {
+				diferentes++;
+			}
+		}
+		for (Long id : atual.contribuicoes.keySet()) {
+			if (!alterados.contains(id) && !recalculado.contribuicoes.containsKey(id)) {
+				diferentes++;
+			}
+		}
+		return diferentes;
+	}
+
+	/** Relatório do inquilino, com os cadastros por dia entre de e ate (inclusive). */
+	public RelatorioEstatisticas relatorio(String inquilino, LocalDate de, LocalDate ate) {
+		Contadores contadores = estado.porInquilino.get(inquilino);
+		RelatorioEstatisticas relatorio = new RelatorioEstatisticas(reconciliadoEm, divergencias.get());
+		Map<String, Long> faixas = new LinkedHashMap<>();
+		for (String faixa : NOME_FAIXAS) {
+			faixas.put(faixa, 0L);
+		}
+		faixas.put(NAO_INFORMADO, 0L);
+		Map<LocalDate, Long> cadastros = new LinkedHashMap<>();
+		for (LocalDate dia = de; !dia.isAfter(ate); dia = dia.plusDays(1)) {
+			cadastros.put(dia, 0L);
+		}
+		relatorio.setFaixasEtarias(faixas);
+		relatorio.setCadastrosPorDia(cadastros);
+		if (contadores == null) {
+			return relatorio;
+		}
+
+		relatorio.setTotal(contadores.total.sum());
+		Map<String, Long> porEstado = new TreeMap<>();
+		Map<String, Map<String, Long>> porCidade = new TreeMap<>();
+		contadores.cidades.forEach((uf, cidades) -> cidades.forEach((cidade, contador) -> {
+			long quantidade = contador.sum();
+			if (quantidade > 0) {
+				porEstado.merge(uf, quantidade, Long::sum);
+				porCidade.computeIfAbsent(uf, chave -> new TreeMap<>()).put(cidade, quantidade);
+			}
+		}));
+		relatorio.setPorEstado(porEstado);
+		relatorio.setPorCidade(porCidade);
+
+		LocalDate hoje = LocalDate.now(ZoneOffset.UTC);
+		contadores.nascimentos.forEach((nascimento, contador) -> {
+			long quantidade = contador.sum();
+			if (quantidade > 0) {
+				faixas.merge(faixa(nascimento, hoje), quantidade, Long::sum);
+			}
+		});
+		faixas.merge(NAO_INFORMADO, contadores.semNascimento.sum(), Long::sum);
+		cadastros.replaceAll((dia, zero) -> {
+			LongAdder contador = contadores.cadastros.get(dia);
+			return contador == null ? 0L : contador.sum();
+		});
+		return relatorio;
+	}
+
+	private static String faixa(LocalDate nascimento, LocalDate hoje) {
+		int idade = Period.between(nascimento, hoje).getYears();
+		for (int i = INICIO_FAIXAS.length - 1; i > 0; i--) {
+			if (idade >= INICIO_FAIXAS[i]) {
+				return NOME_FAIXAS[i];
+			}
+		}
+		return NOME_FAIXAS[0];
+	}
+
+	private static final class Estado {
+		private final Map<Long, ContribuicaoCliente> contribuicoes = new ConcurrentHashMap<>();
+		private final Map<String, Contadores> porInquilino = new ConcurrentHashMap<>();
+
+		/** Troca a contribuição do cliente (null remove), descontando a anterior. */
+		void substituir(long id, ContribuicaoCliente nova) {
+			ContribuicaoCliente anterior = nova == null ? contribuicoes.remove(id) : contribuicoes.put(id, nova);
+			if (anterior != null) {
+				porInquilino.computeIfAbsent(anterior.getInquilino(), chave -> new Contadores()).somar(anterior, -1);
+			}
+			if (nova != null) {
+				porInquilino.computeIfAbsent(nova.getInquilino(), chave -> new Contadores()).somar(nova, 1);
+			}
+		}
+	}
+
+	private static final class Contadores {
+		private final LongAdder total = new LongAdder();
+		private final Map<String, Map<String, LongAdder>> cidades = new ConcurrentHashMap<>();
+		private final Map<LocalDate, LongAdder> nascimentos = new ConcurrentHashMap<>();
+		private final LongAdder semNascimento = new LongAdder();
+		private final Map<LocalDate, LongAdder> cadastros = new ConcurrentHashMap<>();
+
+		void somar(ContribuicaoCliente contribuicao, int sinal) {
+			total.add(sinal);
+			String estado = contribuicao.getEstado() == null ? NAO_INFORMADO : contribuicao.getEstado();
+			String cidade = contribuicao.getCidade() == null ? NAO_INFORMADO : contribuicao.getCidade();
+			cidades.computeIfAbsent(estado, chave -> new ConcurrentHashMap<>())
+					.computeIfAbsent(cidade, chave -> new LongAdder()).add(sinal);
+			if (contribuicao.getNascimento() == null) {
+				semNascimento.add(sinal);
+			} else {
+				nascimentos.computeIfAbsent(contribuicao.getNascimento(), chave -> new LongAdder()).add(sinal);
+			}
+			if (contribuicao.getCadastro() != null) {
+				cadastros.computeIfAbsent(contribuicao.getCadastro(), chave -> new LongAdder()).add(sinal);
+			}
+		}
+	}
+}
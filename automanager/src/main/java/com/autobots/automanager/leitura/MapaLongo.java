@@ -0,0 +1,174 @@
+package com.autobots.automanager.leitura;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Mapa de chave long para valores imutáveis, sem boxing das chaves.
+ *
+ * As entradas ficam espalhadas em segmentos; cada segmento é uma tabela imutável de
+ * endereçamento aberto (long[] de chaves e Object[] de valores). Leituras não usam trava:
+ * pegam a referência atual do segmento e procuram nela. Escritas copiam apenas o segmento
+ * afetado e trocam a referência (cópia na escrita), serializadas pelo monitor do mapa.
+ */
+public final class MapaLongo<V> {
+
+	private static final int SEGMENTOS = 1024;
+
+	private static final long LIVRE = Long.MIN_VALUE;
+
+	private final AtomicReferenceArray<Segmento> segmentos = new AtomicReferenceArray<>(SEGMENTOS);
+
+	public MapaLongo() {
+		for (int i = 0; i < SEGMENTOS; i++) {
+			segmentos.set(i, Segmento.VAZIO);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(long chave) {
+		return (V) segmentos.get(indice(chave)).buscar(chave);
+	}
+
+	public synchronized void put(long chave, V valor) {
+		int indice = indice(chave);
+		segmentos.set(indice, segmentos.get(indice).com(chave, valor));
+	}
+
+	public synchronized void remove(long chave) {
+		int indice = indice(chave);
+		segmentos.set(indice, segmentos.get(indice).sem(chave));
+	}
+
+	/** Substitui todo o conteúdo pelas entradas informadas, montando cada segmento uma única vez. */
+	public synchronized void carregar(long[] chaves, Object[] valores, int quantidade) {
+		List<List<Integer>> porSegmento = new ArrayList<>(SEGMENTOS);
+		for (int i = 0; i < SEGMENTOS; i++) {
+			porSegmento.add(new ArrayList<>());
+		}
+		for (int i = 0; i < quantidade; i++) {
+			porSegmento.get(indice(chaves[i])).add(i);
+		}
+		for (int s = 0; s < SEGMENTOS; s++) {
+			List<Integer> posicoes = porSegmento.get(s);
+			Segmento segmento = new Segmento(posicoes.size());
+			for (int posicao : posicoes) {
+				segmento.inserir(chaves[posicao], valores[posicao]);
+			}
+			segmentos.set(s, segmento);
+		}
+	}
+
+	public int size() {
+		int total = 0;
+		for (int i = 0; i < SEGMENTOS; i++) {
+			total += segmentos.get(i).tamanho;
+		}
+		return total;
+	}
+
+	@SuppressWarnings("unchecked")
+	public void paraCada(BiConsumer<Long, V> acao) {
+		for (int i = 0; i < SEGMENTOS; i++) {
+			Segmento segmento = segmentos.get(i);
+			for (int p = 0; p < segmento.chaves.length; p++) {
+				if (segmento.chaves[p] != LIVRE) {
+					acao.accept(segmento.chaves[p], (V) segmento.valores[p]);
+				}
+			}
+		}
+	}
+
+	/** Bytes ocupados pela estrutura do mapa (arrays dos segmentos), sem contar os valores. */
+	public long bytesEstrutura() {
+		long total = 16L + 4L * SEGMENTOS;
+		for (int i = 0; i < SEGMENTOS; i++) {
+			Segmento segmento = segmentos.get(i);
+			total += 24 + 16 + 8L * segmento.chaves.length + 16 + 4L * segmento.valores.length;
+		}
+		return total;
+	}
+
+	private static int indice(long chave) {
+		long h = chave * 0x9E3779B97F4A7C15L;
+		return (int) (h >>> 54) & (SEGMENTOS - 1);
+	}
+
+	private static final class Segmento {
+
+		static final Segmento VAZIO = new Segmento(0);
+
+		final long[] chaves;
+		final Object[] valores;
+		int tamanho;
+
+		Segmento(int capacidadeMinima) {
+			int capacidade = 2;
+			while (capacidade < capacidadeMinima * 2) {
+				capacidade <<= 1;
+			}
+			chaves = new long[capacidade];
+			valores = new Object[capacidade];
+			Arrays.fill(chaves, LIVRE);
+		}
+
+		Object buscar(long chave) {
+			int mascara = chaves.length - 1;
+			for (int p = posicao(chave, mascara);; p = (p + 1) & mascara) {
+				long atual = chaves[p];
+				if (atual == chave) {
+					return valores[p];
+				}
+				if (atual == LIVRE) {
+					return null;
+				}
+			}
+		}
+
+		/** Só usado durante a montagem de um segmento novo, antes de publicá-lo. */
+		void inserir(long chave, Object valor) {
+			int mascara = chaves.length - 1;
+			int p = posicao(chave, mascara);
+			while (chaves[p] != LIVRE && chaves[p] != chave) {
+				p = (p + 1) & mascara;
+			}
+			if (chaves[p] == LIVRE) {
+				tamanho++;
+			}
+			chaves[p] = chave;
+			valores[p] = valor;
+		}
+
+		Segmento com(long chave, Object valor) {
+			Segmento novo = new Segmento(tamanho + 1);
+			copiarPara(novo, chave);
+			novo.inserir(chave, valor);
+			return novo;
+		}
+
+		Segmento sem(long chave) {
+			if (buscar(chave) == null) {
+				return this;
+			}
+			Segmento novo = new Segmento(tamanho - 1);
+			copiarPara(novo, chave);
+			return novo;
+		}
+
+		private void copiarPara(Segmento novo, long ignorada) {
+			for (int p = 0; p < chaves.length; p++) {
+				if (chaves[p] != LIVRE && chaves[p] != ignorada) {
+					novo.inserir(chaves[p], valores[p]);
+				}
+			}
+		}
+
+		private static int posicao(long chave, int mascara) {
+			long h = chave * 0xC2B2AE3D27D4EB4FL;
+			return (int) (h ^ (h >>> 32)) & mascara;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.autobots.automanager.leitura;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Resposta de GET /estatisticas: contagens do inquilino no momento da consulta e a
+ * situação da última reconciliação com o banco.
+ */
+public class RelatorioEstatisticas {
+
+	private long total;
+	private Map<String, Long> porEstado = Map.of();
+	private Map<String, Map<String, Long>> porCidade = Map.of();
+	private Map<String, Long> faixasEtarias = Map.of();
+	private Map<LocalDate, Long> cadastrosPorDia = Map.of();
+	private final Instant reconciliadoEm;
+	private final long divergencias;
+
+	public RelatorioEstatisticas(Instant reconciliadoEm, long divergencias) {
+		this.reconciliadoEm = reconciliadoEm;
+		this.divergencias = divergencias;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	public Map<String, Long> getPorEstado() {
+		return porEstado;
+	}
+
+	public void setPorEstado(Map<String, Long> porEstado) {
+		this.porEstado = porEstado;
+	}
+
+	public Map<String, Map<String, Long>> getPorCidade() {
+		return porCidade;
+	}
+
+	public void setPorCidade(Map<String, Map<String, Long>> porCidade) {
+		this.porCidade = porCidade;
+	}
+
+	public Map<String, Long> getFaixasEtarias() {
+		return faixasEtarias;
+	}
+
+	public void setFaixasEtarias(Map<String, Long> faixasEtarias) {
+		this.faixasEtarias = faixasEtarias;
+	}
+
+	public Map<LocalDate, Long> getCadastrosPorDia() {
+		return cadastrosPorDia;
+	}
+
+	public void setCadastrosPorDia(Map<LocalDate, Long> cadastrosPorDia) {
+		this.cadastrosPorDia = cadastrosPorDia;
+	}
+
+	public Instant getReconciliadoEm() {
+		return reconciliadoEm;
+	}
+
+	/** Clientes que a última reconciliação encontrou diferentes do que os eventos tinham somado. */
+	public long getDivergencias() {
+		return divergencias;
+	}
+}
@@ -0,0 +1,47 @@
+package com.autobots.automanager.modelo;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dicionário de valores repetidos (estado, cidade, tipo de documento...). Devolve sempre
+ * a mesma instância para textos iguais, de modo que milhões de registros compartilhem
+ * uma única cópia de cada valor. O dicionário é limitado; acima do limite o valor é
+ * devolvido sem canonicalização.
+ */
+public final class Canonicalizador {
+
+	private static final int LIMITE = 100_000;
+
+	private static final ConcurrentHashMap<String, String> VALORES = new ConcurrentHashMap<>();
+
+	private static final LongAdder ACERTOS = new LongAdder();
+
+	private Canonicalizador() {
+	}
+
+	public static String canonico(String valor) {
+		if (valor == null) {
+			return null;
+		}
+		String existente = VALORES.get(valor);
+		if (existente != null) {
+			ACERTOS.increment();
+			return existente;
+		}
+		if (VALORES.size() >= LIMITE) {
+			return valor;
+		}
+		existente = VALORES.putIfAbsent(valor, valor);
+		return existente == null ? valor : existente;
+	}
+
+	public static int tamanho() {
+		return VALORES.size();
+	}
+
+	/** Quantas vezes um valor já existente foi reaproveitado em vez de mantido como cópia. */
+	public static long acertos() {
+		return ACERTOS.sum();
+	}
+}
@@ -1,11 +1,12 @@
 package com.autobots.automanager.modelo;
 
 import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.perfil.EventoOperacao;
 
 
 public class ClienteAtualizador {
 
-	private StringVerificadorNulo verificador = new StringVerificadorNulo();
+	private StringVerificadorNulo verificador = StringVerificadorNulo.COMPARTILHADO;
 
 	private EnderecoAtualizador enderecoAtualizador = new EnderecoAtualizador();
 
@@ -36,10 +37,14 @@ public class ClienteAtualizador {
 
 	public void atualizar(Cliente cliente, Cliente atualizacao) {
 
+		EventoOperacao evento = new EventoOperacao(EventoOperacao.ATUALIZADOR, "ClienteAtualizador.atualizar",
+				InquilinoContexto.getInquilino());
+		evento.begin();
 		atualizarDados(cliente, atualizacao);
 		enderecoAtualizador.atualizar(cliente.getEndereco(), atualizacao.getEndereco());
 		documentoAtualizador.atualizar(cliente.getDocumentos(), atualizacao.getDocumentos());
 		telefoneAtualizador.atualizar(cliente.getTelefones(), atualizacao.getTelefones());
+		evento.commit();
 
 	}
 	
@@ -0,0 +1,192 @@
+package com.autobots.automanager.modelo;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.entidades.Documento;
+import com.autobots.automanager.entidades.Endereco;
+import com.autobots.automanager.entidades.Telefone;
+import com.autobots.automanager.entrada.ClienteEntrada;
+import com.autobots.automanager.entrada.DocumentoEntrada;
+import com.autobots.automanager.entrada.EnderecoEntrada;
+import com.autobots.automanager.entrada.TelefoneEntrada;
+
+/**
+ * Formato CSV (RFC 4180) de um agregado de cliente: uma linha por cliente, com
+ * documentos e telefones na mesma linha como listas "tipo:numero|tipo:numero"
+ * e "ddd:numero|ddd:numero". Datas em ISO-8601.
+ */
+public class ClienteCsv {
+
+	public static final String CABECALHO = "id,nome,nomeSocial,dataNascimento,dataCadastro,documentos,"
+			+ "estado,cidade,bairro,rua,numero,codigoPostal,informacoesAdicionais,telefones";
+
+	private static final int COLUNAS = 14;
+
+	public String escrever(Cliente cliente) {
+		StringBuilder linha = new StringBuilder(256);
+		campo(linha, cliente.getId() == null ? null : cliente.getId().toString());
+		campo(linha, cliente.getNome());
+		campo(linha, cliente.getNomeSocial());
+		campo(linha, data(cliente.getDataNascimento()));
+		campo(linha, data(cliente.getDataCadastro()));
+
+		StringBuilder documentos = new StringBuilder();
+		for (Documento documento : cliente.getDocumentos()) {
+			if (documentos.length() > 0) {
+				documentos.append('|');
+			}
+			documentos.append(documento.getTipo()).append(':').append(documento.getNumero());
+		}
+		campo(linha, documentos.toString());
+
+		Endereco endereco = cliente.getEndereco();
+		campo(linha, endereco == null ? null : endereco.getEstado());
+		campo(linha, endereco == null ? null : endereco.getCidade());
+		campo(linha, endereco == null ? null : endereco.getBairro());
+		campo(linha, endereco == null ? null : endereco.getRua());
+		campo(linha, endereco == null ? null : endereco.getNumero());
+		campo(linha, endereco == null ? null : endereco.getCodigoPostal());
+		campo(linha, endereco == null ? null : endereco.getInformacoesAdicionais());
+
+		StringBuilder telefones = new StringBuilder();
+		for (Telefone telefone : cliente.getTelefones()) {
+			if (telefones.length() > 0) {
+				telefones.append('|');
+			}
+			telefones.append(telefone.getDdd()).append(':').append(telefone.getNumero());
+		}
+		campo(linha, telefones.toString());
+
+		linha.setLength(linha.length() - 1);
+		return linha.append('\n').toString();
+	}
+
+	/**
+	 * Converte uma linha CSV na mesma entrada que POST /cliente recebe (sem id), para que
+	 * passe pelo ValidadorCliente. Lança IllegalArgumentException quando a linha não tem o
+	 * número de colunas esperado ou uma data é inválida.
+	 */
+	public ClienteEntrada ler(String linha) {
+		List<String> campos = separar(linha);
+		if (campos.size() != COLUNAS) {
+			throw new IllegalArgumentException("Esperadas " + COLUNAS + " colunas, encontradas " + campos.size());
+		}
+
+		ClienteEntrada cliente = new ClienteEntrada();
+		cliente.setNome(campos.get(1));
+		cliente.setNomeSocial(campos.get(2));
+		cliente.setDataNascimento(lerData(campos.get(3)));
+		cliente.setDataCadastro(lerData(campos.get(4)));
+
+		List<DocumentoEntrada> documentos = new ArrayList<>();
+		for (String par : pares(campos.get(5))) {
+			DocumentoEntrada documento = new DocumentoEntrada();
+			documento.setTipo(par.substring(0, par.indexOf(':')));
+			documento.setNumero(par.substring(par.indexOf(':') + 1));
+			documentos.add(documento);
+		}
+		cliente.setDocumentos(documentos);
+
+		if (campos.get(7) != null || campos.get(9) != null) {
+			EnderecoEntrada endereco = new EnderecoEntrada();
+			endereco.setEstado(campos.get(6));
+			endereco.setCidade(campos.get(7));
+			endereco.setBairro(campos.get(8));
+			endereco.setRua(campos.get(9));
+			endereco.setNumero(campos.get(10));
+			endereco.setCodigoPostal(campos.get(11));
+			endereco.setInformacoesAdicionais(campos.get(12));
+			cliente.setEndereco(endereco);
+		}
+
+		List<TelefoneEntrada> telefones = new ArrayList<>();
+		for (String par : pares(campos.get(13))) {
+			TelefoneEntrada telefone = new TelefoneEntrada();
+			telefone.setDdd(par.substring(0, par.indexOf(':')));
+			telefone.setNumero(par.substring(par.indexOf(':') + 1));
+			telefones.add(telefone);
+		}
+		cliente.setTelefones(telefones);
+		return cliente;
+	}
+
+	private void campo(StringBuilder linha, String valor) {
+		if (valor != null) {
+			if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+				linha.append('"').append(valor.replace("\"", "\"\"")).append('"');
+			} else {
+				linha.append(valor);
+			}
+		}
+		linha.append(',');
+	}
+
+	private String data(Date data) {
+		return data == null ? null : data.toInstant().toString();
+	}
+
+	private Date lerData(String valor) {
+		if (valor == null) {
+			return null;
+		}
+		try {
+			if (valor.length() == 10) {
+				return Date.from(LocalDate.parse(valor).atStartOfDay(ZoneOffset.UTC).toInstant());
+			}
+			return Date.from(Instant.parse(valor));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Data inválida: " + valor);
+		}
+	}
+
+	private List<String> pares(String lista) {
+		List<String> pares = new ArrayList<>();
+		if (lista != null) {
+			for (String par : lista.split("\\|")) {
+				if (par.indexOf(':') <= 0) {
+					throw new IllegalArgumentException("Item inválido: " + par);
+				}
+				pares.add(par);
+			}
+		}
+		return pares;
+	}
+
+	/** Separa os campos de uma linha; campos vazios viram null. */
+	private List<String> separar(String linha) {
+		List<String> campos = new ArrayList<>(COLUNAS);
+		StringBuilder atual = new StringBuilder();
+		boolean aspas = false;
+		boolean citado = false;
+		for (int i = 0; i < linha.length(); i++) {
+			char c = linha.charAt(i);
+			if (aspas) {
+				if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+					atual.append('"');
+					i++;
+				} else if (c == '"') {
+					aspas = false;
+				} else {
+					atual.append(c);
+				}
+			} else if (c == '"') {
+				aspas = true;
+				citado = true;
+			} else if (c == ',') {
+				campos.add(atual.length() == 0 && !citado ? null : atual.toString());
+				atual.setLength(0);
+				citado = false;
+			} else if (c != '\r') {
+				atual.append(c);
+			}
+		}
+		campos.add(atual.length() == 0 && !citado ? null : atual.toString());
+		return campos;
+	}
+}
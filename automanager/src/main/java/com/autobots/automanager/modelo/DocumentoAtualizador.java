@@ -6,7 +6,7 @@ import com.autobots.automanager.entidades.Documento;
 
 
 public class DocumentoAtualizador {
-	private StringVerificadorNulo verificador = new StringVerificadorNulo();
+	private StringVerificadorNulo verificador = StringVerificadorNulo.COMPARTILHADO;
 
 	public void atualizar(Documento documento, Documento atualizacao) {
 
@@ -3,7 +3,7 @@ package com.autobots.automanager.modelo;
 import com.autobots.automanager.entidades.Endereco;
 
 public class EnderecoAtualizador {
-	private StringVerificadorNulo verificador = new StringVerificadorNulo();
+	private StringVerificadorNulo verificador = StringVerificadorNulo.COMPARTILHADO;
 
 	public void atualizar(Endereco endereco, Endereco atualizacao) {
 		if (atualizacao != null) {
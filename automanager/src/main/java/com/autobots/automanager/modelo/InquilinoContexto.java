@@ -0,0 +1,28 @@
+package com.autobots.automanager.modelo;
+
+/**
+ * Guarda o inquilino (concessionária) da requisição corrente.
+ * Preenchido pelo InquilinoInterceptor; fora de requisições vale o inquilino padrão.
+ */
+public final class InquilinoContexto {
+
+	public static final String PADRAO = "padrao";
+
+	private static final ThreadLocal<String> ATUAL = new ThreadLocal<>();
+
+	private InquilinoContexto() {
+	}
+
+	public static String getInquilino() {
+		String inquilino = ATUAL.get();
+		return inquilino == null ? PADRAO : inquilino;
+	}
+
+	public static void setInquilino(String inquilino) {
+		ATUAL.set(inquilino);
+	}
+
+	public static void limpar() {
+		ATUAL.remove();
+	}
+}
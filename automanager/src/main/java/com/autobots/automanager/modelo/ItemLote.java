@@ -0,0 +1,63 @@
+package com.autobots.automanager.modelo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Uma posição da resposta de busca em lote (GET ...?ids=): o id pedido, se foi
+ * encontrado e, quando foi, o recurso com seus links. Os itens seguem a ordem dos ids
+ * da requisição.
+ */
+@Relation(collectionRelation = "itens")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemLote<T> {
+
+	private final long id;
+	private final boolean encontrado;
+	private final EntityModel<T> recurso;
+
+	private ItemLote(long id, EntityModel<T> recurso) {
+		this.id = id;
+		this.encontrado = recurso != null;
+		this.recurso = recurso;
+	}
+
+	/**
+	 * Põe os recursos encontrados na ordem dos ids pedidos, com um marcador de ausência
+	 * para os ids que não vieram da consulta.
+	 */
+	public static <T> List<ItemLote<T>> ordenar(Collection<Long> ids, Collection<T> encontrados,
+			Function<T, Long> chave, Function<T, EntityModel<T>> modelo) {
+		Map<Long, T> porId = new HashMap<>();
+		for (T recurso : encontrados) {
+			porId.put(chave.apply(recurso), recurso);
+		}
+		List<ItemLote<T>> itens = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			T recurso = porId.get(id);
+			itens.add(new ItemLote<>(id, recurso == null ? null : modelo.apply(recurso)));
+		}
+		return itens;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public boolean isEncontrado() {
+		return encontrado;
+	}
+
+	public EntityModel<T> getRecurso() {
+		return recurso;
+	}
+}
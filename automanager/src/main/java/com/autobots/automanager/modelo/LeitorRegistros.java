@@ -0,0 +1,84 @@
+package com.autobots.automanager.modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lê um arquivo de importação registro a registro. No CSV (RFC 4180) uma quebra de linha
+ * dentro de um campo entre aspas faz parte do registro, como o ClienteCsv escreve; só um
+ * \n (ou \r\n) fora de aspas encerra o registro. No JSON Lines cada linha é um registro.
+ * Conta os registros lidos, para o checkpoint, e guarda a linha física em que o último
+ * começou, para as mensagens de erro.
+ */
+public class LeitorRegistros implements Closeable {
+
+	private final Reader entrada;
+	private final boolean csv;
+	private final char[] buffer = new char[64 * 1024];
+	private final StringBuilder registro = new StringBuilder(256);
+	private int posicao;
+	private int limite;
+	private long linha = 1;
+	private long linhaInicial;
+	private long registros;
+
+	public LeitorRegistros(Reader entrada, boolean csv) {
+		this.entrada = entrada;
+		this.csv = csv;
+	}
+
+	/** Próximo registro, sem o terminador; null no fim do arquivo. */
+	public String proximo() throws IOException {
+		registro.setLength(0);
+		linhaInicial = linha;
+		boolean entreAspas = false;
+		boolean algum = false;
+		while (true) {
+			if (posicao == limite) {
+				limite = entrada.read(buffer, 0, buffer.length);
+				posicao = 0;
+				if (limite <= 0) {
+					limite = 0;
+					if (!algum) {
+						return null;
+					}
+					break;
+				}
+			}
+			char c = buffer[posicao++];
+			algum = true;
+			if (c == '\n') {
+				linha++;
+				if (!entreAspas) {
+					break;
+				}
+			} else if (c == '"' && csv) {
+				// aspas duplicadas ("") alternam duas vezes e não mudam o estado
+				entreAspas = !entreAspas;
+			}
+			registro.append(c);
+		}
+		int tamanho = registro.length();
+		if (tamanho > 0 && registro.charAt(tamanho - 1) == '\r') {
+			registro.setLength(tamanho - 1);
+		}
+		registros++;
+		return registro.toString();
+	}
+
+	/** Registros lidos até aqui, contando os em branco e o cabeçalho. */
+	public long getRegistros() {
+		return registros;
+	}
+
+	/** Linha física (a partir de 1) em que começa o último registro lido. */
+	public long getLinhaInicial() {
+		return linhaInicial;
+	}
+
+	@Override
+	public void close() throws IOException {
+		entrada.close();
+	}
+}
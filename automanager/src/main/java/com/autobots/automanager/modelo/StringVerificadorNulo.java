@@ -2,6 +2,9 @@ package com.autobots.automanager.modelo;
 
 public class StringVerificadorNulo {
 
+	/** Sem estado: uma instância atende todos os atualizadores e o ValidadorCliente. */
+	public static final StringVerificadorNulo COMPARTILHADO = new StringVerificadorNulo();
+
 	public boolean verificar(String dado) {
 		boolean nulo = true;
 
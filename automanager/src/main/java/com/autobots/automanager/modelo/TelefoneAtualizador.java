@@ -4,7 +4,7 @@ import java.util.List;
 import com.autobots.automanager.entidades.Telefone;
 
 public class TelefoneAtualizador {
-	private StringVerificadorNulo verificador = new StringVerificadorNulo();
+	private StringVerificadorNulo verificador = StringVerificadorNulo.COMPARTILHADO;
 
 	public void atualizar(Telefone telefone, Telefone atualizacao) {
 
@@ -0,0 +1,31 @@
+package com.autobots.automanager.perfil;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR com a duração de um flush do Hibernate e o tamanho do contexto de
+ * persistência que ele percorreu.
+ */
+@Name(EventoFlush.NOME)
+@Label("Flush do Hibernate")
+@Category("Automanager")
+@Description("Duração do flush, entidades verificadas pelo dirty-checking e entidades sujas")
+@StackTrace(false)
+public class EventoFlush extends Event {
+
+	public static final String NOME = "com.autobots.automanager.Flush";
+
+	@Label("Entidades verificadas")
+	long entidadesVerificadas;
+
+	@Label("Entidades sujas")
+	long entidadesSujas;
+
+	@Label("Inquilino")
+	String inquilino;
+}
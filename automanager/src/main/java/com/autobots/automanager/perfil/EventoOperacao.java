@@ -0,0 +1,43 @@
+package com.autobots.automanager.perfil;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR com a duração de uma operação da aplicação, identificada pela camada
+ * (controlador, repositório, atualizador ou serialização) e pelo nome do método.
+ * Sem pilha de chamadas, para manter o custo por evento baixo.
+ */
+@Name(EventoOperacao.NOME)
+@Label("Operação do automanager")
+@Category("Automanager")
+@Description("Duração de controladores, repositórios, atualizadores e serialização de respostas")
+@StackTrace(false)
+public class EventoOperacao extends Event {
+
+	public static final String NOME = "com.autobots.automanager.Operacao";
+
+	public static final String CONTROLADOR = "controlador";
+	public static final String REPOSITORIO = "repositorio";
+	public static final String ATUALIZADOR = "atualizador";
+	public static final String SERIALIZACAO = "serializacao";
+
+	@Label("Camada")
+	String camada;
+
+	@Label("Operação")
+	String operacao;
+
+	@Label("Inquilino")
+	String inquilino;
+
+	public EventoOperacao(String camada, String operacao, String inquilino) {
+		this.camada = camada;
+		this.operacao = operacao;
+		this.inquilino = inquilino;
+	}
+}
@@ -0,0 +1,162 @@
+package com.autobots.automanager.perfil;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.HibernateException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.DeleteEvent;
+import org.hibernate.event.spi.DeleteEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.MergeEvent;
+import org.hibernate.event.spi.MergeEventListener;
+import org.hibernate.event.spi.PersistEvent;
+import org.hibernate.event.spi.PersistEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.type.Type;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Ganchos do Hibernate que alimentam a MedicaoHibernate da thread corrente:
+ * <ul>
+ * <li>o Interceptor marca início e fim de cada flush e conta as entidades que passam
+ * pelo dirty-checking (findDirty) e as que saem sujas (onFlushDirty);</li>
+ * <li>o StatementInspector conta as sentenças SQL preparadas;</li>
+ * <li>os listeners de persist, merge e delete contam só as chamadas em cascata, que o
+ * Hibernate distingue pela variante com o mapa de entidades já visitadas.</li>
+ * </ul>
+ * Cada flush concluído também vira um EventoFlush no JFR e uma amostra do timer
+ * automanager.hibernate.flush.
+ */
+public class HibernateInstrumentacao extends EmptyInterceptor implements StatementInspector, Integrator {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient Timer flushes;
+
+	private final transient ThreadLocal<EventoFlush> eventoFlush = new ThreadLocal<>();
+
+	public HibernateInstrumentacao(MeterRegistry registro) {
+		this.flushes = Timer.builder("automanager.hibernate.flush")
+				.description("Duração dos flushes do Hibernate")
+				.register(registro);
+	}
+
+	@Override
+	public void preFlush(Iterator entities) {
+		MedicaoHibernate medicao = MedicaoHibernate.atual();
+		medicao.inicioFlush = System.nanoTime();
+		EventoFlush evento = new EventoFlush();
+		if (evento.isEnabled()) {
+			evento.entidadesVerificadas = medicao.entidadesVerificadas;
+			evento.entidadesSujas = medicao.entidadesSujas;
+			evento.begin();
+			eventoFlush.set(evento);
+		} else {
+			eventoFlush.remove();
+		}
+	}
+
+	/** Só é chamado quando o flush realmente executou; verificações de auto-flush sem efeito não contam como flush. */
+	@Override
+	public void postFlush(Iterator entities) {
+		MedicaoHibernate medicao = MedicaoHibernate.atual();
+		if (medicao.inicioFlush == 0) {
+			return;
+		}
+		long nanos = System.nanoTime() - medicao.inicioFlush;
+		medicao.inicioFlush = 0;
+		medicao.flushes++;
+		medicao.flushNanos += nanos;
+		flushes.record(nanos, TimeUnit.NANOSECONDS);
+
+		EventoFlush evento = eventoFlush.get();
+		if (evento != null) {
+			eventoFlush.remove();
+			evento.entidadesVerificadas = medicao.entidadesVerificadas - evento.entidadesVerificadas;
+			evento.entidadesSujas = medicao.entidadesSujas - evento.entidadesSujas;
+			evento.inquilino = InquilinoContexto.getInquilino();
+			evento.commit();
+		}
+	}
+
+	@Override
+	public int[] findDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState,
+			String[] propertyNames, Type[] types) {
+		MedicaoHibernate.atual().entidadesVerificadas++;
+		return null;
+	}
+
+	@Override
+	public boolean onFlushDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState,
+			String[] propertyNames, Type[] types) {
+		MedicaoHibernate.atual().entidadesSujas++;
+		return false;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		MedicaoHibernate.atual().sentencas++;
+		return sql;
+	}
+
+	@Override
+	public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+			SessionFactoryServiceRegistry serviceRegistry) {
+		EventListenerRegistry registro = serviceRegistry.getService(EventListenerRegistry.class);
+		ContadorCascata contador = new ContadorCascata();
+		registro.appendListeners(EventType.PERSIST, contador);
+		registro.appendListeners(EventType.PERSIST_ONFLUSH, contador);
+		registro.appendListeners(EventType.MERGE, contador);
+		registro.appendListeners(EventType.DELETE, contador);
+	}
+
+	@Override
+	public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+	}
+
+	/** As variantes com mapa ou conjunto de visitados são as que o Hibernate usa ao propagar cascatas. */
+	private static class ContadorCascata implements PersistEventListener, MergeEventListener, DeleteEventListener {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void onPersist(PersistEvent event) throws HibernateException {
+		}
+
+		@Override
+		public void onPersist(PersistEvent event, Map createdAlready) throws HibernateException {
+			MedicaoHibernate.atual().cascatas++;
+		}
+
+		@Override
+		public void onMerge(MergeEvent event) throws HibernateException {
+		}
+
+		@Override
+		public void onMerge(MergeEvent event, Map copiedAlready) throws HibernateException {
+			MedicaoHibernate.atual().cascatas++;
+		}
+
+		@Override
+		public void onDelete(DeleteEvent event) throws HibernateException {
+		}
+
+		@Override
+		public void onDelete(DeleteEvent event, Set transientEntities) throws HibernateException {
+			MedicaoHibernate.atual().cascatas++;
+		}
+	}
+}
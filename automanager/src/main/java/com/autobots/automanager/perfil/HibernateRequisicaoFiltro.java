@@ -0,0 +1,131 @@
+package com.autobots.automanager.perfil;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Inicia uma MedicaoHibernate a cada requisição e, ao final, registra o custo do
+ * Hibernate por rota (automanager.hibernate.requisicao.*). Com o cabeçalho
+ * X-Depurar-Hibernate: true, devolve também a medição em cabeçalhos X-Hibernate-*;
+ * como parte das sentenças acontece durante a serialização (open-in-view), o corpo
+ * dessas requisições é retido até o fim para que os cabeçalhos ainda possam ser escritos.
+ */
+@Component
+public class HibernateRequisicaoFiltro extends OncePerRequestFilter {
+
+	public static final String CABECALHO_DEPURACAO = "X-Depurar-Hibernate";
+
+	private static final String PREFIXO = "automanager.hibernate.requisicao.";
+
+	private static final String ATRIBUTO_MEDICAO = HibernateRequisicaoFiltro.class.getName() + ".medicao";
+
+	private final MeterRegistry registro;
+
+	@Value("${automanager.hibernate.cabecalhos-depuracao:true}")
+	private boolean cabecalhosHabilitados;
+
+	public HibernateRequisicaoFiltro(MeterRegistry registro) {
+		this.registro = registro;
+	}
+
+	/** O despacho assíncrono fecha a medição iniciada no despacho original. */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		MedicaoHibernate medicao;
+		MedicaoHibernate anterior = null;
+		HttpServletResponse respostaUsada = response;
+		if (isAsyncDispatch(request)) {
+			medicao = (MedicaoHibernate) request.getAttribute(ATRIBUTO_MEDICAO);
+			if (medicao == null) {
+				medicao = MedicaoHibernate.iniciar();
+			} else {
+				anterior = MedicaoHibernate.usar(medicao);
+			}
+		} else {
+			medicao = MedicaoHibernate.iniciar();
+			request.setAttribute(ATRIBUTO_MEDICAO, medicao);
+			if (cabecalhosHabilitados && "true".equalsIgnoreCase(request.getHeader(CABECALHO_DEPURACAO))) {
+				respostaUsada = new RespostaRetida(response);
+			}
+		}
+		try {
+			filterChain.doFilter(request, respostaUsada);
+		} finally {
+			if (anterior != null) {
+				MedicaoHibernate.usar(anterior);
+			}
+			if (!isAsyncStarted(request)) {
+				concluir(request, respostaUsada, medicao);
+			}
+		}
+	}
+
+	/** Como no ShallowEtagHeaderFilter, o despacho assíncrono recebe a resposta já envolvida no despacho original. */
+	private void concluir(HttpServletRequest request, HttpServletResponse response, MedicaoHibernate medicao)
+			throws IOException {
+		registrar(request, medicao);
+		RespostaRetida retida = WebUtils.getNativeResponse(response, RespostaRetida.class);
+		if (retida != null) {
+			if (!retida.isCommitted()) {
+				escreverCabecalhos(retida, medicao);
+			}
+			retida.copyBodyToResponse();
+		}
+	}
+
+	private void registrar(HttpServletRequest request, MedicaoHibernate medicao) {
+		Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (rota == null) {
+			return;
+		}
+		Tags tags = Tags.of("metodo", request.getMethod(), "uri", rota.toString());
+		DistributionSummary.builder(PREFIXO + "sentencas").tags(tags).register(registro).record(medicao.getSentencas());
+		DistributionSummary.builder(PREFIXO + "entidades.verificadas").tags(tags).register(registro)
+				.record(medicao.getEntidadesVerificadas());
+		DistributionSummary.builder(PREFIXO + "entidades.sujas").tags(tags).register(registro)
+				.record(medicao.getEntidadesSujas());
+		DistributionSummary.builder(PREFIXO + "cascatas").tags(tags).register(registro).record(medicao.getCascatas());
+		Timer.builder(PREFIXO + "flush").tags(tags).register(registro)
+				.record(medicao.getFlushNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	/** Tipo próprio para não confundir esta resposta com a de outro filtro que também retém o corpo. */
+	private static class RespostaRetida extends ContentCachingResponseWrapper {
+		RespostaRetida(HttpServletResponse response) {
+			super(response);
+		}
+	}
+
+	private static void escreverCabecalhos(HttpServletResponse response, MedicaoHibernate medicao) {
+		response.setHeader("X-Hibernate-Sentencas", Long.toString(medicao.getSentencas()));
+		response.setHeader("X-Hibernate-Flushes", Long.toString(medicao.getFlushes()));
+		response.setHeader("X-Hibernate-Flush-Ms", String.format(Locale.ROOT, "%.3f", medicao.getFlushNanos() / 1e6));
+		response.setHeader("X-Hibernate-Entidades-Verificadas", Long.toString(medicao.getEntidadesVerificadas()));
+		response.setHeader("X-Hibernate-Entidades-Sujas", Long.toString(medicao.getEntidadesSujas()));
+		response.setHeader("X-Hibernate-Cascatas", Long.toString(medicao.getCascatas()));
+	}
+}
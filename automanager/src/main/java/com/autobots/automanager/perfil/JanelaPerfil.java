@@ -0,0 +1,95 @@
+package com.autobots.automanager.perfil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Agregados de uma janela de tempo: duração das operações da aplicação, pausas de GC,
+ * bytes alocados, amostras de execução e contenção de monitores. Só a thread do
+ * RecordingStream grava; o endpoint lê uma cópia somada de várias janelas.
+ */
+class JanelaPerfil {
+
+	/** Contagem, soma e máximo de durações em nanossegundos. */
+	static class Duracoes {
+		long quantidade;
+		long total;
+		long maximo;
+
+		void somar(long nanos) {
+			quantidade++;
+			total += nanos;
+			maximo = Math.max(maximo, nanos);
+		}
+
+		void somar(Duracoes outras) {
+			quantidade += outras.quantidade;
+			total += outras.total;
+			maximo = Math.max(maximo, outras.maximo);
+		}
+	}
+
+	final long indice;
+
+	final Map<String, Duracoes> operacoes = new HashMap<>();
+	final Duracoes pausasGc = new Duracoes();
+	final Map<String, Long> alocacaoPorClasse = new HashMap<>();
+	long bytesAlocados;
+	final Map<String, Long> amostras = new HashMap<>();
+	final Map<String, Long> amostrasAplicacao = new HashMap<>();
+	long totalAmostras;
+	final Map<String, Duracoes> contencao = new HashMap<>();
+	double cpuJvm;
+	double cpuMaquina;
+	boolean temCpu;
+
+	JanelaPerfil(long indice) {
+		this.indice = indice;
+	}
+
+	synchronized void operacao(String camada, String operacao, long nanos) {
+		operacoes.computeIfAbsent(camada + ":" + operacao, chave -> new Duracoes()).somar(nanos);
+	}
+
+	synchronized void pausaGc(long nanos) {
+		pausasGc.somar(nanos);
+	}
+
+	synchronized void alocacao(String classe, long bytes) {
+		bytesAlocados += bytes;
+		alocacaoPorClasse.merge(classe, bytes, Long::sum);
+	}
+
+	synchronized void amostra(String metodo, String metodoAplicacao) {
+		totalAmostras++;
+		amostras.merge(metodo, 1L, Long::sum);
+		if (metodoAplicacao != null) {
+			amostrasAplicacao.merge(metodoAplicacao, 1L, Long::sum);
+		}
+	}
+
+	synchronized void contencao(String classe, long nanos) {
+		contencao.computeIfAbsent(classe, chave -> new Duracoes()).somar(nanos);
+	}
+
+	synchronized void cpu(double jvm, double maquina) {
+		cpuJvm = jvm;
+		cpuMaquina = maquina;
+		temCpu = true;
+	}
+
+	/** Soma esta janela em {@code destino}; somando em ordem, a CPU fica com a leitura mais recente. */
+	synchronized void somarEm(JanelaPerfil destino) {
+		operacoes.forEach((chave, duracoes) -> destino.operacoes.computeIfAbsent(chave, c -> new Duracoes()).somar(duracoes));
+		destino.pausasGc.somar(pausasGc);
+		destino.bytesAlocados += bytesAlocados;
+		alocacaoPorClasse.forEach((classe, bytes) -> destino.alocacaoPorClasse.merge(classe, bytes, Long::sum));
+		destino.totalAmostras += totalAmostras;
+		amostras.forEach((metodo, total) -> destino.amostras.merge(metodo, total, Long::sum));
+		amostrasAplicacao.forEach((metodo, total) -> destino.amostrasAplicacao.merge(metodo, total, Long::sum));
+		contencao.forEach((classe, duracoes) -> destino.contencao.computeIfAbsent(classe, c -> new Duracoes()).somar(duracoes));
+		if (temCpu) {
+			destino.cpu(cpuJvm, cpuMaquina);
+		}
+	}
+}
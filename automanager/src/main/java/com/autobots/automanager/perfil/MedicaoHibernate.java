@@ -0,0 +1,70 @@
+package com.autobots.automanager.perfil;
+
+/**
+ * Custo do Hibernate acumulado na medição da thread corrente: flushes e
+ * seu tempo, entidades verificadas pelo dirty-checking, entidades sujas, operações em
+ * cascata e sentenças SQL preparadas. O filtro de requisições inicia uma medição a
+ * cada requisição; no processamento assíncrono, as threads de trabalho e o despacho
+ * final passam a acumular na medição da requisição.
+ */
+public final class MedicaoHibernate {
+
+	private static final ThreadLocal<MedicaoHibernate> ATUAL = ThreadLocal.withInitial(MedicaoHibernate::new);
+
+	long flushes;
+	long flushNanos;
+	long entidadesVerificadas;
+	long entidadesSujas;
+	long cascatas;
+	long sentencas;
+
+	long inicioFlush;
+
+	private MedicaoHibernate() {
+	}
+
+	public static MedicaoHibernate atual() {
+		return ATUAL.get();
+	}
+
+	/** Começa uma medição nova para a thread corrente. */
+	public static MedicaoHibernate iniciar() {
+		MedicaoHibernate medicao = new MedicaoHibernate();
+		ATUAL.set(medicao);
+		return medicao;
+	}
+
+	/**
+	 * Faz a thread corrente acumular em {@code medicao}, que pertence a uma requisição
+	 * atendida em outra thread, e devolve a medição anterior para ser restaurada.
+	 */
+	public static MedicaoHibernate usar(MedicaoHibernate medicao) {
+		MedicaoHibernate anterior = ATUAL.get();
+		ATUAL.set(medicao);
+		return anterior;
+	}
+
+	public long getFlushes() {
+		return flushes;
+	}
+
+	public long getFlushNanos() {
+		return flushNanos;
+	}
+
+	public long getEntidadesVerificadas() {
+		return entidadesVerificadas;
+	}
+
+	public long getEntidadesSujas() {
+		return entidadesSujas;
+	}
+
+	public long getCascatas() {
+		return cascatas;
+	}
+
+	public long getSentencas() {
+		return sentencas;
+	}
+}
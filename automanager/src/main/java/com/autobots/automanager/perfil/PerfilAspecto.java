@@ -0,0 +1,69 @@
+package com.autobots.automanager.perfil;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+
+/**
+ * Registra um EventoOperacao em volta de cada método de controlador e de repositório.
+ * Enquanto nenhuma gravação JFR estiver com o evento habilitado, o custo é só o da
+ * verificação isEnabled().
+ */
+@Aspect
+@Component
+public class PerfilAspecto {
+
+	private final Map<Class<?>, Map<Method, String>> nomes = new ConcurrentHashMap<>();
+
+	@Around("within(@org.springframework.web.bind.annotation.RestController *)")
+	public Object controlador(ProceedingJoinPoint ponto) throws Throwable {
+		return registrar(ponto, EventoOperacao.CONTROLADOR);
+	}
+
+	@Around("target(org.springframework.data.repository.Repository)")
+	public Object repositorio(ProceedingJoinPoint ponto) throws Throwable {
+		return registrar(ponto, EventoOperacao.REPOSITORIO);
+	}
+
+	private Object registrar(ProceedingJoinPoint ponto, String camada) throws Throwable {
+		Method metodo = ((MethodSignature) ponto.getSignature()).getMethod();
+		EventoOperacao evento = new EventoOperacao(camada, null, null);
+		if (!evento.isEnabled()) {
+			return ponto.proceed();
+		}
+		evento.begin();
+		try {
+			return ponto.proceed();
+		} finally {
+			evento.end();
+			if (evento.shouldCommit()) {
+				Object alvo = ponto.getThis();
+				evento.operacao = nomes.computeIfAbsent(alvo.getClass(), c -> new ConcurrentHashMap<>())
+						.computeIfAbsent(metodo, m -> nome(alvo, m));
+				evento.inquilino = InquilinoContexto.getInquilino();
+				evento.commit();
+			}
+		}
+	}
+
+	/** Repositórios são proxies de interface: o nome vem da interface da aplicação, não de SimpleJpaRepository. */
+	private static String nome(Object alvo, Method metodo) {
+		Class<?> tipo = AopUtils.getTargetClass(alvo);
+		for (Class<?> interfaceDoProxy : alvo.getClass().getInterfaces()) {
+			if (interfaceDoProxy.getName().startsWith("com.autobots.")) {
+				tipo = interfaceDoProxy;
+				break;
+			}
+		}
+		return tipo.getSimpleName() + "." + metodo.getName();
+	}
+}
@@ -0,0 +1,299 @@
+package com.autobots.automanager.perfil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Perfil contínuo por streaming JFR. Uma gravação em memória recebe os eventos de
+ * operação da aplicação e alguns eventos da JVM escolhidos pelo baixo custo (pausas
+ * de GC, amostras de alocação limitadas por segundo, amostras de execução e esperas
+ * longas por monitores) e os agrega em janelas de tempo rotativas. A mesma gravação
+ * guarda os eventos brutos pelo tempo de retenção, para despejo sob demanda num .jfr.
+ */
+@Component
+public class PerfilContinuo {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PerfilContinuo.class);
+
+	private static final DateTimeFormatter ARQUIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	private static final Pattern NOME_ARQUIVO = Pattern.compile("perfil-\\d{8}-\\d{6}\\.jfr");
+
+	private static final String PACOTE_APLICACAO = "com.autobots.";
+
+	@Value("${automanager.perfil.habilitado:true}")
+	private boolean habilitado;
+
+	@Value("${automanager.perfil.janela:10s}")
+	private Duration janela;
+
+	@Value("${automanager.perfil.janelas:6}")
+	private int quantidadeJanelas;
+
+	@Value("${automanager.perfil.amostragem:20ms}")
+	private Duration amostragem;
+
+	@Value("${automanager.perfil.limiar-operacao:5ms}")
+	private Duration limiarOperacao;
+
+	@Value("${automanager.perfil.limiar-contencao:10ms}")
+	private Duration limiarContencao;
+
+	@Value("${automanager.perfil.alocacoes-por-segundo:100}")
+	private int alocacoesPorSegundo;
+
+	@Value("${automanager.perfil.retencao:5m}")
+	private Duration retencao;
+
+	@Value("${automanager.perfil.diretorio:perfis}")
+	private Path diretorio;
+
+	@Value("${automanager.perfil.max-arquivos:5}")
+	private int maxArquivos;
+
+	private volatile RecordingStream stream;
+
+	private AtomicReferenceArray<JanelaPerfil> janelas;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void iniciar() {
+		if (!habilitado || stream != null) {
+			return;
+		}
+		janelas = new AtomicReferenceArray<>(quantidadeJanelas);
+		RecordingStream novo = new RecordingStream();
+		novo.setMaxAge(retencao);
+		novo.enable(EventoOperacao.class).withThreshold(limiarOperacao);
+		novo.enable(EventoFlush.class).withThreshold(limiarOperacao);
+		novo.enable("jdk.GarbageCollection");
+		novo.enable("jdk.ObjectAllocationSample").with("throttle", alocacoesPorSegundo + "/s");
+		novo.enable("jdk.ExecutionSample").withPeriod(amostragem);
+		novo.enable("jdk.JavaMonitorEnter").withThreshold(limiarContencao);
+		novo.enable("jdk.CPULoad").withPeriod(Duration.ofSeconds(1));
+
+		novo.onEvent(EventoOperacao.NOME, evento -> janela(evento).operacao(
+				evento.getString("camada"), evento.getString("operacao"), evento.getDuration().toNanos()));
+		novo.onEvent(EventoFlush.NOME, evento -> janela(evento).operacao("hibernate", "flush", evento.getDuration().toNanos()));
+		novo.onEvent("jdk.GarbageCollection", evento -> janela(evento).pausaGc(evento.getDuration("sumOfPauses").toNanos()));
+		novo.onEvent("jdk.ObjectAllocationSample", evento -> janela(evento).alocacao(
+				evento.getClass("objectClass").getName(), evento.getLong("weight")));
+		novo.onEvent("jdk.ExecutionSample", this::amostra);
+		novo.onEvent("jdk.JavaMonitorEnter", evento -> janela(evento).contencao(
+				evento.getClass("monitorClass").getName(), evento.getDuration().toNanos()));
+		novo.onEvent("jdk.CPULoad", evento -> janela(evento).cpu(evento.getFloat("jvmUser") + evento.getFloat("jvmSystem"),
+				evento.getFloat("machineTotal")));
+		novo.startAsync();
+		stream = novo;
+		LOG.info("Perfil contínuo JFR iniciado: janelas de {} s, retenção de {} s", janela.getSeconds(), retencao.getSeconds());
+	}
+
+	@PreDestroy
+	public synchronized void encerrar() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+
+	public boolean isAtivo() {
+		return stream != null;
+	}
+
+	private void amostra(RecordedEvent evento) {
+		RecordedStackTrace pilha = evento.getStackTrace();
+		if (pilha == null || pilha.getFrames().isEmpty()) {
+			return;
+		}
+		String topo = null;
+		String aplicacao = null;
+		for (RecordedFrame quadro : pilha.getFrames()) {
+			if (!quadro.isJavaFrame()) {
+				continue;
+			}
+			String metodo = quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName();
+			if (topo == null) {
+				topo = metodo;
+			}
+			if (metodo.startsWith(PACOTE_APLICACAO)) {
+				aplicacao = metodo;
+				break;
+			}
+		}
+		if (topo != null) {
+			janela(evento).amostra(topo, aplicacao);
+		}
+	}
+
+	/** Janela do instante do evento; a posição do vetor é reaproveitada quando a janela antiga expira. */
+	private JanelaPerfil janela(RecordedEvent evento) {
+		long indice = evento.getStartTime().toEpochMilli() / janela.toMillis();
+		int posicao = (int) Math.floorMod(indice, (long) quantidadeJanelas);
+		JanelaPerfil atual = janelas.get(posicao);
+		if (atual == null || atual.indice < indice) {
+			atual = new JanelaPerfil(indice);
+			janelas.set(posicao, atual);
+		}
+		return atual;
+	}
+
+	/** Resumo das janelas ainda dentro do horizonte, da mais antiga para a mais recente. */
+	public Map<String, Object> resumir(int limite) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("ativo", isAtivo());
+		if (!isAtivo()) {
+			return resumo;
+		}
+		long agora = Instant.now().toEpochMilli() / janela.toMillis();
+		List<JanelaPerfil> validas = new ArrayList<>();
+		for (int i = 0; i < quantidadeJanelas; i++) {
+			JanelaPerfil candidata = janelas.get(i);
+			if (candidata != null && candidata.indice > agora - quantidadeJanelas) {
+				validas.add(candidata);
+			}
+		}
+		validas.sort(Comparator.comparingLong(j -> j.indice));
+		JanelaPerfil soma = new JanelaPerfil(agora);
+		validas.forEach(j -> j.somarEm(soma));
+
+		double segundos = Math.max(1, validas.size()) * janela.toMillis() / 1000.0;
+		resumo.put("janelaSegundos", janela.getSeconds());
+		resumo.put("janelas", validas.size());
+		resumo.put("segundosCobertos", segundos);
+
+		List<Map<String, Object>> operacoes = new ArrayList<>();
+		soma.operacoes.entrySet().stream()
+				.sorted((a, b) -> Long.compare(b.getValue().total, a.getValue().total))
+				.limit(limite)
+				.forEach(entrada -> {
+					String[] partes = entrada.getKey().split(":", 2);
+					Map<String, Object> linha = duracoes(entrada.getValue());
+					linha.put("camada", partes[0]);
+					linha.put("operacao", partes[1]);
+					linha.put("porSegundo", entrada.getValue().quantidade / segundos);
+					operacoes.add(linha);
+				});
+		resumo.put("operacoes", operacoes);
+
+		Map<String, Object> gc = duracoes(soma.pausasGc);
+		gc.put("fracaoPausada", soma.pausasGc.total / 1e9 / segundos);
+		resumo.put("gc", gc);
+
+		Map<String, Object> alocacao = new LinkedHashMap<>();
+		alocacao.put("bytesPorSegundo", (long) (soma.bytesAlocados / segundos));
+		alocacao.put("classes", maiores(soma.alocacaoPorClasse, limite, "classe", "bytes", 0));
+		resumo.put("alocacao", alocacao);
+
+		resumo.put("amostras", soma.totalAmostras);
+		resumo.put("hotspots", maiores(soma.amostras, limite, "metodo", "amostras", soma.totalAmostras));
+		resumo.put("hotspotsAplicacao", maiores(soma.amostrasAplicacao, limite, "metodo", "amostras", soma.totalAmostras));
+
+		List<Map<String, Object>> contencao = new ArrayList<>();
+		soma.contencao.entrySet().stream()
+				.sorted((a, b) -> Long.compare(b.getValue().total, a.getValue().total))
+				.limit(limite)
+				.forEach(entrada -> {
+					Map<String, Object> linha = duracoes(entrada.getValue());
+					linha.put("monitor", entrada.getKey());
+					contencao.add(linha);
+				});
+		resumo.put("contencao", contencao);
+
+		Map<String, Object> cpu = new LinkedHashMap<>();
+		cpu.put("jvm", soma.cpuJvm);
+		cpu.put("maquina", soma.cpuMaquina);
+		resumo.put("cpu", cpu);
+		return resumo;
+	}
+
+	/**
+	 * Grava os eventos retidos num arquivo .jfr, para abrir no JDK Mission Control. Só os
+	 * automanager.perfil.max-arquivos despejos mais recentes são mantidos.
+	 */
+	public Path despejar() throws IOException {
+		RecordingStream atual = stream;
+		if (atual == null) {
+			throw new IllegalStateException("Perfil contínuo desabilitado");
+		}
+		Files.createDirectories(diretorio);
+		Path arquivo = diretorio.resolve("perfil-" + LocalDateTime.now().format(ARQUIVO) + ".jfr");
+		atual.dump(arquivo);
+		apagarAntigos();
+		return arquivo;
+	}
+
+	private void apagarAntigos() throws IOException {
+		List<Path> arquivos;
+		try (Stream<Path> lista = Files.list(diretorio)) {
+			arquivos = lista.filter(arquivo -> NOME_ARQUIVO.matcher(arquivo.getFileName().toString()).matches())
+					.sorted(Comparator.comparing((Path arquivo) -> arquivo.getFileName().toString()).reversed())
+					.collect(Collectors.toList());
+		}
+		for (int i = Math.max(1, maxArquivos); i < arquivos.size(); i++) {
+			Files.deleteIfExists(arquivos.get(i));
+		}
+	}
+
+	/** Arquivo despejado anteriormente, ou {@code null} se o nome for inválido ou não existir. */
+	public Path arquivo(String nome) {
+		if (!NOME_ARQUIVO.matcher(nome).matches()) {
+			return null;
+		}
+		Path arquivo = diretorio.resolve(nome);
+		return Files.isRegularFile(arquivo) ? arquivo : null;
+	}
+
+	private static Map<String, Object> duracoes(JanelaPerfil.Duracoes duracoes) {
+		Map<String, Object> linha = new LinkedHashMap<>();
+		linha.put("quantidade", duracoes.quantidade);
+		linha.put("totalMs", duracoes.total / 1e6);
+		linha.put("mediaMs", duracoes.quantidade == 0 ? 0 : duracoes.total / 1e6 / duracoes.quantidade);
+		linha.put("maximoMs", duracoes.maximo / 1e6);
+		return linha;
+	}
+
+	private static List<Map<String, Object>> maiores(Map<String, Long> valores, int limite, String chave, String campo,
+			long total) {
+		List<Map<String, Object>> linhas = new ArrayList<>();
+		valores.entrySet().stream()
+				.sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+				.limit(limite)
+				.forEach(entrada -> {
+					Map<String, Object> linha = new LinkedHashMap<>();
+					linha.put(chave, entrada.getKey());
+					linha.put(campo, entrada.getValue());
+					if (total > 0) {
+						linha.put("fracao", (double) entrada.getValue() / total);
+					}
+					linhas.add(linha);
+				});
+		return linhas;
+	}
+}
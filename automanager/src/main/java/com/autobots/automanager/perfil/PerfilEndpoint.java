@@ -0,0 +1,58 @@
+package com.autobots.automanager.perfil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/perfil resume as janelas recentes; POST /actuator/perfil despeja os
+ * eventos retidos num .jfr; GET /actuator/perfil/{arquivo} baixa um despejo.
+ */
+@Component
+@Endpoint(id = "perfil")
+public class PerfilEndpoint {
+
+	private final PerfilContinuo perfil;
+
+	public PerfilEndpoint(PerfilContinuo perfil) {
+		this.perfil = perfil;
+	}
+
+	@ReadOperation
+	public Map<String, Object> resumir(@Nullable Integer limite) {
+		return perfil.resumir(limite == null ? 15 : Math.max(1, limite));
+	}
+
+	@WriteOperation
+	public WebEndpointResponse<Map<String, Object>> despejar() throws IOException {
+		if (!perfil.isAtivo()) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+		}
+		Path arquivo = perfil.despejar();
+		Map<String, Object> resposta = new LinkedHashMap<>();
+		resposta.put("arquivo", arquivo.getFileName().toString());
+		resposta.put("bytes", Files.size(arquivo));
+		return new WebEndpointResponse<>(resposta);
+	}
+
+	@ReadOperation(produces = "application/octet-stream")
+	public WebEndpointResponse<Resource> baixar(@Selector String arquivo) {
+		Path caminho = perfil.arquivo(arquivo);
+		if (caminho == null) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		return new WebEndpointResponse<>(new FileSystemResource(caminho));
+	}
+}
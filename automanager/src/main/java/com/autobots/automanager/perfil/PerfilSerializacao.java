@@ -0,0 +1,56 @@
+package com.autobots.automanager.perfil;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.autobots.automanager.modelo.InquilinoContexto;
+
+/**
+ * Mede a serialização do corpo das respostas: o evento começa logo antes de o
+ * conversor de mensagens escrever o corpo (beforeBodyWrite) e termina quando a
+ * requisição é concluída (afterCompletion), já com o corpo escrito.
+ */
+@ControllerAdvice
+public class PerfilSerializacao implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+	private static final String ATRIBUTO_EVENTO = PerfilSerializacao.class.getName() + ".evento";
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		if (body != null && request instanceof ServletServerHttpRequest) {
+			String operacao = returnType.getContainingClass().getSimpleName() + "." + returnType.getExecutable().getName();
+			EventoOperacao evento = new EventoOperacao(EventoOperacao.SERIALIZACAO, operacao, InquilinoContexto.getInquilino());
+			if (evento.isEnabled()) {
+				evento.begin();
+				((ServletServerHttpRequest) request).getServletRequest().setAttribute(ATRIBUTO_EVENTO, evento);
+			}
+		}
+		return body;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		Object evento = request.getAttribute(ATRIBUTO_EVENTO);
+		if (evento != null) {
+			request.removeAttribute(ATRIBUTO_EVENTO);
+			((EventoOperacao) evento).commit();
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.autobots.automanager.repositorios;
+
+import java.util.List;
+
+import com.autobots.automanager.consulta.ConsultaPreparada;
+import com.autobots.automanager.entidades.Cliente;
+
+/** Consultas de clientes montadas em tempo de execução a partir do filtro de GET /cliente. */
+public interface ClienteConsultaRepository {
+
+	/** Até limite clientes do inquilino que passam no filtro, na ordem do plano, com o endereço. */
+	List<Cliente> consultar(String inquilino, ConsultaPreparada consulta, int limite);
+}
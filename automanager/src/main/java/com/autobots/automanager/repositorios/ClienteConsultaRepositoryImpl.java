@@ -0,0 +1,31 @@
+package com.autobots.automanager.repositorios;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.autobots.automanager.consulta.ConsultaPreparada;
+import com.autobots.automanager.entidades.Cliente;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class ClienteConsultaRepositoryImpl implements ClienteConsultaRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Cliente> consultar(String inquilino, ConsultaPreparada consulta, int limite) {
+		TypedQuery<Cliente> query = entityManager.createQuery(consulta.getPlano().getJpql(), Cliente.class);
+		query.setParameter("inquilino", inquilino);
+		consulta.vincular(query);
+		query.setHint(HINT_READONLY, true);
+		query.setMaxResults(limite);
+		return query.getResultList();
+	}
+}
@@ -1,8 +1,131 @@
 package com.autobots.automanager.repositorios;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.leitura.ContribuicaoCliente;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteConsultaRepository {
+
+	List<Cliente> findByInquilino(String inquilino);
+
+	Optional<Cliente> findByIdAndInquilino(Long id, String inquilino);
+
+	boolean existsByIdAndInquilino(Long id, String inquilino);
+
+	long countByInquilino(String inquilino);
+
+	/** Próxima página de ids do inquilino depois de apos, pelo índice (inquilino, id). */
+	@Query("select c.id from Cliente c where c.inquilino = :inquilino and c.id > :apos order by c.id")
+	List<Long> findIdsApos(@Param("inquilino") String inquilino, @Param("apos") Long apos, Pageable pagina);
+
+	@Query("select max(c.id) from Cliente c")
+	Long findMaxIdGeral();
+
+	/*
+	 * Carga de agregados em lote: a primeira consulta traz os clientes da faixa com o
+	 * endereço; as duas seguintes inicializam documentos e telefones dos mesmos
+	 * clientes (duas coleções List não podem ser buscadas juntas num único fetch join).
+	 */
+	@QueryHints({
+		@QueryHint(name = HINT_READONLY, value = "true"),
+		@QueryHint(name = HINT_FETCH_SIZE, value = "500")
+	})
+	@Query("select c from Cliente c left join fetch c.endereco where c.inquilino = :inquilino and c.id between :inicio and :fim order by c.id")
+	List<Cliente> findFaixa(@Param("inquilino") String inquilino, @Param("inicio") Long inicio, @Param("fim") Long fim);
+
+	@QueryHints({
+		@QueryHint(name = HINT_READONLY, value = "true"),
+		@QueryHint(name = HINT_FETCH_SIZE, value = "500")
+	})
+	@Query("select c from Cliente c left join fetch c.endereco where c.id between :inicio and :fim order by c.id")
+	List<Cliente> findFaixaGeral(@Param("inicio") Long inicio, @Param("fim") Long fim);
+
+	/** Busca em lote por ids, seguida das mesmas cargas de documentos e telefones da faixa. */
+	@QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+	@Query("select c from Cliente c left join fetch c.endereco where c.inquilino = :inquilino and c.id in :ids")
+	List<Cliente> findLote(@Param("inquilino") String inquilino, @Param("ids") Collection<Long> ids);
+
+	@QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+	@Query("select distinct c from Cliente c left join fetch c.documentos where c in :clientes")
+	List<Cliente> carregarDocumentos(@Param("clientes") Collection<Cliente> clientes);
+
+	@QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+	@Query("select distinct c from Cliente c left join fetch c.telefones where c in :clientes")
+	List<Cliente> carregarTelefones(@Param("clientes") Collection<Cliente> clientes);
+
+	/** Reconciliação das estatísticas: só as colunas que contam, em páginas por id (keyset). */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new com.autobots.automanager.leitura.ContribuicaoCliente(c.id, c.inquilino, e.estado, e.cidade, "
+			+ "c.dataNascimento, c.dataCadastro) from Cliente c left join c.endereco e where c.id > :apos order by c.id")
+	List<ContribuicaoCliente> findContribuicoes(@Param("apos") Long apos, Pageable pagina);
+
+	@Query("select c from Cliente c join c.documentos d where d.id = :documentoId")
+	Optional<Cliente> findByDocumento(@Param("documentoId") Long documentoId);
+
+	@Query("select c from Cliente c join c.telefones t where t.id = :telefoneId")
+	Optional<Cliente> findByTelefone(@Param("telefoneId") Long telefoneId);
+
+	@Query("select c from Cliente c where c.endereco.id = :enderecoId")
+	Optional<Cliente> findByEndereco(@Param("enderecoId") Long enderecoId);
+
+	/*
+	 * Vínculos individuais entre cliente e filhos, usados pelos endpoints aninhados
+	 * (/cliente/{id}/telefones...) para gravar só a coluna cliente_id do filho afetado,
+	 * sem carregar a coleção inteira.
+	 */
+	@Query("select count(d) > 0 from Cliente c join c.documentos d where c.id = :clienteId and d.id = :documentoId")
+	boolean possuiDocumento(@Param("clienteId") Long clienteId, @Param("documentoId") Long documentoId);
+
+	@Query("select count(t) > 0 from Cliente c join c.telefones t where c.id = :clienteId and t.id = :telefoneId")
+	boolean possuiTelefone(@Param("clienteId") Long clienteId, @Param("telefoneId") Long telefoneId);
+
+	@Modifying
+	@Query(value = "update documento set cliente_id = :clienteId where id = :documentoId", nativeQuery = true)
+	int vincularDocumento(@Param("clienteId") Long clienteId, @Param("documentoId") Long documentoId);
+
+	@Modifying
+	@Query(value = "update telefone set cliente_id = :clienteId where id = :telefoneId", nativeQuery = true)
+	int vincularTelefone(@Param("clienteId") Long clienteId, @Param("telefoneId") Long telefoneId);
+
+	/*
+	 * Expurgo em lote: as consultas abaixo resolvem os filhos de um conjunto de clientes
+	 * para que sejam excluídos com comandos por conjunto, em vez de carregar e remover um a um.
+	 */
+	@Query("select c.id from Cliente c where c.inquilino = :inquilino and c.dataCadastro < :data and c.id > :apos order by c.id")
+	List<Long> findIdsCadastradosAntes(@Param("inquilino") String inquilino, @Param("data") Date data,
+			@Param("apos") Long apos, Pageable pagina);
+
+	@Query("select count(c) from Cliente c where c.inquilino = :inquilino and c.dataCadastro < :data")
+	long countCadastradosAntes(@Param("inquilino") String inquilino, @Param("data") Date data);
+
+	@Query("select c.id from Cliente c where c.inquilino = :inquilino and c.id in :ids")
+	List<Long> findIdsDoInquilino(@Param("inquilino") String inquilino, @Param("ids") Collection<Long> ids);
+
+	@Query("select d.id from Cliente c join c.documentos d where c.id in :ids")
+	List<Long> findDocumentoIds(@Param("ids") Collection<Long> ids);
+
+	@Query("select t.id from Cliente c join c.telefones t where c.id in :ids")
+	List<Long> findTelefoneIds(@Param("ids") Collection<Long> ids);
 
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+	@Query("select c.endereco.id from Cliente c where c.id in :ids and c.endereco is not null")
+	List<Long> findEnderecoIds(@Param("ids") Collection<Long> ids);
 
-}
\ No newline at end of file
+	@Modifying
+	@Query("delete from Cliente c where c.id in :ids")
+	int excluirEmLote(@Param("ids") Collection<Long> ids);
+}
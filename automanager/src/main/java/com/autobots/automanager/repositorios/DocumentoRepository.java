@@ -1,8 +1,29 @@
 package com.autobots.automanager.repositorios;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.autobots.automanager.entidades.Documento;
 
 public interface DocumentoRepository extends JpaRepository<Documento, Long> {
 
-}
\ No newline at end of file
+	List<Documento> findByInquilino(String inquilino);
+
+	Optional<Documento> findByIdAndInquilino(Long id, String inquilino);
+
+	List<Documento> findByInquilinoAndIdIn(String inquilino, Collection<Long> ids);
+
+	boolean existsByIdAndInquilino(Long id, String inquilino);
+
+	@Query("select d.numero from Documento d where d.inquilino = :inquilino")
+	List<String> findNumeros(@Param("inquilino") String inquilino);
+
+	@Modifying
+	@Query("delete from Documento d where d.id in :ids")
+	int excluirEmLote(@Param("ids") Collection<Long> ids);
+}
@@ -1,8 +1,26 @@
 package com.autobots.automanager.repositorios;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.autobots.automanager.entidades.Endereco;
 
 public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
-    
-}
\ No newline at end of file
+
+	List<Endereco> findByInquilino(String inquilino);
+
+	Optional<Endereco> findByIdAndInquilino(Long id, String inquilino);
+
+	List<Endereco> findByInquilinoAndIdIn(String inquilino, Collection<Long> ids);
+
+	boolean existsByIdAndInquilino(Long id, String inquilino);
+
+	@Modifying
+	@Query("delete from Endereco e where e.id in :ids")
+	int excluirEmLote(@Param("ids") Collection<Long> ids);
+}
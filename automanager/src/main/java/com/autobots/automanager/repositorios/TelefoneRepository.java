@@ -1,8 +1,26 @@
 package com.autobots.automanager.repositorios;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.autobots.automanager.entidades.Telefone;
 
 public interface TelefoneRepository extends JpaRepository<Telefone, Long> {
-    
-}
\ No newline at end of file
+
+	List<Telefone> findByInquilino(String inquilino);
+
+	Optional<Telefone> findByIdAndInquilino(Long id, String inquilino);
+
+	List<Telefone> findByInquilinoAndIdIn(String inquilino, Collection<Long> ids);
+
+	boolean existsByIdAndInquilino(Long id, String inquilino);
+
+	@Modifying
+	@Query("delete from Telefone t where t.id in :ids")
+	int excluirEmLote(@Param("ids") Collection<Long> ids);
+}
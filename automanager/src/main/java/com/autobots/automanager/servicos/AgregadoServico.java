@@ -0,0 +1,174 @@
+package com.autobots.automanager.servicos;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.entidades.Documento;
+import com.autobots.automanager.entidades.Endereco;
+import com.autobots.automanager.entidades.Telefone;
+import com.autobots.automanager.repositorios.ClienteRepository;
+import com.autobots.automanager.repositorios.DocumentoRepository;
+import com.autobots.automanager.repositorios.EnderecoRepository;
+import com.autobots.automanager.repositorios.TelefoneRepository;
+
+/**
+ * Escritas do agregado de cliente numa única transação: substituição completa do
+ * cliente com seus filhos e inclusão/remoção de filhos individuais.
+ */
+@Service
+public class AgregadoServico {
+
+	@Autowired
+	private ClienteRepository repositorio;
+	@Autowired
+	private DocumentoRepository documentoRepositorio;
+	@Autowired
+	private TelefoneRepository telefoneRepositorio;
+	@Autowired
+	private EnderecoRepository enderecoRepositorio;
+
+	/**
+	 * Substitui o cliente e todos os filhos pelo conteúdo informado. Filhos com id de um
+	 * filho atual são atualizados no lugar, os demais são incluídos como novos e os
+	 * ausentes são removidos; as inclusões saem em lote no flush.
+	 */
+	@Transactional
+	public Optional<Cliente> substituir(long id, String inquilino, Cliente novo) {
+		Optional<Cliente> opt = repositorio.findByIdAndInquilino(id, inquilino);
+		if (opt.isEmpty()) {
+			return opt;
+		}
+		Cliente cliente = opt.get();
+		cliente.setNome(novo.getNome());
+		cliente.setNomeSocial(novo.getNomeSocial());
+		cliente.setDataNascimento(novo.getDataNascimento());
+		if (novo.getDataCadastro() != null) {
+			cliente.setDataCadastro(novo.getDataCadastro());
+		}
+
+		Map<Long, Documento> documentos = new HashMap<>();
+		for (Documento documento : novo.getDocumentos()) {
+			if (documento.getId() != null) {
+				documentos.put(documento.getId(), documento);
+			}
+		}
+		for (Iterator<Documento> it = cliente.getDocumentos().iterator(); it.hasNext();) {
+			Documento atual = it.next();
+			Documento substituto = documentos.remove(atual.getId());
+			if (substituto == null) {
+				it.remove();
+			} else {
+				atual.setTipo(substituto.getTipo());
+				atual.setNumero(substituto.getNumero());
+			}
+		}
+		for (Documento documento : novo.getDocumentos()) {
+			if (documento.getId() == null || documentos.containsKey(documento.getId())) {
+				documento.setId(null);
+				cliente.getDocumentos().add(documento);
+			}
+		}
+
+		Map<Long, Telefone> telefones = new HashMap<>();
+		for (Telefone telefone : novo.getTelefones()) {
+			if (telefone.getId() != null) {
+				telefones.put(telefone.getId(), telefone);
+			}
+		}
+		for (Iterator<Telefone> it = cliente.getTelefones().iterator(); it.hasNext();) {
+			Telefone atual = it.next();
+			Telefone substituto = telefones.remove(atual.getId());
+			if (substituto == null) {
+				it.remove();
+			} else {
+				atual.setDdd(substituto.getDdd());
+				atual.setNumero(substituto.getNumero());
+			}
+		}
+		for (Telefone telefone : novo.getTelefones()) {
+			if (telefone.getId() == null || telefones.containsKey(telefone.getId())) {
+				telefone.setId(null);
+				cliente.getTelefones().add(telefone);
+			}
+		}
+
+		substituirEndereco(cliente, novo.getEndereco());
+		return Optional.of(cliente);
+	}
+
+	@Transactional
+	public Optional<Documento> incluirDocumento(long clienteId, String inquilino, Documento documento) {
+		if (!repositorio.existsByIdAndInquilino(clienteId, inquilino)) {
+			return Optional.empty();
+		}
+		documento.setId(null);
+		Documento salvo = documentoRepositorio.save(documento);
+		documentoRepositorio.flush();
+		repositorio.vincularDocumento(clienteId, salvo.getId());
+		return Optional.of(salvo);
+	}
+
+	@Transactional
+	public boolean removerDocumento(long clienteId, String inquilino, long documentoId) {
+		if (!repositorio.existsByIdAndInquilino(clienteId, inquilino) || !repositorio.possuiDocumento(clienteId, documentoId)) {
+			return false;
+		}
+		documentoRepositorio.excluirEmLote(List.of(documentoId));
+		return true;
+	}
+
+	@Transactional
+	public Optional<Telefone> incluirTelefone(long clienteId, String inquilino, Telefone telefone) {
+		if (!repositorio.existsByIdAndInquilino(clienteId, inquilino)) {
+			return Optional.empty();
+		}
+		telefone.setId(null);
+		Telefone salvo = telefoneRepositorio.save(telefone);
+		telefoneRepositorio.flush();
+		repositorio.vincularTelefone(clienteId, salvo.getId());
+		return Optional.of(salvo);
+	}
+
+	@Transactional
+	public boolean removerTelefone(long clienteId, String inquilino, long telefoneId) {
+		if (!repositorio.existsByIdAndInquilino(clienteId, inquilino) || !repositorio.possuiTelefone(clienteId, telefoneId)) {
+			return false;
+		}
+		telefoneRepositorio.excluirEmLote(List.of(telefoneId));
+		return true;
+	}
+
+	/** Define o endereço do cliente; null remove o endereço atual. */
+	@Transactional
+	public Optional<Cliente> definirEndereco(long clienteId, String inquilino, Endereco endereco) {
+		Optional<Cliente> opt = repositorio.findByIdAndInquilino(clienteId, inquilino);
+		opt.ifPresent(cliente -> substituirEndereco(cliente, endereco));
+		return opt;
+	}
+
+	private void substituirEndereco(Cliente cliente, Endereco novo) {
+		Endereco atual = cliente.getEndereco();
+		if (novo == null) {
+			cliente.setEndereco(null);
+		} else if (atual == null) {
+			novo.setId(null);
+			cliente.setEndereco(enderecoRepositorio.save(novo));
+		} else {
+			atual.setEstado(novo.getEstado());
+			atual.setCidade(novo.getCidade());
+			atual.setBairro(novo.getBairro());
+			atual.setRua(novo.getRua());
+			atual.setNumero(novo.getNumero());
+			atual.setCodigoPostal(novo.getCodigoPostal());
+			atual.setInformacoesAdicionais(novo.getInformacoesAdicionais());
+		}
+	}
+}
@@ -0,0 +1,270 @@
+package com.autobots.automanager.servicos;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.modelo.ClienteCsv;
+import com.autobots.automanager.repositorios.ClienteRepository;
+import com.autobots.automanager.tarefas.PastaTarefa;
+import com.autobots.automanager.tarefas.SituacaoTarefa;
+import com.autobots.automanager.tarefas.Tarefa;
+import com.autobots.automanager.tarefas.TarefaRegistro;
+
+/**
+ * Exporta a base de clientes de um inquilino para CSV em segundo plano.
+ *
+ * Os ids do próprio inquilino são percorridos por keyset (id > último, em ordem, um lote
+ * por página), já que a sequência é compartilhada entre inquilinos e a faixa [1, maior
+ * id] teria muitos buracos. Cada página vira um arquivo parte-N.csv, gravado em paralelo
+ * com as seguintes; quando a parte mais antiga termina, o checkpoint guarda quantas
+ * partes estão prontas, o último id delas e quantos clientes somam. Retomar uma
+ * exportação interrompida continua dali. Ao final as partes são concatenadas em
+ * clientes.csv.
+ */
+@Service
+public class ExportacaoServico {
+
+	public static final String TIPO = "exportacao";
+
+	private static final String ARQUIVO = "clientes.csv";
+	private static final String CHECKPOINT = "checkpoint";
+
+	@Autowired
+	private ClienteRepository repositorio;
+	@Autowired
+	private TarefaRegistro registro;
+	@Autowired
+	private PlatformTransactionManager transacoes;
+	@Autowired
+	@Qualifier("executorTarefas")
+	private ThreadPoolTaskExecutor executorTarefas;
+	@Autowired
+	@Qualifier("executorLotes")
+	private ThreadPoolTaskExecutor executorLotes;
+
+	@Value("${automanager.exportacao.tamanho-lote:500}")
+	private int tamanhoLote;
+	@Value("${automanager.tarefas.paralelismo:2}")
+	private int paralelismo;
+
+	private final ClienteCsv csv = new ClienteCsv();
+
+	private final PastaTarefa pastas;
+
+	public ExportacaoServico(@Value("${automanager.exportacao.diretorio:exportacoes}") String diretorio) {
+		this.pastas = new PastaTarefa(diretorio);
+	}
+
+	public Tarefa iniciar(String inquilino) throws IOException {
+		Tarefa tarefa = registro.criar(TIPO, inquilino);
+
+		Properties manifesto = new Properties();
+		manifesto.setProperty("inquilino", inquilino);
+		manifesto.setProperty("tamanhoLote", String.valueOf(tamanhoLote));
+		manifesto.setProperty("total", String.valueOf(repositorio.countByInquilino(inquilino)));
+
+		Path pasta = pastas.criar(tarefa.getId(), manifesto);
+		agendar(tarefa, pasta, manifesto);
+		return tarefa;
+	}
+
+	/** Retoma uma exportação a partir das partes já gravadas, inclusive após reinício do serviço. */
+	public Optional<Tarefa> retomar(String id, String inquilino) throws IOException {
+		Optional<Tarefa> existente = registro.buscar(id, TIPO, inquilino);
+		if (existente.isPresent() && existente.get().getSituacao() != SituacaoTarefa.FALHOU) {
+			return existente;
+		}
+		Optional<Properties> manifesto = pastas.manifesto(id, inquilino);
+		if (manifesto.isEmpty()) {
+			return Optional.empty();
+		}
+		Tarefa tarefa = registro.registrar(new Tarefa(id, TIPO, inquilino));
+		agendar(tarefa, pastas.pasta(id), manifesto.get());
+		return Optional.of(tarefa);
+	}
+
+	public Optional<Path> arquivo(String id, String inquilino) throws IOException {
+		if (pastas.manifesto(id, inquilino).isEmpty()) {
+			return Optional.empty();
+		}
+		Path arquivo = pastas.pasta(id).resolve(ARQUIVO);
+		return Files.exists(arquivo) ? Optional.of(arquivo) : Optional.empty();
+	}
+
+	private void agendar(Tarefa tarefa, Path pasta, Properties manifesto) {
+		String inquilino = manifesto.getProperty("inquilino");
+		int lote = Integer.parseInt(manifesto.getProperty("tamanhoLote"));
+		tarefa.setTotal(Long.parseLong(manifesto.getProperty("total")));
+		try {
+			executorTarefas.execute(() -> executar(tarefa, pasta, inquilino, lote));
+		} catch (TaskRejectedException e) {
+			// sem isto a tarefa ficaria PENDENTE para sempre e retomar() não a agendaria de novo
+			tarefa.falhar("Executor de tarefas cheio; tente retomar mais tarde");
+			throw e;
+		}
+	}
+
+	private void executar(Tarefa tarefa, Path pasta, String inquilino, int lote) {
+		tarefa.iniciar();
+		try {
+			Properties checkpoint = lerCheckpoint(pasta);
+			long numero = Long.parseLong(checkpoint.getProperty("partes", "0"));
+			long ultimo = Long.parseLong(checkpoint.getProperty("ultimoId", "0"));
+			long processados = Long.parseLong(checkpoint.getProperty("processados", "0"));
+			tarefa.somarProcessados(processados);
+
+			Deque<Parte> janela = new ArrayDeque<>();
+			List<Long> ids;
+			do {
+				ids = repositorio.findIdsApos(inquilino, ultimo, PageRequest.of(0, lote));
+				if (ids.isEmpty()) {
+					break;
+				}
+				long inicio = ids.get(0);
+				long fim = ids.get(ids.size() - 1);
+				Path parte = parte(pasta, numero);
+				janela.add(new Parte(numero, fim, executorLotes.submit(() -> escreverLote(tarefa, parte, inquilino, inicio, fim))));
+				numero++;
+				ultimo = fim;
+				if (janela.size() > paralelismo) {
+					processados = concluirParte(pasta, janela.poll(), processados);
+				}
+			} while (ids.size() == lote);
+			while (!janela.isEmpty()) {
+				processados = concluirParte(pasta, janela.poll(), processados);
+			}
+			juntar(pasta, numero);
+			tarefa.concluir();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			tarefa.falhar("Exportação interrompida");
+		} catch (ExecutionException e) {
+			tarefa.falhar(e.getCause().getMessage());
+		} catch (IOException | RuntimeException e) {
+			tarefa.falhar(e.getMessage());
+		}
+	}
+
+	/** Espera a parte mais antiga e avança o checkpoint até ela; as partes terminam em ordem no checkpoint. */
+	private long concluirParte(Path pasta, Parte parte, long processados) throws InterruptedException, ExecutionException {
+		long total = processados + parte.clientes.get();
+		Properties checkpoint = new Properties();
+		checkpoint.setProperty("partes", Long.toString(parte.numero + 1));
+		checkpoint.setProperty("ultimoId", Long.toString(parte.ultimoId));
+		checkpoint.setProperty("processados", Long.toString(total));
+		salvarCheckpoint(pasta, checkpoint);
+		return total;
+	}
+
+	private Properties lerCheckpoint(Path pasta) throws IOException {
+		Properties checkpoint = new Properties();
+		Path arquivo = pasta.resolve(CHECKPOINT);
+		if (Files.exists(arquivo)) {
+			try (Reader entrada = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+				checkpoint.load(entrada);
+			}
+		}
+		return checkpoint;
+	}
+
+	private void salvarCheckpoint(Path pasta, Properties checkpoint) {
+		try {
+			Path temporario = pasta.resolve(CHECKPOINT + ".tmp");
+			try (Writer saida = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+				checkpoint.store(saida, null);
+			}
+			Files.move(temporario, pasta.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private int escreverLote(Tarefa tarefa, Path parte, String inquilino, long inicio, long fim) {
+		TransactionTemplate leitura = new TransactionTemplate(transacoes);
+		leitura.setReadOnly(true);
+		List<Cliente> clientes = leitura.execute(status -> {
+			List<Cliente> faixa = repositorio.findFaixa(inquilino, inicio, fim);
+			if (!faixa.isEmpty()) {
+				repositorio.carregarDocumentos(faixa);
+				repositorio.carregarTelefones(faixa);
+			}
+			return faixa;
+		});
+
+		Path temporario = parte.resolveSibling(parte.getFileName() + ".tmp");
+		try {
+			try (BufferedWriter saida = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+				for (Cliente cliente : clientes) {
+					saida.write(csv.escrever(cliente));
+				}
+			}
+			// uma parte gravada depois do último checkpoint é refeita ao retomar
+			Files.move(temporario, parte, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		tarefa.somarProcessados(clientes.size());
+		return clientes.size();
+	}
+
+	private void juntar(Path pasta, long lotes) throws IOException {
+		Path temporario = pasta.resolve(ARQUIVO + ".tmp");
+		try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			destino.write(StandardCharsets.UTF_8.encode(ClienteCsv.CABECALHO + "\n"));
+			for (long numero = 0; numero < lotes; numero++) {
+				try (FileChannel origem = FileChannel.open(parte(pasta, numero), StandardOpenOption.READ)) {
+					long posicao = 0;
+					long tamanho = origem.size();
+					while (posicao < tamanho) {
+						posicao += origem.transferTo(posicao, tamanho - posicao, destino);
+					}
+				}
+			}
+		}
+		Files.move(temporario, pasta.resolve(ARQUIVO), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private Path parte(Path pasta, long numero) {
+		return pasta.resolve(String.format("parte-%08d.csv", numero));
+	}
+
+	private static class Parte {
+		private final long numero;
+		private final long ultimoId;
+		private final Future<Integer> clientes;
+
+		Parte(long numero, long ultimoId, Future<Integer> clientes) {
+			this.numero = numero;
+			this.ultimoId = ultimoId;
+			this.clientes = clientes;
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package com.autobots.automanager.servicos;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
+import com.autobots.automanager.repositorios.ClienteRepository;
+import com.autobots.automanager.repositorios.DocumentoRepository;
+import com.autobots.automanager.repositorios.EnderecoRepository;
+import com.autobots.automanager.repositorios.TelefoneRepository;
+import com.autobots.automanager.tarefas.Tarefa;
+import com.autobots.automanager.tarefas.TarefaRegistro;
+
+/**
+ * Expurgo em lote de agregados de cliente, por lista de ids ou por data de cadastro.
+ *
+ * Cada lote é excluído numa transação própria com comandos por conjunto, na ordem das
+ * chaves estrangeiras: primeiro documentos e telefones (que referenciam o cliente por
+ * cliente_id), depois os clientes e por fim os endereços (referenciados pelo cliente).
+ * Ao final de cada lote é publicado um evento de remoção por cliente, que
+ * mantém os modelos em memória consistentes.
+ */
+@Service
+public class ExpurgoServico {
+
+	public static final String TIPO = "expurgo";
+
+	@Autowired
+	private ClienteRepository repositorio;
+	@Autowired
+	private DocumentoRepository documentoRepositorio;
+	@Autowired
+	private TelefoneRepository telefoneRepositorio;
+	@Autowired
+	private EnderecoRepository enderecoRepositorio;
+	@Autowired
+	private TarefaRegistro registro;
+	@Autowired
+	private PlatformTransactionManager transacoes;
+	@Autowired
+	private ApplicationEventPublisher publicador;
+	@Autowired
+	@Qualifier("executorTarefas")
+	private ThreadPoolTaskExecutor executorTarefas;
+
+	@Value("${automanager.expurgo.tamanho-lote:500}")
+	private int tamanhoLote;
+
+	public Tarefa porIds(String inquilino, List<Long> ids) {
+		Tarefa tarefa = registro.criar(TIPO, inquilino);
+		List<Long> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+		tarefa.setTotal(unicos.size());
+		agendar(tarefa, () -> {
+			for (int inicio = 0; inicio < unicos.size(); inicio += tamanhoLote) {
+				List<Long> lote = unicos.subList(inicio, Math.min(inicio + tamanhoLote, unicos.size()));
+				excluir(tarefa, inquilino, repositorio.findIdsDoInquilino(inquilino, lote));
+			}
+		});
+		return tarefa;
+	}
+
+	public Tarefa porDataCadastro(String inquilino, Date dataCadastroAte) {
+		Tarefa tarefa = registro.criar(TIPO, inquilino);
+		tarefa.setTotal(repositorio.countCadastradosAntes(inquilino, dataCadastroAte));
+		agendar(tarefa, () -> {
+			long apos = 0;
+			List<Long> lote;
+			while (!(lote = repositorio.findIdsCadastradosAntes(inquilino, dataCadastroAte, apos,
+					PageRequest.of(0, tamanhoLote))).isEmpty()) {
+				excluir(tarefa, inquilino, lote);
+				apos = lote.get(lote.size() - 1);
+			}
+		});
+		return tarefa;
+	}
+
+	private void agendar(Tarefa tarefa, Runnable lotes) {
+		try {
+			executorTarefas.execute(() -> executar(tarefa, lotes));
+		} catch (TaskRejectedException e) {
+			tarefa.falhar("Executor de tarefas cheio");
+			throw e;
+		}
+	}
+
+	private void executar(Tarefa tarefa, Runnable lotes) {
+		tarefa.iniciar();
+		try {
+			lotes.run();
+			tarefa.concluir();
+		} catch (RuntimeException e) {
+			tarefa.falhar(e.getMessage());
+		}
+	}
+
+	private void excluir(Tarefa tarefa, String inquilino, List<Long> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		new TransactionTemplate(transacoes).executeWithoutResult(status -> {
+			List<Long> documentos = repositorio.findDocumentoIds(ids);
+			List<Long> telefones = repositorio.findTelefoneIds(ids);
+			List<Long> enderecos = repositorio.findEnderecoIds(ids);
+			// documentos e telefones referenciam o cliente; o cliente referencia o endereço
+			if (!documentos.isEmpty()) {
+				documentoRepositorio.excluirEmLote(documentos);
+			}
+			if (!telefones.isEmpty()) {
+				telefoneRepositorio.excluirEmLote(telefones);
+			}
+			repositorio.excluirEmLote(ids);
+			if (!enderecos.isEmpty()) {
+				enderecoRepositorio.excluirEmLote(enderecos);
+			}
+		});
+		for (Long id : ids) {
+			publicador.publishEvent(ClienteAlteradoEvento.removido(id, inquilino));
+		}
+		tarefa.somarProcessados(ids.size());
+	}
+}
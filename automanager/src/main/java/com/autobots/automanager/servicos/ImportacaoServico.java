@@ -0,0 +1,312 @@
+package com.autobots.automanager.servicos;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.entidades.Documento;
+import com.autobots.automanager.entidades.Telefone;
+import com.autobots.automanager.entrada.ClienteEntrada;
+import com.autobots.automanager.entrada.ValidadorCliente;
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
+import com.autobots.automanager.modelo.ClienteCsv;
+import com.autobots.automanager.modelo.InquilinoContexto;
+import com.autobots.automanager.modelo.LeitorRegistros;
+import com.autobots.automanager.repositorios.ClienteRepository;
+import com.autobots.automanager.repositorios.DocumentoRepository;
+import com.autobots.automanager.tarefas.PastaTarefa;
+import com.autobots.automanager.tarefas.SituacaoTarefa;
+import com.autobots.automanager.tarefas.Tarefa;
+import com.autobots.automanager.tarefas.TarefaRegistro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Importa clientes de um arquivo CSV (formato do ClienteCsv) ou JSON Lines (um cliente
+ * por linha) em segundo plano.
+ *
+ * O arquivo é lido em fluxo e dividido em lotes de registros (no CSV, um registro pode
+ * ocupar várias linhas quando um campo entre aspas tem quebras de linha); a conversão e
+ * validação dos lotes roda em paralelo, mas a gravação é feita em ordem, um lote por
+ * transação. Após cada gravação o número do último registro gravado vai para o arquivo
+ * de checkpoint, de onde uma importação interrompida é retomada. Cada registro passa
+ * pelo ValidadorCliente, com as mesmas regras e mensagens de POST /cliente; os
+ * rejeitados vão para erros.csv, com a linha do arquivo em que começam.
+ */
+@Service
+public class ImportacaoServico {
+
+	public static final String TIPO = "importacao";
+
+	private static final String ENTRADA = "entrada";
+	private static final String CHECKPOINT = "checkpoint";
+	private static final String ERROS = "erros.csv";
+
+	@Autowired
+	private ClienteRepository repositorio;
+	@Autowired
+	private DocumentoRepository documentoRepositorio;
+	@Autowired
+	private TarefaRegistro registro;
+	@Autowired
+	private PlatformTransactionManager transacoes;
+	@Autowired
+	private ObjectMapper mapeador;
+	@Autowired
+	private ApplicationEventPublisher publicador;
+	@Autowired
+	@Qualifier("executorTarefas")
+	private ThreadPoolTaskExecutor executorTarefas;
+	@Autowired
+	@Qualifier("executorLotes")
+	private ThreadPoolTaskExecutor executorLotes;
+
+	@Value("${automanager.importacao.tamanho-lote:500}")
+	private int tamanhoLote;
+	@Value("${automanager.tarefas.paralelismo:2}")
+	private int paralelismo;
+
+	private final ClienteCsv csv = new ClienteCsv();
+
+	private final PastaTarefa pastas;
+
+	public ImportacaoServico(@Value("${automanager.importacao.diretorio:importacoes}") String diretorio) {
+		this.pastas = new PastaTarefa(diretorio);
+	}
+
+	public Tarefa iniciar(String inquilino, String formato, InputStream conteudo) throws IOException {
+		Tarefa tarefa = registro.criar(TIPO, inquilino);
+
+		Properties manifesto = new Properties();
+		manifesto.setProperty("inquilino", inquilino);
+		manifesto.setProperty("formato", formato);
+		Path pasta = pastas.criar(tarefa.getId(), manifesto);
+		Files.copy(conteudo, pasta.resolve(ENTRADA), StandardCopyOption.REPLACE_EXISTING);
+
+		agendar(tarefa, pasta, manifesto);
+		return tarefa;
+	}
+
+	/** Retoma uma importação a partir do último lote gravado, inclusive após reinício do serviço. */
+	public Optional<Tarefa> retomar(String id, String inquilino) throws IOException {
+		Optional<Tarefa> existente = registro.buscar(id, TIPO, inquilino);
+		if (existente.isPresent() && existente.get().getSituacao() != SituacaoTarefa.FALHOU) {
+			return existente;
+		}
+		Optional<Properties> manifesto = pastas.manifesto(id, inquilino);
+		if (manifesto.isEmpty()) {
+			return Optional.empty();
+		}
+		Tarefa tarefa = registro.registrar(new Tarefa(id, TIPO, inquilino));
+		agendar(tarefa, pastas.pasta(id), manifesto.get());
+		return Optional.of(tarefa);
+	}
+
+	public Optional<Path> erros(String id, String inquilino) throws IOException {
+		if (pastas.manifesto(id, inquilino).isEmpty()) {
+			return Optional.empty();
+		}
+		Path erros = pastas.pasta(id).resolve(ERROS);
+		return Files.exists(erros) ? Optional.of(erros) : Optional.empty();
+	}
+
+	private void agendar(Tarefa tarefa, Path pasta, Properties manifesto) {
+		String inquilino = manifesto.getProperty("inquilino");
+		boolean json = "json".equals(manifesto.getProperty("formato"));
+		try {
+			executorTarefas.execute(() -> executar(tarefa, pasta, inquilino, json));
+		} catch (TaskRejectedException e) {
+			tarefa.falhar("Executor de tarefas cheio; tente retomar mais tarde");
+			throw e;
+		}
+	}
+
+	private void executar(Tarefa tarefa, Path pasta, String inquilino, boolean json) {
+		tarefa.iniciar();
+		InquilinoContexto.setInquilino(inquilino);
+		try {
+			long gravados = lerCheckpoint(pasta);
+			Set<String> numeros = ConcurrentHashMap.newKeySet();
+			numeros.addAll(documentoRepositorio.findNumeros(inquilino));
+
+			boolean semErros = !Files.exists(pasta.resolve(ERROS));
+			try (LeitorRegistros entrada = new LeitorRegistros(
+					Files.newBufferedReader(pasta.resolve(ENTRADA), StandardCharsets.UTF_8), !json);
+					BufferedWriter erros = Files.newBufferedWriter(pasta.resolve(ERROS), StandardCharsets.UTF_8,
+							StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+				if (semErros) {
+					erros.write("linha,mensagem");
+					erros.newLine();
+				}
+				Deque<Future<Lote>> janela = new ArrayDeque<>();
+				List<String> linhas = new ArrayList<>(tamanhoLote);
+				List<Long> numerosLinha = new ArrayList<>(tamanhoLote);
+				String linha;
+				while ((linha = entrada.proximo()) != null) {
+					if (entrada.getRegistros() <= gravados || linha.isBlank() || (!json && linha.startsWith("id,"))) {
+						continue;
+					}
+					linhas.add(linha);
+					numerosLinha.add(entrada.getLinhaInicial());
+					if (linhas.size() == tamanhoLote) {
+						janela.add(converter(linhas, numerosLinha, entrada.getRegistros(), json));
+						linhas = new ArrayList<>(tamanhoLote);
+						numerosLinha = new ArrayList<>(tamanhoLote);
+						if (janela.size() > paralelismo) {
+							gravar(tarefa, pasta, janela.poll().get(), numeros, erros);
+						}
+					}
+				}
+				if (!linhas.isEmpty()) {
+					janela.add(converter(linhas, numerosLinha, entrada.getRegistros(), json));
+				}
+				while (!janela.isEmpty()) {
+					gravar(tarefa, pasta, janela.poll().get(), numeros, erros);
+				}
+				salvarCheckpoint(pasta, entrada.getRegistros());
+			}
+			tarefa.concluir();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			tarefa.falhar("Importação interrompida");
+		} catch (ExecutionException e) {
+			tarefa.falhar(e.getCause().getMessage());
+		} catch (IOException | RuntimeException e) {
+			tarefa.falhar(e.getMessage());
+		} finally {
+			InquilinoContexto.limpar();
+		}
+	}
+
+	private Future<Lote> converter(List<String> linhas, List<Long> numerosLinha, long ultimoRegistro, boolean json) {
+		return executorLotes.submit(() -> {
+			Lote lote = new Lote(ultimoRegistro);
+			for (int i = 0; i < linhas.size(); i++) {
+				try {
+					ClienteEntrada entrada = json ? mapeador.readValue(linhas.get(i), ClienteEntrada.class)
+							: csv.ler(linhas.get(i));
+					ValidadorCliente.validarCriacao(entrada);
+					lote.clientes.add(semIds(entrada.paraEntidade()));
+					lote.linhas.add(numerosLinha.get(i));
+				} catch (Exception e) {
+					lote.erro(numerosLinha.get(i), e.getMessage());
+				}
+			}
+			return lote;
+		});
+	}
+
+	/** Os registros viram clientes novos: ids vindos do arquivo (de uma exportação, por exemplo) são ignorados. */
+	private static Cliente semIds(Cliente cliente) {
+		cliente.setId(null);
+		for (Documento documento : cliente.getDocumentos()) {
+			documento.setId(null);
+		}
+		for (Telefone telefone : cliente.getTelefones()) {
+			telefone.setId(null);
+		}
+		if (cliente.getEndereco() != null) {
+			cliente.getEndereco().setId(null);
+		}
+		return cliente;
+	}
+
+	/** Grava um lote em uma transação, descartando clientes com número de documento repetido. */
+	private void gravar(Tarefa tarefa, Path pasta, Lote lote, Set<String> numeros, BufferedWriter erros) throws IOException {
+		List<Cliente> novos = new ArrayList<>(lote.clientes.size());
+		List<String> reservados = new ArrayList<>();
+		for (int i = 0; i < lote.clientes.size(); i++) {
+			Cliente cliente = lote.clientes.get(i);
+			List<String> doCliente = new ArrayList<>();
+			boolean repetido = false;
+			for (Documento documento : cliente.getDocumentos()) {
+				if (!numeros.add(documento.getNumero())) {
+					repetido = true;
+					break;
+				}
+				doCliente.add(documento.getNumero());
+			}
+			if (repetido) {
+				numeros.removeAll(doCliente);
+				lote.erro(lote.linhas.get(i), "Documento duplicado");
+			} else {
+				reservados.addAll(doCliente);
+				novos.add(cliente);
+			}
+		}
+
+		try {
+			new TransactionTemplate(transacoes).executeWithoutResult(status -> repositorio.saveAll(novos));
+		} catch (RuntimeException e) {
+			numeros.removeAll(reservados);
+			throw e;
+		}
+		for (Cliente cliente : novos) {
+			publicador.publishEvent(ClienteAlteradoEvento.criado(cliente));
+		}
+		for (String erro : lote.erros) {
+			erros.write(erro);
+			erros.newLine();
+		}
+		erros.flush();
+		salvarCheckpoint(pasta, lote.ultimoRegistro);
+		tarefa.somarProcessados(novos.size());
+		tarefa.somarErros(lote.erros.size());
+	}
+
+	private long lerCheckpoint(Path pasta) throws IOException {
+		Path checkpoint = pasta.resolve(CHECKPOINT);
+		return Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+	}
+
+	private void salvarCheckpoint(Path pasta, long registro) {
+		try {
+			Path temporario = pasta.resolve(CHECKPOINT + ".tmp");
+			Files.writeString(temporario, Long.toString(registro));
+			Files.move(temporario, pasta.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static class Lote {
+		private final long ultimoRegistro;
+		private final List<Cliente> clientes = new ArrayList<>();
+		private final List<Long> linhas = new ArrayList<>();
+		private final List<String> erros = new ArrayList<>();
+
+		Lote(long ultimoRegistro) {
+			this.ultimoRegistro = ultimoRegistro;
+		}
+
+		void erro(long linha, String mensagem) {
+			erros.add(linha + ",\"" + String.valueOf(mensagem).replace("\"", "\"\"") + "\"");
+		}
+	}
+}
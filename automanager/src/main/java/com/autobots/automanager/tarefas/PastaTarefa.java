@@ -0,0 +1,56 @@
+package com.autobots.automanager.tarefas;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Pasta em disco de uma tarefa retomável. O manifesto guarda os parâmetros da tarefa
+ * e o inquilino dono, permitindo retomá-la mesmo depois de um reinício do serviço.
+ */
+public class PastaTarefa {
+
+	private static final String MANIFESTO = "manifesto.properties";
+	private static final Pattern ID_TAREFA = Pattern.compile("[0-9a-f-]{36}");
+
+	private final Path base;
+
+	public PastaTarefa(String diretorio) {
+		this.base = Paths.get(diretorio);
+	}
+
+	public Path pasta(String id) {
+		return base.resolve(id);
+	}
+
+	public Path criar(String id, Properties manifesto) throws IOException {
+		Path pasta = pasta(id);
+		Files.createDirectories(pasta);
+		try (Writer saida = Files.newBufferedWriter(pasta.resolve(MANIFESTO))) {
+			manifesto.store(saida, null);
+		}
+		return pasta;
+	}
+
+	/** Lê o manifesto da tarefa; vazio se a tarefa não existe ou é de outro inquilino. */
+	public Optional<Properties> manifesto(String id, String inquilino) throws IOException {
+		if (!ID_TAREFA.matcher(id).matches()) {
+			return Optional.empty();
+		}
+		Path caminho = pasta(id).resolve(MANIFESTO);
+		if (!Files.exists(caminho)) {
+			return Optional.empty();
+		}
+		Properties manifesto = new Properties();
+		try (Reader entrada = Files.newBufferedReader(caminho)) {
+			manifesto.load(entrada);
+		}
+		return inquilino.equals(manifesto.getProperty("inquilino")) ? Optional.of(manifesto) : Optional.empty();
+	}
+}
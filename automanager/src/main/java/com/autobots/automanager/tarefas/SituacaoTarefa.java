@@ -0,0 +1,5 @@
+package com.autobots.automanager.tarefas;
+
+public enum SituacaoTarefa {
+	PENDENTE, EXECUTANDO, CONCLUIDA, FALHOU
+}
@@ -0,0 +1,116 @@
+package com.autobots.automanager.tarefas;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Estado de uma tarefa em segundo plano (exportação, importação, expurgo).
+ * Os contadores são atualizados pelas threads de trabalho e lidos pelo polling de status.
+ */
+public class Tarefa {
+
+	private final String id;
+	private final String tipo;
+	private final String inquilino;
+	private volatile SituacaoTarefa situacao = SituacaoTarefa.PENDENTE;
+	private volatile Instant inicio;
+	private volatile Instant fim;
+	private volatile String mensagem;
+	private volatile long total;
+	private final AtomicLong processados = new AtomicLong();
+	private final AtomicLong erros = new AtomicLong();
+
+	public Tarefa(String id, String tipo, String inquilino) {
+		this.id = id;
+		this.tipo = tipo;
+		this.inquilino = inquilino;
+	}
+
+	public void iniciar() {
+		inicio = Instant.now();
+		fim = null;
+		mensagem = null;
+		situacao = SituacaoTarefa.EXECUTANDO;
+	}
+
+	public void concluir() {
+		fim = Instant.now();
+		situacao = SituacaoTarefa.CONCLUIDA;
+	}
+
+	public void falhar(String mensagem) {
+		this.mensagem = mensagem;
+		fim = Instant.now();
+		situacao = SituacaoTarefa.FALHOU;
+	}
+
+	public void somarProcessados(long quantidade) {
+		processados.addAndGet(quantidade);
+	}
+
+	public void somarErros(long quantidade) {
+		erros.addAndGet(quantidade);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getTipo() {
+		return tipo;
+	}
+
+	@JsonIgnore
+	public String getInquilino() {
+		return inquilino;
+	}
+
+	public SituacaoTarefa getSituacao() {
+		return situacao;
+	}
+
+	public Instant getInicio() {
+		return inicio;
+	}
+
+	public Instant getFim() {
+		return fim;
+	}
+
+	public String getMensagem() {
+		return mensagem;
+	}
+
+	public void setMensagem(String mensagem) {
+		this.mensagem = mensagem;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	public long getProcessados() {
+		return processados.get();
+	}
+
+	public long getErros() {
+		return erros.get();
+	}
+
+	/** Registros processados por segundo desde o início da tarefa. */
+	public double getVazao() {
+		Instant comeco = inicio;
+		if (comeco == null) {
+			return 0;
+		}
+		long millis = Duration.between(comeco, fim == null ? Instant.now() : fim).toMillis();
+		return millis == 0 ? 0 : processados.get() * 1000.0 / millis;
+	}
+}
@@ -0,0 +1,38 @@
+package com.autobots.automanager.tarefas;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class TarefaRegistro {
+
+	private static final Duration RETENCAO = Duration.ofHours(24);
+
+	private final Map<String, Tarefa> tarefas = new ConcurrentHashMap<>();
+
+	public Tarefa criar(String tipo, String inquilino) {
+		return registrar(new Tarefa(UUID.randomUUID().toString(), tipo, inquilino));
+	}
+
+	public Tarefa registrar(Tarefa tarefa) {
+		Instant limite = Instant.now().minus(RETENCAO);
+		tarefas.values().removeIf(antiga -> antiga.getFim() != null && antiga.getFim().isBefore(limite));
+		tarefas.put(tarefa.getId(), tarefa);
+		return tarefa;
+	}
+
+	/** Busca a tarefa garantindo que pertence ao inquilino informado. */
+	public Optional<Tarefa> buscar(String id, String tipo, String inquilino) {
+		Tarefa tarefa = tarefas.get(id);
+		if (tarefa == null || !tarefa.getTipo().equals(tipo) || !tarefa.getInquilino().equals(inquilino)) {
+			return Optional.empty();
+		}
+		return Optional.of(tarefa);
+	}
+}
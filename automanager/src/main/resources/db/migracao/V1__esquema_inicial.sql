@@ -0,0 +1,69 @@
+-- Esquema criado até aqui pelo ddl-auto=update: filhos ligados ao cliente por tabelas de junção.
+-- Bancos que já têm essas tabelas registram esta versão como linha de base, sem executá-la.
+create sequence cliente_seq start with 1 increment by 50;
+create sequence documento_seq start with 1 increment by 50;
+create sequence endereco_seq start with 1 increment by 50;
+create sequence telefone_seq start with 1 increment by 50;
+
+create table endereco (
+    id bigint not null,
+    inquilino varchar(40) not null,
+    estado varchar(255),
+    cidade varchar(255) not null,
+    bairro varchar(255),
+    rua varchar(255) not null,
+    numero varchar(255) not null,
+    codigo_postal varchar(255),
+    informacoes_adicionais varchar(255),
+    primary key (id)
+);
+
+create table cliente (
+    id bigint not null,
+    inquilino varchar(40) not null,
+    nome varchar(255),
+    nome_social varchar(255),
+    data_nascimento timestamp,
+    data_cadastro timestamp,
+    endereco_id bigint,
+    primary key (id),
+    constraint fk_cliente_endereco foreign key (endereco_id) references endereco (id)
+);
+
+create table documento (
+    id bigint not null,
+    inquilino varchar(40) not null,
+    tipo varchar(255),
+    numero varchar(255),
+    primary key (id),
+    constraint uk_documento_inquilino_numero unique (inquilino, numero)
+);
+
+create table telefone (
+    id bigint not null,
+    inquilino varchar(40) not null,
+    ddd varchar(255),
+    numero varchar(255),
+    primary key (id)
+);
+
+create table cliente_documentos (
+    cliente_id bigint not null,
+    documentos_id bigint not null,
+    constraint uk_cliente_documentos_documento unique (documentos_id),
+    constraint fk_cliente_documentos_cliente foreign key (cliente_id) references cliente (id),
+    constraint fk_cliente_documentos_documento foreign key (documentos_id) references documento (id)
+);
+
+create table cliente_telefones (
+    cliente_id bigint not null,
+    telefones_id bigint not null,
+    constraint uk_cliente_telefones_telefone unique (telefones_id),
+    constraint fk_cliente_telefones_cliente foreign key (cliente_id) references cliente (id),
+    constraint fk_cliente_telefones_telefone foreign key (telefones_id) references telefone (id)
+);
+
+create index idx_cliente_inquilino on cliente (inquilino, id);
+create index idx_documento_inquilino on documento (inquilino, id);
+create index idx_endereco_inquilino on endereco (inquilino, id);
+create index idx_telefone_inquilino on telefone (inquilino, id);
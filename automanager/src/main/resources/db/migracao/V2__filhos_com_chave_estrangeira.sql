@@ -0,0 +1,26 @@
+-- Documentos e telefones passam a apontar para o cliente por uma coluna cliente_id
+-- indexada, no lugar das tabelas de junção: descobrir o dono de um filho vira uma
+-- busca por índice e incluir ou remover um filho grava uma única linha.
+alter table documento add column cliente_id bigint;
+update documento d set cliente_id = (select j.cliente_id from cliente_documentos j where j.documentos_id = d.id);
+
+alter table telefone add column cliente_id bigint;
+update telefone t set cliente_id = (select j.cliente_id from cliente_telefones j where j.telefones_id = t.id);
+
+drop table cliente_documentos;
+drop table cliente_telefones;
+
+-- Os índices vêm antes das chaves estrangeiras para que elas usem estes índices
+-- em vez de criar índices próprios (o H2 cria um quando não encontra nenhum).
+create index idx_documento_cliente on documento (cliente_id);
+create index idx_telefone_cliente on telefone (cliente_id);
+create index idx_cliente_endereco on cliente (endereco_id);
+
+alter table documento add constraint fk_documento_cliente foreign key (cliente_id) references cliente (id);
+alter table telefone add constraint fk_telefone_cliente foreign key (cliente_id) references cliente (id);
+
+-- Recria a chave do endereço sobre o índice explícito. Nos bancos criados pelo
+-- ddl-auto ela tem o nome gerado pelo Hibernate.
+alter table cliente drop constraint if exists fk64nr9yt889by5lufr1boo5i4s;
+alter table cliente drop constraint if exists fk_cliente_endereco;
+alter table cliente add constraint fk_cliente_endereco foreign key (endereco_id) references endereco (id);
@@ -0,0 +1,4 @@
+-- Buscas por número de documento, por telefone e por localidade.
+create index idx_documento_numero on documento (numero);
+create index idx_telefone_ddd_numero on telefone (ddd, numero);
+create index idx_endereco_cidade_estado on endereco (cidade, estado);
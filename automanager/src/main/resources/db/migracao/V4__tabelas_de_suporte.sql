@@ -0,0 +1,20 @@
+-- Batimento usado para medir o atraso da réplica de leitura.
+create table replica_batimento (
+    id int not null,
+    instante bigint not null,
+    primary key (id)
+);
+
+-- Respostas guardadas por Idempotency-Key (automanager.idempotencia.persistente).
+create table idempotencia_resposta (
+    chave varchar(400) not null,
+    impressao varchar(64) not null,
+    status int not null,
+    tipo_conteudo varchar(200),
+    localizacao varchar(2000),
+    corpo blob not null,
+    expira bigint not null,
+    primary key (chave)
+);
+
+create index idx_idempotencia_resposta_expira on idempotencia_resposta (expira);
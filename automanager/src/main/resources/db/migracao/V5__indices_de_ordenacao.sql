@@ -0,0 +1,4 @@
+-- Filtros e ordenação de GET /cliente: por nome e por data de cadastro dentro do
+-- inquilino, com o id no fim para a paginação por cursor seguir o índice.
+create index idx_cliente_inquilino_nome on cliente (inquilino, nome, id);
+create index idx_cliente_inquilino_cadastro on cliente (inquilino, data_cadastro, id);
@@ -0,0 +1,45 @@
+package com.autobots.automanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.autobots.automanager.eventos.ClienteAlteradoEvento;
+import com.autobots.automanager.leitura.CoalescedorClientes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Uma alteração publicada enquanto a carga de um cliente ainda executa não pode deixar
+ * o resultado antigo ser reaproveitado: a próxima requisição carrega de novo.
+ */
+class CoalescedorClientesTests {
+
+	@Test
+	void alteracaoDuranteACargaForcaNovaCarga() {
+		CoalescedorClientes coalescedor = new CoalescedorClientes(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(coalescedor, "habilitada", true);
+		ReflectionTestUtils.setField(coalescedor, "validade", Duration.ofMinutes(1));
+		ReflectionTestUtils.setField(coalescedor, "maxClientes", 100);
+		AtomicInteger cargas = new AtomicInteger();
+
+		byte[] primeira = coalescedor.obter("padrao", 1, "http://localhost", () -> {
+			cargas.incrementAndGet();
+			coalescedor.aoAlterar(ClienteAlteradoEvento.removido(1, "padrao"));
+			return "antigo".getBytes(StandardCharsets.UTF_8);
+		});
+		byte[] segunda = coalescedor.obter("padrao", 1, "http://localhost", () -> {
+			cargas.incrementAndGet();
+			return "novo".getBytes(StandardCharsets.UTF_8);
+		});
+
+		assertThat(cargas).hasValue(2);
+		assertThat(new String(primeira, StandardCharsets.UTF_8)).isEqualTo("antigo");
+		assertThat(new String(segunda, StandardCharsets.UTF_8)).isEqualTo("novo");
+	}
+}
@@ -0,0 +1,76 @@
+package com.autobots.automanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.autobots.automanager.consulta.CompiladorConsultas;
+import com.autobots.automanager.consulta.ConsultaPreparada;
+import com.autobots.automanager.consulta.FiltroInvalidoException;
+import com.autobots.automanager.entidades.Cliente;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Linguagem de filtro de GET /cliente: filtros da mesma forma compartilham o plano,
+ * os valores nunca entram no JPQL e o cursor continua a ordem em que foi gerado.
+ */
+class CompiladorConsultasTests {
+
+	private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+
+	private final CompiladorConsultas compilador = new CompiladorConsultas(registro, 100, 1000);
+
+	@Test
+	void mesmaFormaReaproveitaPlano() {
+		ConsultaPreparada primeira = compilador.preparar("estado==SP;dataCadastro>2024-01-01", "nome", null);
+		ConsultaPreparada segunda = compilador.preparar(" estado == 'RJ' ; dataCadastro=gt=2023-06-30 ", "nome", null);
+
+		assertThat(segunda.getPlano()).isSameAs(primeira.getPlano());
+		assertThat(primeira.getPlano().getJpql())
+			.contains("e.estado = :p0", "c.dataCadastro >= :p1", "order by c.nome asc nulls first, c.id asc")
+			.doesNotContain("SP", "2024");
+		assertThat(registro.counter("automanager.consulta.planos", "resultado", "compilado").count()).isEqualTo(1);
+		assertThat(registro.counter("automanager.consulta.planos", "resultado", "reaproveitado").count()).isEqualTo(1);
+	}
+
+	@Test
+	void curingaEColecoesMudamAForma() {
+		String exato = compilador.preparar("nome==Ana", null, null).getPlano().getJpql();
+		String curinga = compilador.preparar("nome==Ana*", null, null).getPlano().getJpql();
+		String documento = compilador.preparar("documento.tipo=in=(CPF,RG)", null, null).getPlano().getJpql();
+
+		assertThat(exato).contains("c.nome = :p0");
+		assertThat(curinga).contains("c.nome like :p0 escape");
+		assertThat(documento).contains("exists (select f1.id from Cliente s1 join s1.documentos f1 where s1 = c and f1.tipo in :p0)");
+	}
+
+	@Test
+	void cursorContinuaDepoisDoUltimo() {
+		ConsultaPreparada primeira = compilador.preparar("", "-dataCadastro", null);
+		Cliente ultimo = new Cliente();
+		ultimo.setId(42L);
+		ultimo.setDataCadastro(new Date(0));
+		String cursor = primeira.proximoCursor(ultimo);
+
+		assertThat(compilador.preparar("", "-dataCadastro", cursor).getPlano().getJpql())
+			.contains("((c.dataCadastro < :k0 or c.dataCadastro is null)) or (c.dataCadastro = :k0 and c.id > :k1)");
+		assertThatThrownBy(() -> compilador.preparar("", "nome", cursor)).isInstanceOf(FiltroInvalidoException.class);
+	}
+
+	@Test
+	void formaInvalidaNaoEntraNoCache() {
+		assertThatThrownBy(() -> compilador.preparar("nome==Ana;", null, null))
+			.isInstanceOf(FiltroInvalidoException.class).hasMessageContaining("posição");
+		assertThatThrownBy(() -> compilador.preparar("senha==x", null, null))
+			.isInstanceOf(FiltroInvalidoException.class).hasMessageContaining("Campo desconhecido");
+		assertThat(registro.get("automanager.consulta.planos.cache").gauge().value()).isZero();
+
+		// a forma é válida (e fica em cache); só o valor é recusado
+		assertThatThrownBy(() -> compilador.preparar("dataCadastro==ontem", null, null))
+			.isInstanceOf(FiltroInvalidoException.class).hasMessageContaining("AAAA-MM-DD");
+	}
+}
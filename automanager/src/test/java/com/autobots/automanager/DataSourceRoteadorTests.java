@@ -0,0 +1,77 @@
+package com.autobots.automanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.autobots.automanager.config.DataSourceRoteador;
+import com.autobots.automanager.config.DataSourceRoteador.Destino;
+import com.autobots.automanager.config.MonitorReplica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * GET vai para a réplica em dia; escritas, e qualquer leitura com o batimento da
+ * réplica atrasado, vão para a primária.
+ */
+class DataSourceRoteadorTests {
+
+	@AfterEach
+	void limpar() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void getVaiParaAReplicaEmDia() {
+		DataSource banco = banco("roteador_em_dia");
+		DataSourceRoteador roteador = roteador(banco, banco);
+
+		assertThat(destino(roteador, "GET")).isEqualTo(Destino.REPLICA);
+	}
+
+	@Test
+	void escritaVaiParaAPrimaria() {
+		DataSource banco = banco("roteador_escrita");
+		DataSourceRoteador roteador = roteador(banco, banco);
+
+		assertThat(destino(roteador, "POST")).isEqualTo(Destino.PRIMARIA);
+		assertThat(destino(roteador, "PUT")).isEqualTo(Destino.PRIMARIA);
+		assertThat(destino(roteador, "DELETE")).isEqualTo(Destino.PRIMARIA);
+	}
+
+	@Test
+	void batimentoAtrasadoDevolveGetParaAPrimaria() {
+		DataSource replica = banco("roteador_replica_atrasada");
+		new JdbcTemplate(replica).update("INSERT INTO replica_batimento (id, instante) VALUES (1, 0)");
+		DataSourceRoteador roteador = roteador(banco("roteador_primaria"), replica);
+
+		assertThat(destino(roteador, "GET")).isEqualTo(Destino.PRIMARIA);
+	}
+
+	private static DataSource banco(String nome) {
+		DriverManagerDataSource banco = new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+		new JdbcTemplate(banco).execute(
+				"CREATE TABLE IF NOT EXISTS replica_batimento (id INT NOT NULL PRIMARY KEY, instante BIGINT NOT NULL)");
+		return banco;
+	}
+
+	private static DataSourceRoteador roteador(DataSource primaria, DataSource replica) {
+		SimpleMeterRegistry registro = new SimpleMeterRegistry();
+		return new DataSourceRoteador(new MonitorReplica(primaria, replica, 5_000, registro), registro);
+	}
+
+	private static Object destino(DataSourceRoteador roteador, String metodo) {
+		RequestContextHolder.setRequestAttributes(
+				new ServletRequestAttributes(new MockHttpServletRequest(metodo, "/cliente/1")));
+		return ReflectionTestUtils.invokeMethod(roteador, "determineCurrentLookupKey");
+	}
+}
@@ -0,0 +1,107 @@
+package com.autobots.automanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.autobots.automanager.idempotencia.ArmazemIdempotencia;
+import com.autobots.automanager.idempotencia.ArmazemIdempotencia.Situacao;
+import com.autobots.automanager.idempotencia.IdempotenciaFiltro;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * O filtro executa a primeira requisição com uma Idempotency-Key e repete a sua
+ * resposta nos reenvios; a mesma chave em execução recebe 409, e com outro corpo, 422.
+ */
+class IdempotenciaFiltroTests {
+
+	private ArmazemIdempotencia armazem;
+
+	private IdempotenciaFiltro filtro;
+
+	@BeforeEach
+	void preparar() {
+		armazem = new ArmazemIdempotencia(new DriverManagerDataSource(), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(armazem, "validade", Duration.ofHours(24));
+		ReflectionTestUtils.setField(armazem, "maxChaves", 100);
+		ReflectionTestUtils.setField(armazem, "memoriaMaxima", DataSize.ofMegabytes(1));
+		filtro = new IdempotenciaFiltro(armazem, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(filtro, "tamanhoMaximoCorpo", DataSize.ofMegabytes(1));
+		ReflectionTestUtils.setField(filtro, "tamanhoMaximoResposta", DataSize.ofKilobytes(256));
+	}
+
+	@Test
+	void repeteARespostaGuardadaSemExecutarDeNovo() throws Exception {
+		AtomicInteger execucoes = new AtomicInteger();
+		FilterChain criar = (request, response) -> {
+			execucoes.incrementAndGet();
+			assertThat(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+					.isEqualTo("{\"nome\":\"Pedro\"}");
+			((HttpServletResponse) response).setStatus(201);
+			response.setContentType("application/json");
+			response.getWriter().write("{\"id\":1}");
+		};
+
+		MockHttpServletResponse primeira = enviar("{\"nome\":\"Pedro\"}", criar);
+		MockHttpServletResponse segunda = enviar("{\"nome\":\"Pedro\"}", criar);
+
+		assertThat(execucoes).hasValue(1);
+		assertThat(primeira.getStatus()).isEqualTo(201);
+		assertThat(segunda.getStatus()).isEqualTo(201);
+		assertThat(segunda.getHeader(IdempotenciaFiltro.CABECALHO_REPETIDA)).isEqualTo("true");
+		assertThat(segunda.getContentAsString()).isEqualTo("{\"id\":1}");
+	}
+
+	@Test
+	void recusaReenvioEmExecucaoEChaveReusadaComOutroCorpo() throws Exception {
+		MockHttpServletResponse[] respostas = new MockHttpServletResponse[2];
+		enviar("{\"nome\":\"Pedro\"}", (request, response) -> {
+			respostas[0] = enviar("{\"nome\":\"Pedro\"}", (r, s) -> {
+				throw new AssertionError("reenvio em execução não deve chegar ao controlador");
+			});
+			respostas[1] = enviar("{\"nome\":\"Paulo\"}", (r, s) -> {
+				throw new AssertionError("chave divergente não deve chegar ao controlador");
+			});
+		});
+
+		assertThat(respostas[0].getStatus()).isEqualTo(409);
+		assertThat(respostas[0].getHeader("Retry-After")).isEqualTo("1");
+		assertThat(respostas[1].getStatus()).isEqualTo(422);
+	}
+
+	@Test
+	void naoDespejaChaveAindaEmExecucao() {
+		ReflectionTestUtils.setField(armazem, "maxChaves", 1);
+		ArmazemIdempotencia.Reserva primeira = armazem.reservar("padrao:a", "x");
+		assertThat(primeira.getSituacao()).isEqualTo(Situacao.RESERVADA);
+		assertThat(armazem.reservar("padrao:b", "y").getSituacao()).isEqualTo(Situacao.RESERVADA);
+
+		assertThat(armazem.reservar("padrao:a", "x").getSituacao()).isEqualTo(Situacao.EM_ANDAMENTO);
+	}
+
+	private MockHttpServletResponse enviar(String corpo, FilterChain cadeia) throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/cliente/cadastro");
+		request.addHeader(IdempotenciaFiltro.CABECALHO, "chave-1");
+		request.setContentType("application/json");
+		request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filtro.doFilter(request, response, cadeia);
+		return response;
+	}
+}
@@ -0,0 +1,47 @@
+package com.autobots.automanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.modelo.ClienteCsv;
+import com.autobots.automanager.modelo.LeitorRegistros;
+
+/**
+ * Um registro CSV com quebras de linha dentro de aspas é um único registro, e o que o
+ * ClienteCsv escreve volta igual na importação.
+ */
+class LeitorRegistrosTests {
+
+	@Test
+	void campoEntreAspasAtravessaLinhas() throws IOException {
+		ClienteCsv csv = new ClienteCsv();
+		Cliente cliente = new Cliente();
+		cliente.setNome("Ana");
+		cliente.setNomeSocial("linha 1\r\nlinha \"2\", fim");
+		String arquivo = ClienteCsv.CABECALHO + "\r\n" + csv.escrever(cliente) + "2,Bia,,,,,,,,,,,,\n";
+
+		try (LeitorRegistros leitor = new LeitorRegistros(new StringReader(arquivo), true)) {
+			assertThat(leitor.proximo()).isEqualTo(ClienteCsv.CABECALHO);
+			assertThat(csv.ler(leitor.proximo()).getNomeSocial()).isEqualTo("linha 1\r\nlinha \"2\", fim");
+			assertThat(leitor.getLinhaInicial()).isEqualTo(2);
+			assertThat(csv.ler(leitor.proximo()).getNome()).isEqualTo("Bia");
+			assertThat(leitor.getLinhaInicial()).isEqualTo(4);
+			assertThat(leitor.getRegistros()).isEqualTo(3);
+			assertThat(leitor.proximo()).isNull();
+		}
+	}
+
+	@Test
+	void jsonLinesIgnoraAspas() throws IOException {
+		try (LeitorRegistros leitor = new LeitorRegistros(new StringReader("{\"nome\":\"a\\\"\"}\n{\"nome\":\"b\"}"), false)) {
+			assertThat(leitor.proximo()).isEqualTo("{\"nome\":\"a\\\"\"}");
+			assertThat(leitor.proximo()).isEqualTo("{\"nome\":\"b\"}");
+			assertThat(leitor.proximo()).isNull();
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.autobots.automanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Regressão de planos: cada consulta frequente, no esquema criado pelas migrações,
+ * precisa continuar usando o seu índice. Falha se uma migração ou mudança de
+ * mapeamento fizer o H2 voltar a varrer a tabela.
+ */
+@SpringBootTest
+class PlanoConsultaTests {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@ParameterizedTest(name = "{0}")
+	@CsvSource(delimiter = '|', value = {
+		"telefones do cliente      | select id from telefone where cliente_id = 1                                  | IDX_TELEFONE_CLIENTE",
+		"documentos do cliente     | select id from documento where cliente_id = 1                                 | IDX_DOCUMENTO_CLIENTE",
+		"dono do endereço          | select id from cliente where endereco_id = 1                                  | IDX_CLIENTE_ENDERECO",
+		"documento por número      | select id from documento where numero = '00000000001'                         | IDX_DOCUMENTO_NUMERO",
+		"telefone por ddd e número | select id from telefone where ddd = '21' and numero = '981234576'             | IDX_TELEFONE_DDD_NUMERO",
+		"endereço por localidade   | select id from endereco where cidade = 'Rio de Janeiro' and estado = 'RJ'     | IDX_ENDERECO_CIDADE_ESTADO",
+		"clientes do inquilino     | select id from cliente where inquilino = 'padrao' and id > 0 order by id      | IDX_CLIENTE_INQUILINO",
+		"clientes por nome         | select id from cliente where inquilino = 'padrao' and nome > 'A' order by nome, id | IDX_CLIENTE_INQUILINO_NOME",
+		"clientes por cadastro     | select id from cliente where inquilino = 'padrao' and data_cadastro >= date '2024-01-01' order by data_cadastro, id | IDX_CLIENTE_INQUILINO_CADASTRO"
+	})
+	void consultaUsaIndice(String consulta, String sql, String indice) {
+		String plano = jdbc.queryForObject("explain " + sql, String.class);
+		assertThat(plano).as(plano).contains(indice).doesNotContain("tableScan");
+	}
+}
@@ -0,0 +1,89 @@
+package com.autobots.automanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.autobots.automanager.entidades.Cliente;
+import com.autobots.automanager.entrada.ClienteEntrada;
+import com.autobots.automanager.entrada.DadosInvalidosException;
+import com.autobots.automanager.entrada.EnderecoEntrada;
+import com.autobots.automanager.entrada.TelefoneEntrada;
+import com.autobots.automanager.entrada.ValidadorCliente;
+
+/**
+ * O ValidadorCliente precisa recusar o que as anotações das entidades recusam, com as
+ * mesmas mensagens, e converter em entidade só o que passou.
+ */
+class ValidadorClienteTests {
+
+	@Test
+	void reuneTodosOsErrosDaCriacao() {
+		ClienteEntrada entrada = new ClienteEntrada();
+		entrada.setNome("Jo");
+		entrada.setTelefones(List.of(telefone("1", "123"), telefone("2a", "981234576")));
+
+		DadosInvalidosException erro = catchThrowableOfType(() -> ValidadorCliente.validarCriacao(entrada),
+				DadosInvalidosException.class);
+
+		assertThat(erro.getErros()).containsExactly("Nome deve ter entre 3 e 100 caracteres",
+				"DDD deve ter 2 ou 3 dígitos", "Número deve ter 8 ou 9 dígitos", "DDD deve conter apenas números");
+	}
+
+	@Test
+	void atualizacaoConfereSoOsValoresInformados() {
+		ClienteEntrada entrada = new ClienteEntrada();
+		entrada.setNomeSocial("Dom Pedro");
+		entrada.setTelefones(List.of(telefone(" ", "981234576")));
+		assertThatCode(() -> ValidadorCliente.validarAtualizacao(entrada)).doesNotThrowAnyException();
+
+		entrada.setDataNascimento(new Date(System.currentTimeMillis() + 86_400_000L));
+		DadosInvalidosException erro = catchThrowableOfType(() -> ValidadorCliente.validarCriacao(entrada),
+				DadosInvalidosException.class);
+		assertThat(erro.getErros()).containsExactly("Nome é obrigatório", "Data de nascimento deve ser no passado",
+				"DDD é obrigatório", "DDD deve ter 2 ou 3 dígitos", "DDD deve conter apenas números");
+	}
+
+	@Test
+	void converteEmEntidadeDepoisDeValidar() {
+		ClienteEntrada entrada = new ClienteEntrada();
+		entrada.setNome("Pedro Alcântara");
+		entrada.setTelefones(List.of(telefone("21", "981234576")));
+		ValidadorCliente.validarCriacao(entrada);
+
+		Cliente cliente = entrada.paraEntidade();
+
+		assertThat(cliente.getId()).isNull();
+		assertThat(cliente.getNome()).isEqualTo("Pedro Alcântara");
+		assertThat(cliente.getTelefones()).singleElement().satisfies(telefone -> {
+			assertThat(telefone.getDdd()).isEqualTo("21");
+			assertThat(telefone.getNumero()).isEqualTo("981234576");
+		});
+	}
+
+	@Test
+	void filhoIsoladoSegueAsRegrasDaCriacao() {
+		EnderecoEntrada endereco = new EnderecoEntrada();
+		endereco.setEstado("SPX");
+		endereco.setCidade("São Paulo");
+
+		DadosInvalidosException erro = catchThrowableOfType(() -> ValidadorCliente.validarEndereco(endereco),
+				DadosInvalidosException.class);
+
+		assertThat(erro.getErros()).containsExactly("Estado deve ter 2 caracteres", "Rua é obrigatória",
+				"Número é obrigatório");
+		assertThatCode(() -> ValidadorCliente.validarTelefone(telefone("21", "981234576"))).doesNotThrowAnyException();
+	}
+
+	private static TelefoneEntrada telefone(String ddd, String numero) {
+		TelefoneEntrada telefone = new TelefoneEntrada();
+		telefone.setDdd(ddd);
+		telefone.setNumero(numero);
+		return telefone;
+	}
+}
@@ -0,0 +1,58 @@
+package com.autobots.carga;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Semeia clientes no automanager e reproduz uma mistura ponderada de cenários a taxa
+ * fixa, gravando vazão, percentis de latência e taxas de erro em JSON e HTML.
+ *
+ * <pre>
+ * java -jar target/carga.jar --url=http://localhost:8080 --taxa=150 --duracao=60
+ * </pre>
+ */
+public class CargaAplicacao {
+
+	public static void main(String[] args) throws Exception {
+		Configuracao configuracao = Configuracao.ler(args);
+		Mistura mistura = Mistura.de(configuracao.getMistura());
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+		try {
+			HttpClient http = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(5))
+					.executor(executor)
+					.build();
+
+			System.out.printf("Semeando %d clientes em %d inquilino(s)...%n", configuracao.getClientes(),
+					configuracao.getInquilinos().length);
+			List<Massa> massas = new Semeador(http, configuracao).semear();
+			avisarSeFaltarMassa(configuracao, mistura, massas);
+
+			System.out.printf("Disparando %d chegadas/s por %d s (+%d s de aquecimento)...%n", configuracao.getTaxa(),
+					configuracao.getDuracao().getSeconds(), configuracao.getAquecimento().getSeconds());
+			Resultado resultado = new Disparador(http, configuracao, massas, mistura).executar();
+
+			Relatorio relatorio = new Relatorio();
+			Path pasta = relatorio.gravar(resultado);
+			System.out.print(relatorio.resumo(resultado));
+			System.out.println("Relatórios gravados em " + pasta.toAbsolutePath());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void avisarSeFaltarMassa(Configuracao configuracao, Mistura mistura, List<Massa> massas) {
+		long segundos = configuracao.getAquecimento().getSeconds() + configuracao.getDuracao().getSeconds();
+		double exclusoes = configuracao.getTaxa() * segundos * mistura.fracao(Cenario.EXCLUIR_TELEFONE);
+		long disponiveis = massas.stream().mapToLong(Massa::getTelefonesDisponiveis).sum();
+		if (exclusoes > disponiveis) {
+			System.out.printf("Aviso: ~%.0f exclusões previstas para %d telefones semeados; "
+					+ "aumente --clientes ou --telefones-por-cliente.%n", exclusoes, disponiveis);
+		}
+	}
+}
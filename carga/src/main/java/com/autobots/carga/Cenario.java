@@ -0,0 +1,129 @@
+package com.autobots.carga;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Operações que compõem o tráfego simulado. Cada cenário monta a requisição a partir
+ * da massa semeada do inquilino sorteado; devolve {@code null} quando a massa não
+ * tem mais dados para ele.
+ */
+public enum Cenario {
+
+	BUSCAR_CLIENTE("buscar-cliente") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			return HttpRequest.newBuilder(url.resolve("/cliente/" + massa.clienteAleatorio())).GET();
+		}
+	},
+	BUSCAR_CLIENTE_QUENTE("buscar-cliente-quente") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			return HttpRequest.newBuilder(url.resolve("/cliente/" + massa.clienteQuente())).GET();
+		}
+	},
+	LISTAR_CLIENTES("listar-clientes") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			return HttpRequest.newBuilder(url.resolve("/cliente")).GET();
+		}
+	},
+	FILTRAR_CLIENTES("filtrar-clientes") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+			String consulta;
+			switch (aleatorio.nextInt(3)) {
+				case 0:
+					consulta = "filtro=" + codificar("nome==\"Cliente carga " + aleatorio.nextInt(1, 10) + "*\";estado==SP")
+							+ "&ordem=nome";
+					break;
+				case 1:
+					consulta = "filtro=" + codificar("dataCadastro=ge=2024-01-0" + aleatorio.nextInt(1, 10) + ";documento.tipo==CPF")
+							+ "&ordem=" + codificar("-dataCadastro");
+					break;
+				default:
+					consulta = "filtro=" + codificar("telefone.ddd==1" + aleatorio.nextInt(10) + ",id=gt=" + massa.clienteAleatorio());
+			}
+			return HttpRequest.newBuilder(url.resolve("/cliente?" + consulta + "&limite=20")).GET();
+		}
+	},
+	LISTAR_DOCUMENTOS("listar-documentos") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			return HttpRequest.newBuilder(url.resolve("/documento")).GET();
+		}
+	},
+	LISTAR_ENDERECOS("listar-enderecos") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			return HttpRequest.newBuilder(url.resolve("/endereco")).GET();
+		}
+	},
+	LISTAR_TELEFONES("listar-telefones") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			return HttpRequest.newBuilder(url.resolve("/telefone")).GET();
+		}
+	},
+	BUSCAR_TELEFONE("buscar-telefone") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			return HttpRequest.newBuilder(url.resolve("/telefone/" + massa.telefoneAleatorio())).GET();
+		}
+	},
+	ATUALIZAR_CLIENTE("atualizar-cliente") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			String corpo = "{\"nome\":\"Cliente carga " + ThreadLocalRandom.current().nextInt(1_000_000)
+					+ "\",\"nomeSocial\":\"Atualizado\"}";
+			return HttpRequest.newBuilder(url.resolve("/cliente/" + massa.clienteAleatorio()))
+					.header("Content-Type", "application/json")
+					.PUT(HttpRequest.BodyPublishers.ofString(corpo));
+		}
+	},
+	EXCLUIR_TELEFONE("excluir-telefone") {
+		@Override
+		HttpRequest.Builder montar(URI url, Massa massa) {
+			Long telefone = massa.retirarTelefone();
+			return telefone == null ? null : HttpRequest.newBuilder(url.resolve("/telefone/" + telefone)).DELETE();
+		}
+	};
+
+	private final String nome;
+
+	Cenario(String nome) {
+		this.nome = nome;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	abstract HttpRequest.Builder montar(URI url, Massa massa);
+
+	private static String codificar(String valor) {
+		return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+	}
+
+	public HttpRequest requisicao(URI url, Massa massa, Duration tempoLimite) {
+		HttpRequest.Builder builder = montar(url, massa);
+		if (builder == null) {
+			return null;
+		}
+		return builder.header(Semeador.CABECALHO_INQUILINO, massa.getInquilino()).timeout(tempoLimite).build();
+	}
+
+	public static Cenario porNome(String nome) {
+		for (Cenario cenario : values()) {
+			if (cenario.nome.equals(nome)) {
+				return cenario;
+			}
+		}
+		throw new IllegalArgumentException("Cenário desconhecido: " + nome);
+	}
+}
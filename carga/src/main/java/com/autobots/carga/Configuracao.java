@@ -0,0 +1,106 @@
+package com.autobots.carga;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros de uma execução, lidos de argumentos no formato --chave=valor.
+ */
+public class Configuracao {
+
+	public static final String MISTURA_PRODUCAO = "buscar-cliente=70,listar-clientes=10,listar-enderecos=5,atualizar-cliente=10,excluir-telefone=5";
+
+	private final URI url;
+	private final String[] inquilinos;
+	private final int clientes;
+	private final int telefonesPorCliente;
+	private final int clientesQuentes;
+	private final int taxa;
+	private final Duration aquecimento;
+	private final Duration duracao;
+	private final int maxPendentes;
+	private final Duration tempoLimite;
+	private final String mistura;
+	private final Path saida;
+
+	private Configuracao(Map<String, String> valores) {
+		this.url = URI.create(valores.getOrDefault("url", "http://localhost:8080"));
+		this.inquilinos = valores.getOrDefault("inquilinos", "carga").split(",");
+		this.clientes = Integer.parseInt(valores.getOrDefault("clientes", "1000"));
+		this.telefonesPorCliente = Integer.parseInt(valores.getOrDefault("telefones-por-cliente", "3"));
+		this.clientesQuentes = Integer.parseInt(valores.getOrDefault("clientes-quentes", "5"));
+		this.taxa = Integer.parseInt(valores.getOrDefault("taxa", "100"));
+		this.aquecimento = Duration.ofSeconds(Long.parseLong(valores.getOrDefault("aquecimento", "10")));
+		this.duracao = Duration.ofSeconds(Long.parseLong(valores.getOrDefault("duracao", "60")));
+		this.maxPendentes = Integer.parseInt(valores.getOrDefault("max-pendentes", "512"));
+		this.tempoLimite = Duration.ofMillis(Long.parseLong(valores.getOrDefault("tempo-limite", "5000")));
+		this.mistura = valores.getOrDefault("mistura", MISTURA_PRODUCAO);
+		this.saida = Path.of(valores.getOrDefault("saida", "relatorios"));
+		if (taxa <= 0 || clientes <= 0 || clientesQuentes <= 0 || maxPendentes <= 0 || duracao.isZero()) {
+			throw new IllegalArgumentException("taxa, clientes, clientes-quentes, max-pendentes e duracao devem ser positivos");
+		}
+	}
+
+	public static Configuracao ler(String[] args) {
+		Map<String, String> valores = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+				throw new IllegalArgumentException("Argumento inválido: " + arg + " (use --chave=valor)");
+			}
+			int separador = arg.indexOf('=');
+			valores.put(arg.substring(2, separador), arg.substring(separador + 1));
+		}
+		return new Configuracao(valores);
+	}
+
+	public URI getUrl() {
+		return url;
+	}
+
+	public String[] getInquilinos() {
+		return inquilinos;
+	}
+
+	public int getClientes() {
+		return clientes;
+	}
+
+	public int getTelefonesPorCliente() {
+		return telefonesPorCliente;
+	}
+
+	public int getClientesQuentes() {
+		return clientesQuentes;
+	}
+
+	public int getTaxa() {
+		return taxa;
+	}
+
+	public Duration getAquecimento() {
+		return aquecimento;
+	}
+
+	public Duration getDuracao() {
+		return duracao;
+	}
+
+	public int getMaxPendentes() {
+		return maxPendentes;
+	}
+
+	public Duration getTempoLimite() {
+		return tempoLimite;
+	}
+
+	public String getMistura() {
+		return mistura;
+	}
+
+	public Path getSaida() {
+		return saida;
+	}
+}
@@ -0,0 +1,96 @@
+package com.autobots.carga;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gera chegadas a taxa fixa (modelo aberto): a requisição i é disparada no instante
+ * inicio + i / taxa, esteja o serviço respondendo ou não. A latência é medida a
+ * partir desse instante previsto, e não do envio efetivo, para que atrasos do próprio
+ * gerador ou do serviço não escondam a fila (omissão coordenada).
+ */
+public class Disparador {
+
+	private final HttpClient http;
+	private final Configuracao configuracao;
+	private final List<Massa> massas;
+	private final Mistura mistura;
+
+	public Disparador(HttpClient http, Configuracao configuracao, List<Massa> massas, Mistura mistura) {
+		this.http = http;
+		this.configuracao = configuracao;
+		this.massas = massas;
+		this.mistura = mistura;
+	}
+
+	public Resultado executar() throws InterruptedException {
+		Map<Cenario, Estatistica> estatisticas = new EnumMap<>(Cenario.class);
+		for (Cenario cenario : mistura.getCenarios()) {
+			estatisticas.put(cenario, new Estatistica(cenario.getNome()));
+		}
+		Estatistica geral = new Estatistica("total");
+		Semaphore pendentes = new Semaphore(configuracao.getMaxPendentes());
+
+		long intervalo = TimeUnit.SECONDS.toNanos(1) / configuracao.getTaxa();
+		long inicio = System.nanoTime();
+		long inicioMedicao = inicio + configuracao.getAquecimento().toNanos();
+		long fim = inicioMedicao + configuracao.getDuracao().toNanos();
+
+		for (long i = 0; ; i++) {
+			long previsto = inicio + i * intervalo;
+			if (previsto >= fim) {
+				break;
+			}
+			long espera = previsto - System.nanoTime();
+			if (espera > 0) {
+				LockSupport.parkNanos(espera);
+			}
+			boolean medir = previsto >= inicioMedicao;
+			Cenario cenario = mistura.sortear();
+			Estatistica estatistica = estatisticas.get(cenario);
+			Massa massa = massas.get(ThreadLocalRandom.current().nextInt(massas.size()));
+
+			HttpRequest requisicao = cenario.requisicao(configuracao.getUrl(), massa, configuracao.getTempoLimite());
+			if (requisicao == null) {
+				if (medir) {
+					estatistica.semMassa();
+					geral.semMassa();
+				}
+				continue;
+			}
+			if (!pendentes.tryAcquire()) {
+				if (medir) {
+					estatistica.descartada();
+					geral.descartada();
+				}
+				continue;
+			}
+			http.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding()).whenComplete((resposta, erro) -> {
+				pendentes.release();
+				if (!medir) {
+					return;
+				}
+				long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - previsto);
+				if (erro != null) {
+					estatistica.falha(micros);
+					geral.falha(micros);
+				} else {
+					estatistica.resposta(resposta.statusCode(), micros);
+					geral.resposta(resposta.statusCode(), micros);
+				}
+			});
+		}
+		long medido = System.nanoTime() - inicioMedicao;
+		long limite = configuracao.getTempoLimite().toMillis() * 2;
+		pendentes.tryAcquire(configuracao.getMaxPendentes(), limite, TimeUnit.MILLISECONDS);
+		return new Resultado(configuracao, mistura, estatisticas, geral, medido);
+	}
+}
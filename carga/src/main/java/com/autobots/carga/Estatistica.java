@@ -0,0 +1,102 @@
+package com.autobots.carga;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e latências de um cenário. Respostas 429 são contadas à parte das
+ * demais falhas porque indicam a cota do inquilino, não um defeito do serviço.
+ */
+public class Estatistica {
+
+	private final String nome;
+	private final Histograma latencias = new Histograma();
+	private final Map<Integer, LongAdder> situacoes = new ConcurrentHashMap<>();
+	private final LongAdder sucessos = new LongAdder();
+	private final LongAdder erros = new LongAdder();
+	private final LongAdder rejeitadas = new LongAdder();
+	private final LongAdder falhas = new LongAdder();
+	private final LongAdder descartadas = new LongAdder();
+	private final LongAdder semMassa = new LongAdder();
+
+	public Estatistica(String nome) {
+		this.nome = nome;
+	}
+
+	public void resposta(int situacao, long micros) {
+		latencias.registrar(micros);
+		situacoes.computeIfAbsent(situacao, s -> new LongAdder()).increment();
+		if (situacao == 429) {
+			rejeitadas.increment();
+		} else if (situacao >= 400) {
+			erros.increment();
+		} else {
+			sucessos.increment();
+		}
+	}
+
+	/** Erro de transporte (conexão recusada, tempo limite esgotado). */
+	public void falha(long micros) {
+		latencias.registrar(micros);
+		falhas.increment();
+	}
+
+	/** Chegada prevista que não foi disparada porque o limite de requisições pendentes estava esgotado. */
+	public void descartada() {
+		descartadas.increment();
+	}
+
+	/** Chegada prevista sem dados semeados suficientes (por exemplo, telefones já excluídos). */
+	public void semMassa() {
+		semMassa.increment();
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public Histograma getLatencias() {
+		return latencias;
+	}
+
+	public Map<Integer, Long> getSituacoes() {
+		Map<Integer, Long> copia = new TreeMap<>();
+		situacoes.forEach((situacao, contagem) -> copia.put(situacao, contagem.sum()));
+		return copia;
+	}
+
+	public long getRespondidas() {
+		return sucessos.sum() + erros.sum() + rejeitadas.sum();
+	}
+
+	public long getSucessos() {
+		return sucessos.sum();
+	}
+
+	public long getErros() {
+		return erros.sum();
+	}
+
+	public long getRejeitadas() {
+		return rejeitadas.sum();
+	}
+
+	public long getFalhas() {
+		return falhas.sum();
+	}
+
+	public long getDescartadas() {
+		return descartadas.sum();
+	}
+
+	public long getSemMassa() {
+		return semMassa.sum();
+	}
+
+	public double getTaxaErro() {
+		long tentativas = getRespondidas() + getFalhas();
+		return tentativas == 0 ? 0 : (double) (getErros() + getRejeitadas() + getFalhas()) / tentativas;
+	}
+}
@@ -0,0 +1,79 @@
+package com.autobots.carga;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma log-linear de latências em microssegundos, seguro para gravação
+ * concorrente. Cada potência de dois é dividida em 256 faixas, o que mantém o erro
+ * relativo abaixo de 0,4% sem guardar cada amostra.
+ */
+public class Histograma {
+
+	private static final int BITS = 8;
+	private static final int SUBFAIXAS = 1 << BITS;
+	private static final int MAIOR_EXPOENTE = 31;
+	private static final int FAIXAS = (MAIOR_EXPOENTE + 2) * SUBFAIXAS;
+
+	private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+	private final LongAdder total = new LongAdder();
+	private final LongAdder soma = new LongAdder();
+	private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+	public void registrar(long micros) {
+		long valor = Math.max(0, micros);
+		contagens.incrementAndGet(indice(valor));
+		total.increment();
+		soma.add(valor);
+		maximo.accumulate(valor);
+	}
+
+	public long getTotal() {
+		return total.sum();
+	}
+
+	public long getMaximo() {
+		return maximo.get();
+	}
+
+	public double getMedia() {
+		long n = total.sum();
+		return n == 0 ? 0 : (double) soma.sum() / n;
+	}
+
+	/** Valor (em microssegundos) abaixo do qual está a fração {@code percentil} das amostras. */
+	public long percentil(double percentil) {
+		long n = total.sum();
+		if (n == 0) {
+			return 0;
+		}
+		long alvo = Math.max(1, (long) Math.ceil(n * percentil / 100.0));
+		long acumulado = 0;
+		for (int i = 0; i < FAIXAS; i++) {
+			acumulado += contagens.get(i);
+			if (acumulado >= alvo) {
+				return Math.min(valor(i), maximo.get());
+			}
+		}
+		return maximo.get();
+	}
+
+	private static int indice(long valor) {
+		if (valor < 2 * SUBFAIXAS) {
+			return (int) valor;
+		}
+		int expoente = Math.min(63 - Long.numberOfLeadingZeros(valor) - BITS, MAIOR_EXPOENTE);
+		long mantissa = Math.min(valor >> expoente, 2 * SUBFAIXAS - 1);
+		return expoente * SUBFAIXAS + (int) mantissa;
+	}
+
+	private static long valor(int indice) {
+		if (indice < 2 * SUBFAIXAS) {
+			return indice;
+		}
+		int expoente = indice / SUBFAIXAS - 1;
+		long mantissa = indice % SUBFAIXAS + SUBFAIXAS;
+		return ((mantissa + 1) << expoente) - 1;
+	}
+}
@@ -0,0 +1,58 @@
+package com.autobots.carga;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dados semeados de um inquilino: os ids dos clientes criados, telefones reservados
+ * para consulta e os ids de telefones ainda disponíveis para exclusão. Cada telefone
+ * excluível é entregue uma única vez, para que as exclusões não se transformem em 404.
+ */
+public class Massa {
+
+	private final String inquilino;
+	private final long[] clientes;
+	private final int quentes;
+	private final long[] telefonesConsulta;
+	private final Queue<Long> telefones;
+
+	public Massa(String inquilino, long[] clientes, int quentes, long[] telefonesConsulta, List<Long> telefones) {
+		this.inquilino = inquilino;
+		this.clientes = clientes;
+		this.quentes = Math.min(quentes, clientes.length);
+		this.telefonesConsulta = telefonesConsulta;
+		this.telefones = new ConcurrentLinkedQueue<>(telefones);
+	}
+
+	public String getInquilino() {
+		return inquilino;
+	}
+
+	public int getQuantidadeClientes() {
+		return clientes.length;
+	}
+
+	public int getTelefonesDisponiveis() {
+		return telefones.size();
+	}
+
+	public long clienteAleatorio() {
+		return clientes[ThreadLocalRandom.current().nextInt(clientes.length)];
+	}
+
+	/** Sorteia entre os primeiros clientes da massa: muitas leituras simultâneas dos mesmos ids. */
+	public long clienteQuente() {
+		return clientes[ThreadLocalRandom.current().nextInt(quentes)];
+	}
+
+	public long telefoneAleatorio() {
+		return telefonesConsulta[ThreadLocalRandom.current().nextInt(telefonesConsulta.length)];
+	}
+
+	/** Retira um telefone da massa, ou {@code null} quando todos já foram consumidos. */
+	public Long retirarTelefone() {
+		return telefones.poll();
+	}
+}
@@ -0,0 +1,71 @@
+package com.autobots.carga;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribuição ponderada de cenários, lida no formato "cenario=peso,cenario=peso".
+ */
+public class Mistura {
+
+	private final Cenario[] cenarios;
+	private final int[] acumulados;
+	private final int total;
+	private final Map<Cenario, Integer> pesos;
+
+	private Mistura(Map<Cenario, Integer> pesos) {
+		this.pesos = Collections.unmodifiableMap(pesos);
+		this.cenarios = pesos.keySet().toArray(new Cenario[0]);
+		this.acumulados = new int[cenarios.length];
+		int soma = 0;
+		for (int i = 0; i < cenarios.length; i++) {
+			soma += pesos.get(cenarios[i]);
+			acumulados[i] = soma;
+		}
+		this.total = soma;
+	}
+
+	public static Mistura de(String especificacao) {
+		Map<Cenario, Integer> pesos = new LinkedHashMap<>();
+		for (String parte : especificacao.split(",")) {
+			String[] par = parte.trim().split("=");
+			if (par.length != 2) {
+				throw new IllegalArgumentException("Peso inválido na mistura: " + parte);
+			}
+			int peso = Integer.parseInt(par[1].trim());
+			if (peso < 0) {
+				throw new IllegalArgumentException("Peso negativo na mistura: " + parte);
+			}
+			if (peso > 0) {
+				pesos.merge(Cenario.porNome(par[0].trim()), peso, Integer::sum);
+			}
+		}
+		if (pesos.isEmpty()) {
+			throw new IllegalArgumentException("A mistura precisa de ao menos um cenário com peso positivo");
+		}
+		return new Mistura(pesos);
+	}
+
+	public Cenario sortear() {
+		int sorteio = ThreadLocalRandom.current().nextInt(total);
+		for (int i = 0; i < acumulados.length; i++) {
+			if (sorteio < acumulados[i]) {
+				return cenarios[i];
+			}
+		}
+		return cenarios[cenarios.length - 1];
+	}
+
+	public List<Cenario> getCenarios() {
+		return new ArrayList<>(pesos.keySet());
+	}
+
+	/** Fração esperada das chegadas que cai no cenário. */
+	public double fracao(Cenario cenario) {
+		return (double) pesos.getOrDefault(cenario, 0) / total;
+	}
+}
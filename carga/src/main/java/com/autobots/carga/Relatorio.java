@@ -0,0 +1,193 @@
+package com.autobots.carga;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Grava o resultado de uma execução como resultado.json (para comparação automática
+ * entre versões) e resultado.html (para leitura), numa pasta com a data e hora da
+ * execução. Latências são reportadas em milissegundos.
+ */
+public class Relatorio {
+
+	private static final DateTimeFormatter PASTA = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	public Path gravar(Resultado resultado) throws IOException {
+		Path pasta = resultado.getConfiguracao().getSaida().resolve(LocalDateTime.now().format(PASTA));
+		Files.createDirectories(pasta);
+		Files.writeString(pasta.resolve("resultado.json"), json(resultado), StandardCharsets.UTF_8);
+		Files.writeString(pasta.resolve("resultado.html"), html(resultado), StandardCharsets.UTF_8);
+		return pasta;
+	}
+
+	/** Resumo em texto para o console. */
+	public String resumo(Resultado resultado) {
+		StringBuilder texto = new StringBuilder();
+		texto.append(String.format(Locale.ROOT, "%-20s %9s %9s %9s %9s %9s %9s %8s%n",
+				"cenario", "resp/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "erro %"));
+		for (Estatistica estatistica : linhas(resultado)) {
+			Histograma h = estatistica.getLatencias();
+			texto.append(String.format(Locale.ROOT, "%-20s %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8.2f%n",
+					estatistica.getNome(), resultado.vazao(estatistica), ms(h.percentil(50)), ms(h.percentil(95)),
+					ms(h.percentil(99)), ms(h.percentil(99.9)), ms(h.getMaximo()), estatistica.getTaxaErro() * 100));
+		}
+		return texto.toString();
+	}
+
+	private String json(Resultado resultado) {
+		Configuracao configuracao = resultado.getConfiguracao();
+		StringBuilder json = new StringBuilder();
+		json.append("{\n  \"configuracao\": {")
+				.append("\"url\": ").append(texto(configuracao.getUrl().toString()))
+				.append(", \"inquilinos\": ").append(configuracao.getInquilinos().length)
+				.append(", \"clientesPorInquilino\": ").append(configuracao.getClientes())
+				.append(", \"taxa\": ").append(configuracao.getTaxa())
+				.append(", \"aquecimentoSegundos\": ").append(configuracao.getAquecimento().getSeconds())
+				.append(", \"duracaoSegundos\": ").append(configuracao.getDuracao().getSeconds())
+				.append(", \"maxPendentes\": ").append(configuracao.getMaxPendentes())
+				.append(", \"mistura\": ").append(texto(configuracao.getMistura()))
+				.append("},\n  \"duracaoMedidaSegundos\": ").append(numero(resultado.getDuracaoSegundos()))
+				.append(",\n  \"total\": ").append(json(resultado, resultado.getGeral(), 1))
+				.append(",\n  \"cenarios\": [");
+		boolean primeiro = true;
+		for (Map.Entry<Cenario, Estatistica> entrada : resultado.getCenarios().entrySet()) {
+			json.append(primeiro ? "\n    " : ",\n    ")
+					.append(json(resultado, entrada.getValue(), resultado.getMistura().fracao(entrada.getKey())));
+			primeiro = false;
+		}
+		return json.append("\n  ]\n}\n").toString();
+	}
+
+	private String json(Resultado resultado, Estatistica estatistica, double fracaoPrevista) {
+		Histograma h = estatistica.getLatencias();
+		StringBuilder json = new StringBuilder("{");
+		json.append("\"nome\": ").append(texto(estatistica.getNome()))
+				.append(", \"fracaoPrevista\": ").append(numero(fracaoPrevista))
+				.append(", \"respondidas\": ").append(estatistica.getRespondidas())
+				.append(", \"vazao\": ").append(numero(resultado.vazao(estatistica)))
+				.append(", \"sucessos\": ").append(estatistica.getSucessos())
+				.append(", \"erros\": ").append(estatistica.getErros())
+				.append(", \"rejeitadas429\": ").append(estatistica.getRejeitadas())
+				.append(", \"falhas\": ").append(estatistica.getFalhas())
+				.append(", \"descartadas\": ").append(estatistica.getDescartadas())
+				.append(", \"semMassa\": ").append(estatistica.getSemMassa())
+				.append(", \"taxaErro\": ").append(numero(estatistica.getTaxaErro()))
+				.append(", \"latenciaMs\": {\"media\": ").append(numero(h.getMedia() / 1000.0));
+		for (double percentil : Resultado.PERCENTIS) {
+			json.append(", \"p").append(rotulo(percentil)).append("\": ").append(numero(ms(h.percentil(percentil))));
+		}
+		json.append(", \"max\": ").append(numero(ms(h.getMaximo()))).append("}, \"situacoes\": {");
+		boolean primeiro = true;
+		for (Map.Entry<Integer, Long> situacao : estatistica.getSituacoes().entrySet()) {
+			json.append(primeiro ? "" : ", ").append('"').append(situacao.getKey()).append("\": ").append(situacao.getValue());
+			primeiro = false;
+		}
+		return json.append("}}").toString();
+	}
+
+	private String html(Resultado resultado) {
+		Configuracao configuracao = resultado.getConfiguracao();
+		StringBuilder html = new StringBuilder();
+		html.append("<!DOCTYPE html>\n<html lang=\"pt-BR\">\n<head>\n<meta charset=\"UTF-8\">\n")
+				.append("<title>Carga automanager</title>\n<style>\n")
+				.append("body{font-family:sans-serif;margin:2em;color:#222}")
+				.append("table{border-collapse:collapse;margin-bottom:2em}")
+				.append("th,td{border:1px solid #ccc;padding:4px 10px;text-align:right}")
+				.append("th:first-child,td:first-child{text-align:left}")
+				.append("tr.total{font-weight:bold;background:#f3f3f3}")
+				.append(".barra{background:#4a7bd0;height:10px}\n</style>\n</head>\n<body>\n")
+				.append("<h1>Carga automanager</h1>\n<p>")
+				.append(escapar(configuracao.getUrl().toString())).append(" &middot; ")
+				.append(configuracao.getTaxa()).append(" chegadas/s &middot; ")
+				.append(configuracao.getInquilinos().length).append(" inquilino(s) &times; ")
+				.append(configuracao.getClientes()).append(" clientes &middot; aquecimento de ")
+				.append(configuracao.getAquecimento().getSeconds()).append(" s, medição de ")
+				.append(String.format(Locale.ROOT, "%.1f", resultado.getDuracaoSegundos())).append(" s</p>\n")
+				.append("<p>Mistura: ").append(escapar(configuracao.getMistura())).append("</p>\n");
+
+		html.append("<h2>Vazão e erros</h2>\n<table>\n<tr><th>cenário</th><th>prevista</th><th>respondidas</th>")
+				.append("<th>resp/s</th><th>2xx/3xx</th><th>4xx/5xx</th><th>429</th><th>falhas</th>")
+				.append("<th>descartadas</th><th>sem massa</th><th>erro %</th><th>situações</th></tr>\n");
+		for (Estatistica estatistica : linhas(resultado)) {
+			Cenario cenario = cenario(resultado, estatistica);
+			html.append(estatistica == resultado.getGeral() ? "<tr class=\"total\">" : "<tr>")
+					.append("<td>").append(escapar(estatistica.getNome())).append("</td>")
+					.append("<td>").append(cenario == null ? "100%" : String.format(Locale.ROOT, "%.1f%%", resultado.getMistura().fracao(cenario) * 100)).append("</td>")
+					.append("<td>").append(estatistica.getRespondidas()).append("</td>")
+					.append("<td>").append(String.format(Locale.ROOT, "%.1f", resultado.vazao(estatistica))).append("</td>")
+					.append("<td>").append(estatistica.getSucessos()).append("</td>")
+					.append("<td>").append(estatistica.getErros()).append("</td>")
+					.append("<td>").append(estatistica.getRejeitadas()).append("</td>")
+					.append("<td>").append(estatistica.getFalhas()).append("</td>")
+					.append("<td>").append(estatistica.getDescartadas()).append("</td>")
+					.append("<td>").append(estatistica.getSemMassa()).append("</td>")
+					.append("<td>").append(String.format(Locale.ROOT, "%.2f", estatistica.getTaxaErro() * 100)).append("</td>")
+					.append("<td>").append(escapar(estatistica.getSituacoes().toString())).append("</td></tr>\n");
+		}
+		html.append("</table>\n");
+
+		long maior = Math.max(1, resultado.getGeral().getLatencias().getMaximo());
+		html.append("<h2>Latência (ms, medida desde o instante previsto da chegada)</h2>\n<table>\n<tr><th>cenário</th><th>média</th>");
+		for (double percentil : Resultado.PERCENTIS) {
+			html.append("<th>p").append(rotulo(percentil)).append("</th>");
+		}
+		html.append("<th>máx</th><th style=\"width:30%\">p99</th></tr>\n");
+		for (Estatistica estatistica : linhas(resultado)) {
+			Histograma h = estatistica.getLatencias();
+			html.append(estatistica == resultado.getGeral() ? "<tr class=\"total\">" : "<tr>")
+					.append("<td>").append(escapar(estatistica.getNome())).append("</td>")
+					.append("<td>").append(String.format(Locale.ROOT, "%.2f", h.getMedia() / 1000.0)).append("</td>");
+			for (double percentil : Resultado.PERCENTIS) {
+				html.append("<td>").append(String.format(Locale.ROOT, "%.2f", ms(h.percentil(percentil)))).append("</td>");
+			}
+			double largura = 100.0 * h.percentil(99) / maior;
+			html.append("<td>").append(String.format(Locale.ROOT, "%.2f", ms(h.getMaximo()))).append("</td>")
+					.append("<td style=\"text-align:left\"><div class=\"barra\" style=\"width:")
+					.append(String.format(Locale.ROOT, "%.1f", largura)).append("%\"></div></td></tr>\n");
+		}
+		return html.append("</table>\n</body>\n</html>\n").toString();
+	}
+
+	private static List<Estatistica> linhas(Resultado resultado) {
+		List<Estatistica> linhas = new ArrayList<>(resultado.getCenarios().values());
+		linhas.add(resultado.getGeral());
+		return linhas;
+	}
+
+	private static Cenario cenario(Resultado resultado, Estatistica estatistica) {
+		for (Map.Entry<Cenario, Estatistica> entrada : resultado.getCenarios().entrySet()) {
+			if (entrada.getValue() == estatistica) {
+				return entrada.getKey();
+			}
+		}
+		return null;
+	}
+
+	private static double ms(long micros) {
+		return micros / 1000.0;
+	}
+
+	private static String rotulo(double percentil) {
+		return percentil == Math.rint(percentil) ? Integer.toString((int) percentil) : Double.toString(percentil);
+	}
+
+	private static String numero(double valor) {
+		return String.format(Locale.ROOT, "%.4f", valor);
+	}
+
+	private static String texto(String valor) {
+		return '"' + valor.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+	}
+
+	private static String escapar(String valor) {
+		return valor.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
@@ -0,0 +1,53 @@
+package com.autobots.carga;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estatísticas de uma execução já encerrada, por cenário e no total.
+ */
+public class Resultado {
+
+	public static final double[] PERCENTIS = { 50, 90, 95, 99, 99.9 };
+
+	private final Configuracao configuracao;
+	private final Mistura mistura;
+	private final Map<Cenario, Estatistica> cenarios;
+	private final Estatistica geral;
+	private final long duracaoNanos;
+
+	public Resultado(Configuracao configuracao, Mistura mistura, Map<Cenario, Estatistica> cenarios,
+			Estatistica geral, long duracaoNanos) {
+		this.configuracao = configuracao;
+		this.mistura = mistura;
+		this.cenarios = cenarios;
+		this.geral = geral;
+		this.duracaoNanos = duracaoNanos;
+	}
+
+	public Configuracao getConfiguracao() {
+		return configuracao;
+	}
+
+	public Mistura getMistura() {
+		return mistura;
+	}
+
+	public Map<Cenario, Estatistica> getCenarios() {
+		return cenarios;
+	}
+
+	public Estatistica getGeral() {
+		return geral;
+	}
+
+	public double getDuracaoSegundos() {
+		return duracaoNanos / (double) TimeUnit.SECONDS.toNanos(1);
+	}
+
+	/** Respostas recebidas por segundo durante a janela medida. */
+	public double vazao(Estatistica estatistica) {
+		double segundos = getDuracaoSegundos();
+		return segundos == 0 ? 0 : estatistica.getRespondidas() / segundos;
+	}
+}
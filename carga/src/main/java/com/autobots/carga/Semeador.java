@@ -0,0 +1,141 @@
+package com.autobots.carga;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cria os agregados de Cliente usados pela carga, com documento, endereço e
+ * telefones, e guarda os ids devolvidos pelo serviço. O primeiro telefone de cada
+ * cliente fica reservado às consultas; os demais podem ser excluídos. Respostas 429 são repetidas
+ * com espera crescente, já que a semeadura roda acima da cota padrão do inquilino.
+ */
+public class Semeador {
+
+	public static final String CABECALHO_INQUILINO = "X-Inquilino";
+
+	private static final int PARALELISMO = 16;
+	private static final int TENTATIVAS = 8;
+
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+	private static final Pattern TELEFONES = Pattern.compile("\"telefones\"\\s*:\\s*\\[(.*?)\\]");
+
+	private final HttpClient http;
+	private final Configuracao configuracao;
+
+	public Semeador(HttpClient http, Configuracao configuracao) {
+		this.http = http;
+		this.configuracao = configuracao;
+	}
+
+	public List<Massa> semear() {
+		List<Massa> massas = new ArrayList<>();
+		String rodada = Long.toString(System.currentTimeMillis(), 36);
+		ExecutorService executor = Executors.newFixedThreadPool(PARALELISMO);
+		try {
+			for (String inquilino : configuracao.getInquilinos()) {
+				massas.add(semear(inquilino, rodada, executor));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return massas;
+	}
+
+	private Massa semear(String inquilino, String rodada, ExecutorService executor) {
+		int quantidade = configuracao.getClientes();
+		long[] clientes = new long[quantidade];
+		long[] consultas = new long[quantidade];
+		List<Long> telefones = Collections.synchronizedList(new ArrayList<>());
+		List<CompletableFuture<Void>> pendentes = new ArrayList<>();
+		for (int i = 0; i < quantidade; i++) {
+			int indice = i;
+			pendentes.add(CompletableFuture.runAsync(() -> {
+				try {
+					String resposta = criar(inquilino, corpo(rodada, indice));
+					clientes[indice] = primeiroId(resposta);
+					List<Long> criados = telefones(resposta);
+					if (!criados.isEmpty()) {
+						consultas[indice] = criados.get(0);
+						telefones.addAll(criados.subList(1, criados.size()));
+					}
+				} catch (IOException e) {
+					throw new IllegalStateException("Falha ao semear cliente " + indice + " de " + inquilino, e);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Semeadura interrompida", e);
+				}
+			}, executor));
+		}
+		CompletableFuture.allOf(pendentes.toArray(new CompletableFuture[0])).join();
+		return new Massa(inquilino, clientes, configuracao.getClientesQuentes(), consultas, telefones);
+	}
+
+	private String criar(String inquilino, String corpo) throws IOException, InterruptedException {
+		HttpRequest requisicao = HttpRequest.newBuilder(configuracao.getUrl().resolve("/cliente"))
+				.header("Content-Type", "application/json")
+				.header(CABECALHO_INQUILINO, inquilino)
+				.timeout(configuracao.getTempoLimite())
+				.POST(HttpRequest.BodyPublishers.ofString(corpo))
+				.build();
+		long espera = 50;
+		for (int tentativa = 1; ; tentativa++) {
+			HttpResponse<String> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+			if (resposta.statusCode() == 201) {
+				return resposta.body();
+			}
+			if (resposta.statusCode() != 429 || tentativa == TENTATIVAS) {
+				throw new IOException("POST /cliente respondeu " + resposta.statusCode() + ": " + resposta.body());
+			}
+			Thread.sleep(espera);
+			espera *= 2;
+		}
+	}
+
+	private String corpo(String rodada, int indice) {
+		StringBuilder corpo = new StringBuilder(512);
+		corpo.append("{\"nome\":\"Cliente carga ").append(indice)
+				.append("\",\"nomeSocial\":\"Carga ").append(indice)
+				.append("\",\"dataNascimento\":\"1990-01-01\",\"dataCadastro\":\"2024-01-01\"")
+				.append(",\"documentos\":[{\"tipo\":\"CPF\",\"numero\":\"").append(rodada).append('-').append(indice).append("\"}]")
+				.append(",\"endereco\":{\"estado\":\"SP\",\"cidade\":\"São José dos Campos\",\"bairro\":\"Centro\"")
+				.append(",\"rua\":\"Rua da Carga\",\"numero\":\"").append(indice).append("\",\"codigoPostal\":\"12200-000\"}")
+				.append(",\"telefones\":[");
+		for (int t = 0; t < configuracao.getTelefonesPorCliente(); t++) {
+			if (t > 0) {
+				corpo.append(',');
+			}
+			corpo.append("{\"ddd\":\"12\",\"numero\":\"9").append(String.format("%08d", indice * 10 + t)).append("\"}");
+		}
+		return corpo.append("]}").toString();
+	}
+
+	private static long primeiroId(String json) throws IOException {
+		Matcher matcher = ID.matcher(json);
+		if (!matcher.find()) {
+			throw new IOException("Resposta sem id: " + json);
+		}
+		return Long.parseLong(matcher.group(1));
+	}
+
+	private static List<Long> telefones(String json) {
+		List<Long> ids = new ArrayList<>();
+		Matcher lista = TELEFONES.matcher(json);
+		if (lista.find()) {
+			Matcher id = ID.matcher(lista.group(1));
+			while (id.find()) {
+				ids.add(Long.parseLong(id.group(1)));
+			}
+		}
+		return ids;
+	}
+}